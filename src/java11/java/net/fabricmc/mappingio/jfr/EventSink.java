@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR backed event sink for Java 11+, shadows the no-op Java 8 variant via the multi-release jar.
+ */
+final class EventSink {
+	static Object begin(MappingEvent.Type type) {
+		Event ret = create(type);
+		if (!ret.isEnabled()) return null;
+
+		ret.begin();
+
+		return ret;
+	}
+
+	static void commit(MappingEvent data) {
+		Event event = (Event) data.handle;
+		event.end();
+		if (!event.shouldCommit()) return;
+
+		if (event instanceof ElementEvent) {
+			ElementEvent e = (ElementEvent) event;
+			e.format = data.format;
+			e.classes = data.classes;
+			e.fields = data.fields;
+			e.methods = data.methods;
+			e.args = data.args;
+			e.vars = data.vars;
+			e.chars = data.chars;
+			e.bytes = data.bytes;
+		} else if (event instanceof IoEvent) {
+			IoEvent e = (IoEvent) event;
+			e.format = data.format;
+			e.path = data.path;
+			e.chars = data.chars;
+			if (e instanceof ReadEvent) ((ReadEvent) e).bytes = data.bytes;
+		} else if (event instanceof TreeVisitEndEvent) {
+			TreeVisitEndEvent e = (TreeVisitEndEvent) event;
+			e.classes = data.classes;
+			e.pendingMembers = data.pendingMembers;
+			e.propagatedMethods = data.propagatedMethods;
+		} else {
+			DescCompletionEvent e = (DescCompletionEvent) event;
+			e.path = data.path;
+			e.classFiles = data.classes;
+			e.fieldDescs = data.fields;
+			e.methodDescs = data.methods;
+			e.bytes = data.bytes;
+		}
+
+		event.commit();
+	}
+
+	private static Event create(MappingEvent.Type type) {
+		switch (type) {
+		case VISIT: return new VisitEvent();
+		case READ: return new ReadEvent();
+		case WRITE: return new WriteEvent();
+		case TREE_VISIT_END: return new TreeVisitEndEvent();
+		case DESC_COMPLETION: return new DescCompletionEvent();
+		default: throw new IllegalArgumentException("unknown event type: "+type);
+		}
+	}
+
+	@Category(CATEGORY)
+	abstract static class ElementEvent extends Event {
+		@Label("Format")
+		String format;
+		@Label("Classes")
+		long classes;
+		@Label("Fields")
+		long fields;
+		@Label("Methods")
+		long methods;
+		@Label("Method Args")
+		long args;
+		@Label("Method Vars")
+		long vars;
+		@Label("Chars")
+		long chars;
+		@Label("Bytes")
+		@DataAmount
+		long bytes;
+	}
+
+	@Name("net.fabricmc.mappingio.Visit")
+	@Label("Mapping Visit Pass")
+	static final class VisitEvent extends ElementEvent { }
+
+	/**
+	 * Reads and writes only observe their IO, the element counts are covered by VISIT events.
+	 */
+	@Category(CATEGORY)
+	abstract static class IoEvent extends Event {
+		@Label("Format")
+		String format;
+		@Label("Path")
+		String path;
+		@Label("Chars")
+		long chars;
+	}
+
+	@Name("net.fabricmc.mappingio.Read")
+	@Label("Mapping Read")
+	static final class ReadEvent extends IoEvent {
+		@Label("Bytes")
+		@DataAmount
+		long bytes;
+	}
+
+	@Name("net.fabricmc.mappingio.Write")
+	@Label("Mapping Write")
+	static final class WriteEvent extends IoEvent { }
+
+	@Name("net.fabricmc.mappingio.TreeVisitEnd")
+	@Label("Mapping Tree Completion")
+	@Category(CATEGORY)
+	static final class TreeVisitEndEvent extends Event {
+		@Label("Classes")
+		long classes;
+		@Label("Pending Members")
+		long pendingMembers;
+		@Label("Propagated Methods")
+		long propagatedMethods;
+	}
+
+	@Name("net.fabricmc.mappingio.DescCompletion")
+	@Label("Mapping Descriptor Completion")
+	@Category(CATEGORY)
+	static final class DescCompletionEvent extends Event {
+		@Label("Path")
+		String path;
+		@Label("Class Files")
+		long classFiles;
+		@Label("Completed Field Descs")
+		long fieldDescs;
+		@Label("Completed Method Descs")
+		long methodDescs;
+		@Label("Bytes")
+		@DataAmount
+		long bytes;
+	}
+
+	private static final String CATEGORY = "Mapping IO";
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.benchmark;
+
+import java.util.List;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.fabricmc.mappingio.MappedElementKind;
+import net.fabricmc.mappingio.MappingVisitor;
+
+/**
+ * Visitor that consumes everything into a {@link Blackhole}, isolating reader/traversal cost from any processing.
+ */
+final class BlackholeMappingVisitor implements MappingVisitor {
+	BlackholeMappingVisitor(Blackhole bh) {
+		this.bh = bh;
+	}
+
+	@Override
+	public void reset() { }
+
+	@Override
+	public void visitNamespaces(String srcNamespace, List<String> dstNamespaces) {
+		bh.consume(srcNamespace);
+		bh.consume(dstNamespaces);
+	}
+
+	@Override
+	public void visitMetadata(String key, String value) {
+		bh.consume(key);
+		bh.consume(value);
+	}
+
+	@Override
+	public boolean visitClass(String srcName) {
+		bh.consume(srcName);
+		return true;
+	}
+
+	@Override
+	public boolean visitField(String srcName, String srcDesc) {
+		bh.consume(srcName);
+		bh.consume(srcDesc);
+		return true;
+	}
+
+	@Override
+	public boolean visitMethod(String srcName, String srcDesc) {
+		bh.consume(srcName);
+		bh.consume(srcDesc);
+		return true;
+	}
+
+	@Override
+	public boolean visitMethodArg(int argPosition, int lvIndex, String srcName) {
+		bh.consume(lvIndex);
+		bh.consume(srcName);
+		return true;
+	}
+
+	@Override
+	public boolean visitMethodVar(int lvtRowIndex, int lvIndex, int startOpIdx, int endOpIdx, String srcName) {
+		bh.consume(lvIndex);
+		bh.consume(srcName);
+		return true;
+	}
+
+	@Override
+	public void visitDstName(MappedElementKind targetKind, int namespace, String name) {
+		bh.consume(name);
+	}
+
+	@Override
+	public void visitDstDesc(MappedElementKind targetKind, int namespace, String desc) {
+		bh.consume(desc);
+	}
+
+	@Override
+	public void visitComment(MappedElementKind targetKind, String comment) {
+		bh.consume(comment);
+	}
+
+	private final Blackhole bh;
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.benchmark;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.fabricmc.mappingio.MappingReader;
+import net.fabricmc.mappingio.MappingWriter;
+import net.fabricmc.mappingio.format.MappingFormat;
+import net.fabricmc.mappingio.tree.MemoryMappingTree;
+
+/**
+ * Directory based Enigma reading and writing, the only format that can't run from memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnigmaDirBenchmark {
+	@Param("2000")
+	public int classCount;
+
+	private MemoryMappingTree tree;
+	private Path readDir;
+	private Path writeDir;
+
+	@Setup
+	public void setup() throws IOException {
+		tree = new SyntheticMappingGenerator(ReadBenchmark.SEED).classes(classCount).namespaces(1).toTree();
+		readDir = Files.createTempDirectory("mio-bench-enigma-read");
+		writeDir = Files.createTempDirectory("mio-bench-enigma-write");
+
+		try (MappingWriter writer = MappingWriter.create(readDir, MappingFormat.ENIGMA_DIR)) {
+			tree.accept(writer);
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		delete(readDir);
+		delete(writeDir);
+	}
+
+	@Benchmark
+	public void read(Blackhole bh) throws IOException {
+		MappingReader.read(readDir, MappingFormat.ENIGMA_DIR, new BlackholeMappingVisitor(bh));
+	}
+
+	@Benchmark
+	public void write() throws IOException {
+		try (MappingWriter writer = MappingWriter.create(writeDir, MappingFormat.ENIGMA_DIR)) {
+			tree.accept(writer);
+		}
+	}
+
+	private static void delete(Path dir) throws IOException {
+		Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Files.delete(file);
+
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+				Files.delete(dir);
+
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.fabricmc.mappingio.MappingReader;
+import net.fabricmc.mappingio.format.MappingFormat;
+import net.fabricmc.mappingio.tree.MemoryMappingTree;
+
+/**
+ * Parse throughput of every single file {@link MappingReader} format, from memory to exclude disk IO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadBenchmark {
+	@Param({"TINY_FILE", "TINY_2_FILE", "ENIGMA_FILE", "SRG_FILE", "TSRG_FILE", "TSRG_2_FILE", "PROGUARD_FILE"})
+	public MappingFormat format;
+
+	@Param("10000")
+	public int classCount;
+
+	@Param("3")
+	public int dstNsCount;
+
+	private String content;
+
+	@Setup
+	public void setup() {
+		content = new SyntheticMappingGenerator(SEED).classes(classCount).namespaces(dstNsCount).toString(format);
+	}
+
+	@Benchmark
+	public void read(Blackhole bh) throws IOException {
+		MappingReader.read(new StringReader(content), format, new BlackholeMappingVisitor(bh));
+	}
+
+	@Benchmark
+	public MemoryMappingTree readIntoTree() throws IOException {
+		MemoryMappingTree tree = new MemoryMappingTree();
+		MappingReader.read(new StringReader(content), format, tree);
+
+		return tree;
+	}
+
+	static final long SEED = 0x5eed;
+}
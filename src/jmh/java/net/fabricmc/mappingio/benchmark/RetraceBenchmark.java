@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.fabricmc.mappingio.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.fabricmc.mappingio.format.proguard.ProGuardRetracer;
+
+/**
+ * {@link ProGuardRetracer} parsing and stack trace retracing against a synthetic R8 style mapping with line ranges
+ * and inline frames.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RetraceBenchmark {
+	@Param("20000")
+	public int classCount;
+
+	@Param("30")
+	public int frameCount;
+
+	private String mapping;
+	private ProGuardRetracer retracer;
+	private String stackTrace;
+
+	@Setup
+	public void setup() throws IOException {
+		Random random = new Random(ReadBenchmark.SEED);
+		StringBuilder sb = new StringBuilder();
+		int[][] methodLines = new int[classCount][METHODS_PER_CLASS]; // obfuscated line inside each method's range
+
+		for (int cls = 0; cls < classCount; cls++) {
+			sb.append("org.example.Class").append(cls).append(" -> o").append(cls).append(":\n");
+			int line = 1;
+
+			for (int method = 0; method < METHODS_PER_CLASS; method++) {
+				char obfName = (char) ('a' + method % OBF_METHOD_NAMES);
+				int len = 1 + random.nextInt(10);
+				appendRange(sb, line, line + len - 1, "void m"+method+"()", 100 * method, obfName);
+				methodLines[cls][method] = line + random.nextInt(len);
+
+				if (random.nextInt(4) == 0) { // inlined call: callee frame followed by its caller at the same line
+					line += len;
+					len = 1;
+					appendRange(sb, line, line, "void org.example.Util.inlined()", 3, obfName);
+					appendRange(sb, line, line, "void m"+method+"()", 100 * method + 50, obfName);
+				}
+
+				line += len;
+			}
+		}
+
+		mapping = sb.toString();
+		retracer = ProGuardRetracer.read(new StringReader(mapping));
+
+		sb.setLength(0);
+		sb.append("java.lang.RuntimeException: synthetic\n");
+
+		for (int i = 0; i < frameCount; i++) {
+			int cls = random.nextInt(classCount);
+			int method = random.nextInt(METHODS_PER_CLASS);
+
+			sb.append("\tat o").append(cls)
+					.append('.').append((char) ('a' + method % OBF_METHOD_NAMES))
+					.append("(SourceFile:").append(methodLines[cls][method]).append(")\n");
+		}
+
+		stackTrace = sb.toString();
+	}
+
+	private static void appendRange(StringBuilder sb, int start, int end, String method, int origStart, char obfName) {
+		sb.append("    ").append(start).append(':').append(end).append(':').append(method)
+				.append(':').append(origStart).append(':').append(origStart + end - start)
+				.append(" -> ").append(obfName).append('\n');
+	}
+
+	@Benchmark
+	public ProGuardRetracer read() throws IOException {
+		return ProGuardRetracer.read(new StringReader(mapping));
+	}
+
+	@Benchmark
+	public String retrace() {
+		return retracer.retrace(stackTrace);
+	}
+
+	private static final int METHODS_PER_CLASS = 20;
+	private static final int OBF_METHOD_NAMES = 5;
+}
@@ -0,0 +1,781 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.benchmark;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import net.fabricmc.mappingio.MappedElementKind;
+import net.fabricmc.mappingio.MappingFlag;
+import net.fabricmc.mappingio.MappingVisitor;
+import net.fabricmc.mappingio.MappingWriter;
+import net.fabricmc.mappingio.format.MappingFormat;
+import net.fabricmc.mappingio.tree.MemoryMappingTree;
+
+/**
+ * Deterministic synthetic mapping corpus for benchmarks and load tests, no external mapping files required.
+ *
+ * <p>The output only depends on the seed and configuration: every element is derived from a hash of the seed and its
+ * position, so repeated visitation passes, different output formats and different machines all see the same data.
+ * Content is streamed, memory use is limited to the class name table regardless of the member count.
+ *
+ * <p>Inner classes directly follow their outer class. The first two method slots of each class use shared names and
+ * descriptors ({@link #SHARED_METHOD_NAMES}) to give hierarchy related operations something to work with.
+ *
+ * <p>Command line usage: {@code <format> <output> [--seed=N] [--classes=N] [--namespaces=N] [--depth=N]
+ * [--inner=P] [--fields=N] [--methods=N] [--args=N] [--vars=N] [--comments=P] [--unmapped=P]}, see
+ * {@code ./gradlew generateMappings}.
+ */
+public final class SyntheticMappingGenerator {
+	public SyntheticMappingGenerator(long seed) {
+		this.seed = seed;
+	}
+
+	// configuration
+
+	public SyntheticMappingGenerator classes(int count) {
+		this.classCount = count;
+		this.layout = null;
+
+		return this;
+	}
+
+	public SyntheticMappingGenerator namespaces(int dstNamespaceCount) {
+		this.dstNsCount = dstNamespaceCount;
+
+		return this;
+	}
+
+	public SyntheticMappingGenerator maxNestingDepth(int depth) {
+		this.maxNestingDepth = depth;
+		this.layout = null;
+
+		return this;
+	}
+
+	/**
+	 * Probability for a class to become an inner class of the previous class, if the nesting depth permits.
+	 */
+	public SyntheticMappingGenerator innerClassChance(double chance) {
+		this.innerClassChance = chance;
+		this.layout = null;
+
+		return this;
+	}
+
+	public SyntheticMappingGenerator maxFields(int count) {
+		this.maxFields = count;
+
+		return this;
+	}
+
+	public SyntheticMappingGenerator maxMethods(int count) {
+		this.maxMethods = count;
+
+		return this;
+	}
+
+	/**
+	 * @param count maximum arg count per method, at most 255 like the JVM permits
+	 */
+	public SyntheticMappingGenerator maxArgs(int count) {
+		if (count < 0 || count > MAX_ARGS) throw new IllegalArgumentException("arg count outside 0.."+MAX_ARGS+": "+count);
+
+		this.maxArgs = count;
+
+		return this;
+	}
+
+	public SyntheticMappingGenerator maxVars(int count) {
+		this.maxVars = count;
+
+		return this;
+	}
+
+	public SyntheticMappingGenerator commentChance(double chance) {
+		this.commentChance = chance;
+
+		return this;
+	}
+
+	/**
+	 * Probability for a dst name to be absent, the first namespace is always complete since several writers rely on it.
+	 */
+	public SyntheticMappingGenerator unmappedChance(double chance) {
+		this.unmappedChance = chance;
+
+		return this;
+	}
+
+	// output
+
+	public MemoryMappingTree toTree() {
+		MemoryMappingTree ret = new MemoryMappingTree();
+
+		try {
+			accept(ret);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		return ret;
+	}
+
+	public String toString(MappingFormat format) {
+		StringWriter ret = new StringWriter();
+
+		try {
+			write(ret, format);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		return ret.toString();
+	}
+
+	public void write(Path file, MappingFormat format) throws IOException {
+		if (format.hasSingleFile()) {
+			try (Writer writer = Files.newBufferedWriter(file)) {
+				write(writer, format);
+			}
+		} else {
+			try (MappingWriter writer = MappingWriter.create(file, format)) {
+				accept(writer);
+			}
+		}
+	}
+
+	/**
+	 * Stream the corpus in the given single file format, SRG and TSRG variants are rendered without a library writer.
+	 *
+	 * <p>The writer gets closed afterwards, like with the regular {@link MappingWriter}s.
+	 */
+	public void write(Writer writer, MappingFormat format) throws IOException {
+		switch (format) {
+		case SRG_FILE:
+		case TSRG_FILE:
+		case TSRG_2_FILE:
+			accept(new ColumnTextWriter(writer, format));
+			writer.close();
+			break;
+		default:
+			MappingWriter mappingWriter = MappingWriter.create(writer, format);
+			accept(mappingWriter);
+			mappingWriter.close();
+		}
+	}
+
+	public void accept(MappingVisitor visitor) throws IOException {
+		Layout layout = getLayout();
+		List<String> dstNamespaces = new ArrayList<>(dstNsCount);
+
+		for (int i = 0; i < dstNsCount; i++) {
+			dstNamespaces.add(DST_NAMESPACE_PREFIX+i);
+		}
+
+		Set<MappingFlag> flags = visitor.getFlags();
+		boolean fieldDstDescs = flags.contains(MappingFlag.NEEDS_DST_FIELD_DESC);
+		boolean methodDstDescs = flags.contains(MappingFlag.NEEDS_DST_METHOD_DESC);
+		Context ctx = new Context(layout, visitor, fieldDstDescs, methodDstDescs);
+
+		do {
+			if (visitor.visitHeader()) {
+				visitor.visitNamespaces(SRC_NAMESPACE, dstNamespaces);
+			}
+
+			if (visitor.visitContent()) {
+				for (int cls = 0; cls < layout.names.length; cls++) {
+					visitClass(cls, ctx);
+				}
+			}
+		} while (!visitor.visitEnd());
+	}
+
+	private void visitClass(int cls, Context ctx) throws IOException {
+		MappingVisitor visitor = ctx.visitor;
+		Layout layout = ctx.layout;
+		if (!visitor.visitClass(layout.names[cls])) return;
+
+		for (int ns = 0; ns < dstNsCount; ns++) {
+			String name = getDstClassName(cls, ns);
+			if (name != null) visitor.visitDstName(MappedElementKind.CLASS, ns, name);
+		}
+
+		if (!visitor.visitElementContent(MappedElementKind.CLASS)) return;
+
+		Rng rnd = ctx.rnd.seed(mix(seed, TAG_CLASS, cls));
+		if (rnd.chance(commentChance)) visitor.visitComment(MappedElementKind.CLASS, "Synthetic class "+cls+".\nSecond line.");
+
+		int fieldCount = rnd.nextInt(maxFields + 1);
+		StringBuilder sb = ctx.sb;
+
+		for (int field = 0; field < fieldCount; field++) {
+			// draw all random values upfront to not depend on the visitor's skipping decisions
+			int type = randomType(rnd, layout);
+			boolean comment = rnd.chance(commentChance);
+			String name = "f"+field;
+
+			if (visitor.visitField(name, appendType(type, SRC_NS, layout, sb).toString())) {
+				long key = mix(seed, cls, TAG_FIELD + field);
+				visitDstNames(MappedElementKind.FIELD, name, key, visitor);
+
+				if (ctx.fieldDstDescs) {
+					for (int ns = 0; ns < dstNsCount; ns++) {
+						visitor.visitDstDesc(MappedElementKind.FIELD, ns, appendType(type, ns, layout, sb).toString());
+					}
+				}
+
+				if (visitor.visitElementContent(MappedElementKind.FIELD) && comment) {
+					visitor.visitComment(MappedElementKind.FIELD, "Synthetic field "+name+".");
+				}
+			}
+		}
+
+		int methodCount = rnd.nextInt(maxMethods + 1);
+		int[] argTypes = ctx.argTypes;
+
+		for (int method = 0; method < methodCount; method++) {
+			int argCount;
+			int retType;
+			String name;
+
+			if (method < SHARED_METHOD_NAMES.length) {
+				argCount = 0;
+				retType = VOID;
+				name = SHARED_METHOD_NAMES[method];
+			} else {
+				argCount = rnd.nextInt(maxArgs + 1);
+
+				for (int arg = 0; arg < argCount; arg++) {
+					argTypes[arg] = randomType(rnd, layout);
+				}
+
+				retType = rnd.nextBoolean() ? VOID : randomType(rnd, layout);
+				name = "m"+method;
+			}
+
+			boolean isStatic = rnd.nextInt(4) == 0;
+			int varCount = rnd.nextInt(maxVars + 1);
+			boolean comment = rnd.chance(commentChance);
+
+			if (!visitor.visitMethod(name, appendMethodDesc(argTypes, argCount, retType, SRC_NS, layout, sb))) continue;
+
+			long key = mix(seed, cls, TAG_METHOD + method);
+			visitDstNames(MappedElementKind.METHOD, name, key, visitor);
+
+			if (ctx.methodDstDescs) {
+				for (int ns = 0; ns < dstNsCount; ns++) {
+					visitor.visitDstDesc(MappedElementKind.METHOD, ns, appendMethodDesc(argTypes, argCount, retType, ns, layout, sb));
+				}
+			}
+
+			if (!visitor.visitElementContent(MappedElementKind.METHOD)) continue;
+			if (comment) visitor.visitComment(MappedElementKind.METHOD, "Synthetic method "+name+".");
+
+			int lvIndex = isStatic ? 0 : 1;
+
+			for (int arg = 0; arg < argCount; arg++) {
+				if (visitor.visitMethodArg(arg, lvIndex, null)) {
+					visitDstNames(MappedElementKind.METHOD_ARG, "arg"+arg, mix(key, TAG_ARG, arg), visitor);
+					visitor.visitElementContent(MappedElementKind.METHOD_ARG);
+				}
+
+				lvIndex += getSize(argTypes[arg]);
+			}
+
+			for (int var = 0; var < varCount; var++) {
+				// each local occupies its own slot and starts a few instructions after the previous one
+				if (visitor.visitMethodVar(var, lvIndex + var, 4 * var + 2, -1, null)) {
+					visitDstNames(MappedElementKind.METHOD_VAR, "local"+var, mix(key, TAG_VAR, var), visitor);
+					visitor.visitElementContent(MappedElementKind.METHOD_VAR);
+				}
+			}
+		}
+	}
+
+	private void visitDstNames(MappedElementKind kind, String srcName, long key, MappingVisitor visitor) throws IOException {
+		for (int ns = 0; ns < dstNsCount; ns++) {
+			if (ns > 0 && toDouble(mix(key, TAG_UNMAPPED, ns)) < unmappedChance) continue;
+
+			visitor.visitDstName(kind, ns, srcName+"_n"+ns);
+		}
+	}
+
+	/**
+	 * Get the dst name of a class, derived from its outer class' dst name for inner classes.
+	 *
+	 * @return the dst name or null if unmapped in the namespace
+	 */
+	private String getDstClassName(int cls, int ns) {
+		if (ns > 0 && toDouble(mix(seed, TAG_UNMAPPED_CLASS + cls, ns)) < unmappedChance) return null;
+
+		return getMappedClassName(cls, ns);
+	}
+
+	/**
+	 * Get the name of a class in a namespace, falling back to the src name where unmapped like descriptor mapping does.
+	 */
+	private String getMappedClassName(int cls, int ns) {
+		Layout layout = getLayout();
+		if (ns == SRC_NS) return layout.names[cls];
+
+		String name = layout.names[cls];
+		int outer = layout.outer[cls];
+		String prefix;
+		String simpleName;
+
+		if (outer < 0) {
+			int pos = name.lastIndexOf('/') + 1;
+			prefix = name.substring(0, pos);
+			simpleName = name.substring(pos);
+		} else {
+			String outerName = getDstClassName(outer, ns);
+			prefix = (outerName != null ? outerName : layout.names[outer])+"$";
+			simpleName = name.substring(name.lastIndexOf('$') + 1);
+		}
+
+		return prefix+"n"+ns+"_"+simpleName;
+	}
+
+	private int randomType(Rng rnd, Layout layout) {
+		int ret;
+
+		if (rnd.nextBoolean()) {
+			ret = PRIMITIVE_BASE + rnd.nextInt(PRIMITIVES.length() - 1); // excludes V
+		} else {
+			ret = rnd.nextInt(layout.names.length);
+		}
+
+		if (rnd.nextInt(5) == 0) ret |= ARRAY_FLAG;
+
+		return ret;
+	}
+
+	private static int getSize(int type) {
+		if (type < PRIMITIVE_BASE || (type & ARRAY_FLAG) != 0) return 1; // class or array
+
+		char c = PRIMITIVES.charAt(type - PRIMITIVE_BASE);
+
+		return c == 'J' || c == 'D' ? 2 : 1;
+	}
+
+	private StringBuilder appendType(int type, int ns, Layout layout, StringBuilder sb) {
+		sb.setLength(0);
+
+		return appendTypeRaw(type, ns, layout, sb);
+	}
+
+	private StringBuilder appendTypeRaw(int type, int ns, Layout layout, StringBuilder sb) {
+		if ((type & ARRAY_FLAG) != 0) {
+			sb.append('[');
+			type &= ~ARRAY_FLAG;
+		}
+
+		if (type >= PRIMITIVE_BASE) {
+			sb.append(PRIMITIVES.charAt(type - PRIMITIVE_BASE));
+		} else {
+			sb.append('L');
+			sb.append(ns == SRC_NS ? layout.names[type] : getDstOrSrcClassName(type, ns));
+			sb.append(';');
+		}
+
+		return sb;
+	}
+
+	private String getDstOrSrcClassName(int cls, int ns) {
+		String ret = getDstClassName(cls, ns);
+
+		return ret != null ? ret : getLayout().names[cls];
+	}
+
+	private String appendMethodDesc(int[] argTypes, int argCount, int retType, int ns, Layout layout, StringBuilder sb) {
+		sb.setLength(0);
+		sb.append('(');
+
+		for (int i = 0; i < argCount; i++) {
+			appendTypeRaw(argTypes[i], ns, layout, sb);
+		}
+
+		sb.append(')');
+
+		return appendTypeRaw(retType, ns, layout, sb).toString();
+	}
+
+	private Layout getLayout() {
+		Layout ret = layout;
+
+		if (ret == null) {
+			layout = ret = new Layout(classCount);
+			Rng rnd = new Rng().seed(mix(seed, TAG_LAYOUT, 0));
+			int[] stack = new int[maxNestingDepth + 1];
+			int depth = -1;
+
+			for (int cls = 0; cls < classCount; cls++) {
+				if (depth >= 0 && depth < maxNestingDepth && rnd.chance(innerClassChance)) {
+					depth++; // inner class of the previous class
+				} else {
+					depth = depth > 0 ? rnd.nextInt(depth + 1) : 0; // sibling of the previous class or one of its outer classes
+				}
+
+				stack[depth] = cls;
+
+				if (depth == 0) {
+					ret.outer[cls] = -1;
+					ret.names[cls] = PACKAGES[rnd.nextInt(PACKAGES.length)]+"C"+cls;
+				} else {
+					int outer = stack[depth - 1];
+					ret.outer[cls] = outer;
+					ret.names[cls] = ret.names[outer]+"$I"+cls;
+				}
+			}
+		}
+
+		return ret;
+	}
+
+	private static long mix(long a, long b, long c) {
+		return mix(mix(a ^ 0x9e3779b97f4a7c15L * (b + 1)) + c);
+	}
+
+	// SplitMix64 finalizer
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+
+		return z ^ (z >>> 31);
+	}
+
+	private static double toDouble(long value) {
+		return (value >>> 11) * 0x1.0p-53;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("usage: <format> <output> [--seed=N] [--classes=N] [--namespaces=N] [--depth=N] [--inner=P] "
+					+ "[--fields=N] [--methods=N] [--args=N] [--vars=N] [--comments=P] [--unmapped=P]");
+			System.exit(1);
+		}
+
+		MappingFormat format = MappingFormat.valueOf(args[0]);
+		Path output = Paths.get(args[1]);
+		long seed = 0;
+		List<String> options = Arrays.asList(args).subList(2, args.length);
+
+		for (String option : options) {
+			if (option.startsWith("--seed=")) seed = Long.parseLong(option.substring(7));
+		}
+
+		SyntheticMappingGenerator generator = new SyntheticMappingGenerator(seed);
+
+		for (String option : options) {
+			int pos = option.indexOf('=');
+			if (!option.startsWith("--") || pos < 0) throw new IllegalArgumentException("invalid option: "+option);
+
+			String value = option.substring(pos + 1);
+
+			switch (option.substring(2, pos)) {
+			case "seed": break;
+			case "classes": generator.classes(Integer.parseInt(value)); break;
+			case "namespaces": generator.namespaces(Integer.parseInt(value)); break;
+			case "depth": generator.maxNestingDepth(Integer.parseInt(value)); break;
+			case "inner": generator.innerClassChance(Double.parseDouble(value)); break;
+			case "fields": generator.maxFields(Integer.parseInt(value)); break;
+			case "methods": generator.maxMethods(Integer.parseInt(value)); break;
+			case "args": generator.maxArgs(Integer.parseInt(value)); break;
+			case "vars": generator.maxVars(Integer.parseInt(value)); break;
+			case "comments": generator.commentChance(Double.parseDouble(value)); break;
+			case "unmapped": generator.unmappedChance(Double.parseDouble(value)); break;
+			default: throw new IllegalArgumentException("unknown option: "+option);
+			}
+		}
+
+		if (output.getParent() != null) Files.createDirectories(output.getParent());
+		generator.write(output, format);
+	}
+
+	private static final class Layout {
+		Layout(int classCount) {
+			names = new String[classCount];
+			outer = new int[classCount];
+		}
+
+		final String[] names;
+		final int[] outer;
+	}
+
+	private static final class Context {
+		Context(Layout layout, MappingVisitor visitor, boolean fieldDstDescs, boolean methodDstDescs) {
+			this.layout = layout;
+			this.visitor = visitor;
+			this.fieldDstDescs = fieldDstDescs;
+			this.methodDstDescs = methodDstDescs;
+		}
+
+		final Layout layout;
+		final MappingVisitor visitor;
+		final boolean fieldDstDescs;
+		final boolean methodDstDescs;
+		final Rng rnd = new Rng();
+		final StringBuilder sb = new StringBuilder();
+		final int[] argTypes = new int[MAX_ARGS];
+	}
+
+	private static final class Rng {
+		Rng seed(long seed) {
+			state = seed;
+
+			return this;
+		}
+
+		long nextLong() {
+			return mix(state += 0x9e3779b97f4a7c15L);
+		}
+
+		int nextInt(int bound) {
+			return (int) ((nextLong() >>> 33) % bound);
+		}
+
+		boolean nextBoolean() {
+			return nextLong() < 0;
+		}
+
+		boolean chance(double probability) {
+			return toDouble(nextLong()) < probability;
+		}
+
+		private long state;
+	}
+
+	/**
+	 * Minimal streaming writers for the formats without a {@link MappingWriter}, using the first dst namespace unless
+	 * the format supports more.
+	 */
+	private static final class ColumnTextWriter implements MappingVisitor {
+		ColumnTextWriter(Writer writer, MappingFormat format) {
+			this.writer = writer;
+			this.format = format;
+		}
+
+		@Override
+		public Set<MappingFlag> getFlags() {
+			return format == MappingFormat.SRG_FILE ? SRG_FLAGS : MappingFlag.NONE;
+		}
+
+		@Override
+		public void visitNamespaces(String srcNamespace, List<String> dstNamespaces) throws IOException {
+			dstNames = new String[format == MappingFormat.TSRG_2_FILE ? dstNamespaces.size() : 1];
+
+			if (format == MappingFormat.TSRG_2_FILE) {
+				writer.write("tsrg2 ");
+				writer.write(srcNamespace);
+
+				for (String ns : dstNamespaces) {
+					writer.write(' ');
+					writer.write(ns);
+				}
+
+				writer.write('\n');
+			}
+		}
+
+		@Override
+		public boolean visitClass(String srcName) {
+			clsSrcName = srcName;
+
+			return true;
+		}
+
+		@Override
+		public boolean visitField(String srcName, String srcDesc) {
+			memberSrcName = srcName;
+			memberSrcDesc = srcDesc;
+
+			return true;
+		}
+
+		@Override
+		public boolean visitMethod(String srcName, String srcDesc) {
+			memberSrcName = srcName;
+			memberSrcDesc = srcDesc;
+
+			return true;
+		}
+
+		@Override
+		public boolean visitMethodArg(int argPosition, int lvIndex, String srcName) {
+			return false;
+		}
+
+		@Override
+		public boolean visitMethodVar(int lvtRowIndex, int lvIndex, int startOpIdx, int endOpIdx, String srcName) {
+			return false;
+		}
+
+		@Override
+		public void visitDstName(MappedElementKind targetKind, int namespace, String name) {
+			if (namespace < dstNames.length) dstNames[namespace] = name;
+		}
+
+		@Override
+		public void visitDstDesc(MappedElementKind targetKind, int namespace, String desc) {
+			if (namespace == 0) memberDstDesc = desc;
+		}
+
+		@Override
+		public boolean visitElementContent(MappedElementKind targetKind) throws IOException {
+			if (format == MappingFormat.SRG_FILE) {
+				writeSrg(targetKind);
+			} else {
+				writeTsrg(targetKind);
+			}
+
+			return targetKind == MappedElementKind.CLASS;
+		}
+
+		private void writeSrg(MappedElementKind targetKind) throws IOException {
+			switch (targetKind) {
+			case CLASS:
+				clsDstName = name(0, clsSrcName);
+				writer.write("CL: ");
+				writer.write(clsSrcName);
+				writer.write(' ');
+				writer.write(clsDstName);
+				break;
+			case FIELD:
+				writer.write("FD: ");
+				writer.write(clsSrcName+"/"+memberSrcName);
+				writer.write(' ');
+				writer.write(clsDstName+"/"+name(0, memberSrcName));
+				break;
+			case METHOD:
+				writer.write("MD: ");
+				writer.write(clsSrcName+"/"+memberSrcName);
+				writer.write(' ');
+				writer.write(memberSrcDesc);
+				writer.write(' ');
+				writer.write(clsDstName+"/"+name(0, memberSrcName));
+				writer.write(' ');
+				writer.write(memberDstDesc != null ? memberDstDesc : memberSrcDesc);
+				break;
+			default:
+				throw new IllegalStateException();
+			}
+
+			writer.write('\n');
+			clear();
+		}
+
+		private void writeTsrg(MappedElementKind targetKind) throws IOException {
+			String srcName;
+
+			if (targetKind == MappedElementKind.CLASS) {
+				srcName = clsSrcName;
+				writer.write(srcName);
+			} else {
+				srcName = memberSrcName;
+				writer.write('\t');
+				writer.write(srcName);
+
+				if (targetKind == MappedElementKind.METHOD || format == MappingFormat.TSRG_2_FILE) {
+					writer.write(' ');
+					writer.write(memberSrcDesc);
+				}
+			}
+
+			for (int i = 0; i < dstNames.length; i++) {
+				writer.write(' ');
+				writer.write(name(i, srcName));
+			}
+
+			writer.write('\n');
+			clear();
+		}
+
+		private String name(int ns, String srcName) {
+			String ret = dstNames[ns];
+
+			return ret != null ? ret : srcName;
+		}
+
+		private void clear() {
+			for (int i = 0; i < dstNames.length; i++) {
+				dstNames[i] = null;
+			}
+
+			memberDstDesc = null;
+		}
+
+		@Override
+		public void visitComment(MappedElementKind targetKind, String comment) { }
+
+		private static final Set<MappingFlag> SRG_FLAGS = Collections.singleton(MappingFlag.NEEDS_DST_METHOD_DESC);
+
+		private final Writer writer;
+		private final MappingFormat format;
+		private String[] dstNames;
+		private String clsSrcName;
+		private String clsDstName;
+		private String memberSrcName;
+		private String memberSrcDesc;
+		private String memberDstDesc;
+	}
+
+	public static final String SRC_NAMESPACE = "src";
+	public static final String DST_NAMESPACE_PREFIX = "ns";
+	public static final String[] SHARED_METHOD_NAMES = { "run", "apply" };
+
+	private static final int SRC_NS = -1;
+	private static final String PRIMITIVES = "ZBCSIJFDV";
+	// type encoding: class index, PRIMITIVE_BASE + index into PRIMITIVES, optionally with ARRAY_FLAG
+	private static final int PRIMITIVE_BASE = 1 << 29;
+	private static final int ARRAY_FLAG = 1 << 30;
+	private static final int VOID = PRIMITIVE_BASE + PRIMITIVES.length() - 1;
+	private static final int MAX_ARGS = 255; // JVM method parameter limit
+	private static final String[] PACKAGES = { "", "a/", "a/b/", "net/example/", "net/example/impl/", "org/test/util/" };
+
+	private static final long TAG_LAYOUT = 1;
+	private static final long TAG_CLASS = 2;
+	private static final long TAG_FIELD = 0x10_0000L;
+	private static final long TAG_METHOD = 0x20_0000L;
+	private static final long TAG_ARG = 3;
+	private static final long TAG_VAR = 4;
+	private static final long TAG_UNMAPPED = 5;
+	private static final long TAG_UNMAPPED_CLASS = 0x40_0000L;
+
+	private final long seed;
+	private int classCount = 10_000;
+	private int dstNsCount = 3;
+	private int maxNestingDepth = 3;
+	private double innerClassChance = 0.25;
+	private int maxFields = 8;
+	private int maxMethods = 12;
+	private int maxArgs = 4;
+	private int maxVars = 2;
+	private double commentChance = 0.15;
+	private double unmappedChance = 0.1;
+	private Layout layout;
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.fabricmc.mappingio.adapter.MappingNsRenamer;
+import net.fabricmc.mappingio.adapter.MappingSourceNsSwitch;
+import net.fabricmc.mappingio.tree.HierarchyInfoProvider;
+import net.fabricmc.mappingio.tree.MappingTree.ClassMapping;
+import net.fabricmc.mappingio.tree.MappingTree.MethodMapping;
+import net.fabricmc.mappingio.tree.MappingTreeView;
+import net.fabricmc.mappingio.tree.MappingTreeView.MethodMappingView;
+import net.fabricmc.mappingio.tree.MemoryMappingTree;
+import net.fabricmc.mappingio.tree.VisitOrder;
+
+/**
+ * {@link MemoryMappingTree} operations: merging, sorted traversal, descriptor mapping, source namespace switching and
+ * hierarchy name propagation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TreeBenchmark {
+	@Param("10000")
+	public int classCount;
+
+	@Param("3")
+	public int dstNsCount;
+
+	private MemoryMappingTree tree;
+	private MemoryMappingTree overlay;
+	private String[] methodDescs;
+
+	@Setup
+	public void setup() throws IOException {
+		tree = new SyntheticMappingGenerator(ReadBenchmark.SEED).classes(classCount).namespaces(dstNsCount).toTree();
+
+		// same content with one namespace renamed, merging it extends the existing tree by a namespace
+		overlay = new MemoryMappingTree();
+		tree.accept(new MappingNsRenamer(overlay, Collections.singletonMap("ns0", "extra")));
+
+		List<String> descs = new ArrayList<>();
+
+		for (ClassMapping cls : tree.getClasses()) {
+			for (MethodMapping method : cls.getMethods()) {
+				descs.add(method.getSrcDesc());
+			}
+		}
+
+		methodDescs = descs.toArray(new String[0]);
+	}
+
+	@State(Scope.Thread)
+	public static class TreeCopy {
+		MemoryMappingTree tree;
+
+		@Setup(Level.Invocation)
+		public void setup(TreeBenchmark benchmark) throws IOException {
+			tree = new MemoryMappingTree();
+			benchmark.tree.accept(tree);
+		}
+	}
+
+	@Benchmark
+	public MemoryMappingTree merge(TreeCopy copy) throws IOException {
+		overlay.accept(copy.tree);
+
+		return copy.tree;
+	}
+
+	@Benchmark
+	public void acceptByName(Blackhole bh) throws IOException {
+		tree.accept(new BlackholeMappingVisitor(bh), VisitOrder.createByName());
+	}
+
+	@Benchmark
+	public void mapDesc(Blackhole bh) {
+		for (String desc : methodDescs) {
+			bh.consume(tree.mapDesc(desc, 0));
+		}
+	}
+
+	@Benchmark
+	public void sourceNsSwitch(Blackhole bh) throws IOException {
+		tree.accept(new MappingSourceNsSwitch(new BlackholeMappingVisitor(bh), "ns0"));
+	}
+
+	@Benchmark
+	public MemoryMappingTree propagateNames(TreeCopy copy) {
+		copy.tree.setHierarchyInfoProvider(new PackageHierarchyProvider(copy.tree));
+
+		return copy.tree;
+	}
+
+	/**
+	 * Synthetic hierarchy treating all equally named and described methods within a package as overriding each other.
+	 */
+	private static final class PackageHierarchyProvider implements HierarchyInfoProvider<List<MethodMapping>> {
+		PackageHierarchyProvider(MemoryMappingTree tree) {
+			for (ClassMapping cls : tree.getClasses()) {
+				for (MethodMapping method : cls.getMethods()) {
+					hierarchies.computeIfAbsent(key(cls.getSrcName(), method.getSrcName(), method.getSrcDesc()), ignore -> new ArrayList<>()).add(method);
+				}
+			}
+		}
+
+		@Override
+		public String getNamespace() {
+			return SyntheticMappingGenerator.SRC_NAMESPACE;
+		}
+
+		@Override
+		public String resolveField(String owner, String name, String desc) {
+			return owner;
+		}
+
+		@Override
+		public String resolveMethod(String owner, String name, String desc) {
+			return owner;
+		}
+
+		@Override
+		public List<MethodMapping> getMethodHierarchy(String owner, String name, String desc) {
+			return hierarchies.get(key(owner, name, desc));
+		}
+
+		@Override
+		public int getHierarchySize(List<MethodMapping> hierarchy) {
+			return hierarchy != null ? hierarchy.size() : 0;
+		}
+
+		@Override
+		public List<? extends MethodMappingView> getHierarchyMethods(List<MethodMapping> hierarchy, MappingTreeView tree) {
+			return hierarchy;
+		}
+
+		private static String key(String owner, String name, String desc) {
+			return owner.substring(0, owner.lastIndexOf('/') + 1).concat(name).concat(desc);
+		}
+
+		private final Map<String, List<MethodMapping>> hierarchies = new HashMap<>();
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.benchmark;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.fabricmc.mappingio.MappingWriter;
+import net.fabricmc.mappingio.format.MappingFormat;
+import net.fabricmc.mappingio.tree.MemoryMappingTree;
+import net.fabricmc.mappingio.tree.VisitOrder;
+
+/**
+ * Output throughput of every single file {@link MappingWriter}, writing into a discarding sink.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteBenchmark {
+	@Param({"TINY_FILE", "TINY_2_FILE", "ENIGMA_FILE", "PROGUARD_FILE"})
+	public MappingFormat format;
+
+	@Param("10000")
+	public int classCount;
+
+	@Param("3")
+	public int dstNsCount;
+
+	private MemoryMappingTree tree;
+
+	@Setup
+	public void setup() throws IOException {
+		tree = new SyntheticMappingGenerator(ReadBenchmark.SEED).classes(classCount).namespaces(dstNsCount).toTree();
+
+		// parallel output has to be byte identical, otherwise comparing throughput is moot
+		StringWriter sequential = new StringWriter();
+		StringWriter parallel = new StringWriter();
+
+		try (MappingWriter writer = MappingWriter.create(sequential, format)) {
+			tree.accept(writer);
+		}
+
+		tree.acceptParallel(parallel, format, VisitOrder.createByInputOrder());
+
+		if (!sequential.toString().equals(parallel.toString())) {
+			throw new IllegalStateException("parallel "+format+" output differs from sequential output");
+		}
+	}
+
+	@Benchmark
+	public long write() throws IOException {
+		CountingWriter out = new CountingWriter();
+
+		try (MappingWriter writer = MappingWriter.create(out, format)) {
+			tree.accept(writer);
+		}
+
+		return out.count;
+	}
+
+	@Benchmark
+	public long writeParallel() throws IOException {
+		CountingWriter out = new CountingWriter();
+		tree.acceptParallel(out, format, VisitOrder.createByInputOrder());
+
+		return out.count;
+	}
+
+	static final class CountingWriter extends Writer {
+		@Override
+		public void write(int c) {
+			count++;
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) {
+			count += len;
+		}
+
+		@Override
+		public void write(String str, int off, int len) {
+			count += len;
+		}
+
+		@Override
+		public void flush() { }
+
+		@Override
+		public void close() { }
+
+		long count;
+	}
+}
@@ -51,7 +51,17 @@ public enum MappingFlag {
 	/**
 	 * Requirement that destination method descriptors have to be supplied.
 	 */
-	NEEDS_DST_METHOD_DESC;
+	NEEDS_DST_METHOD_DESC,
+	/**
+	 * Requirement that the visitor produces its entire output by itself and in order, e.g. because it tracks output
+	 * positions. This rules out rendering parts of the output through other instances, see
+	 * {@link net.fabricmc.mappingio.tree.MemoryMappingTree#acceptParallel}.
+	 */
+	NEEDS_CONTIGUOUS_OUTPUT,
+	/**
+	 * Indication that the visitor can make use of the size hint metadata, see {@link MappingUtil#SIZE_HINT_CLASSES}.
+	 */
+	WANTS_SIZE_HINTS;
 
 	public static final Set<MappingFlag> NONE = Collections.unmodifiableSet(EnumSet.noneOf(MappingFlag.class));
 }
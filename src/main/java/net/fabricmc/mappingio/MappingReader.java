@@ -16,15 +16,23 @@
 
 package net.fabricmc.mappingio;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import net.fabricmc.mappingio.format.MappingFormat;
 import net.fabricmc.mappingio.format.enigma.EnigmaDirReader;
@@ -34,13 +42,15 @@ import net.fabricmc.mappingio.format.srg.SrgFileReader;
 import net.fabricmc.mappingio.format.tiny.Tiny1FileReader;
 import net.fabricmc.mappingio.format.tiny.Tiny2FileReader;
 import net.fabricmc.mappingio.format.tsrg.TsrgFileReader;
+import net.fabricmc.mappingio.jfr.EventInputs;
+import net.fabricmc.mappingio.jfr.MappingEvent;
 
 public final class MappingReader {
 	public static MappingFormat detectFormat(Path file) throws IOException {
 		if (Files.isDirectory(file)) {
 			return MappingFormat.ENIGMA_DIR;
 		} else {
-			try (Reader reader = new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8)) {
+			try (Reader reader = new InputStreamReader(openFile(file), StandardCharsets.UTF_8)) {
 				return detectFormat(reader);
 			}
 		}
@@ -90,13 +100,9 @@ public final class MappingReader {
 	}
 
 	public static List<String> getNamespaces(Path file, MappingFormat format) throws IOException {
-		if (format == null) {
-			format = detectFormat(file);
-			if (format == null) throw new IOException("invalid/unsupported mapping format");
-		}
-
-		if (format.hasNamespaces) {
-			try (Reader reader = Files.newBufferedReader(file)) {
+		// the Reader variant detects the format from the same stream
+		if (format == null ? !Files.isDirectory(file) : format.hasNamespaces) {
+			try (Reader reader = newReader(openFile(file))) {
 				return getNamespaces(reader, format);
 			}
 		} else {
@@ -111,10 +117,7 @@ public final class MappingReader {
 	public static List<String> getNamespaces(Reader reader, MappingFormat format) throws IOException {
 		if (format == null) {
 			if (!reader.markSupported()) reader = new BufferedReader(reader);
-			reader.mark(DETECT_HEADER_LEN);
-			format = detectFormat(reader);
-			reader.reset();
-			if (format == null) throw new IOException("invalid/unsupported mapping format");
+			format = detectFormatAndReset(reader);
 		}
 
 		if (format.hasNamespaces) {
@@ -140,14 +143,18 @@ public final class MappingReader {
 	}
 
 	public static void read(Path file, MappingFormat format, MappingVisitor visitor) throws IOException {
-		if (format == null) {
-			format = detectFormat(file);
-			if (format == null) throw new IOException("invalid/unsupported mapping format");
-		}
+		if (format == null && Files.isDirectory(file)) format = MappingFormat.ENIGMA_DIR;
+
+		MappingEvent event = MappingEvent.begin(MappingEvent.Type.READ);
 
-		if (format.hasSingleFile()) {
-			try (Reader reader = Files.newBufferedReader(file)) {
-				read(reader, format, visitor);
+		if (format == null || format.hasSingleFile()) {
+			InputStream in = openFile(file);
+
+			try (Reader reader = newReader(event == null ? in : EventInputs.wrap(in, event))) {
+				// detect from the same stream instead of opening the file twice
+				if (format == null) format = detectFormatAndReset(reader);
+
+				readFile(reader, format, visitor);
 			}
 		} else {
 			switch (format) {
@@ -160,6 +167,11 @@ public final class MappingReader {
 				throw new IllegalStateException();
 			}
 		}
+
+		if (event != null) {
+			event.path = file.toString();
+			commitEvent(event, format);
+		}
 	}
 
 	public static void read(Reader reader, MappingVisitor visitor) throws IOException {
@@ -169,14 +181,116 @@ public final class MappingReader {
 	public static void read(Reader reader, MappingFormat format, MappingVisitor visitor) throws IOException {
 		if (format == null) {
 			if (!reader.markSupported()) reader = new BufferedReader(reader);
-			reader.mark(DETECT_HEADER_LEN);
-			format = detectFormat(reader);
-			reader.reset();
-			if (format == null) throw new IOException("invalid/unsupported mapping format");
+			format = detectFormatAndReset(reader);
 		}
 
 		checkReaderCompatible(format);
 
+		MappingEvent event = MappingEvent.begin(MappingEvent.Type.READ);
+
+		if (event == null) {
+			readFile(reader, format, visitor);
+		} else {
+			readFile(EventInputs.wrap(reader, event), format, visitor);
+			commitEvent(event, format);
+		}
+	}
+
+	public static void read(InputStream in, MappingVisitor visitor) throws IOException {
+		read(in, null, visitor);
+	}
+
+	/**
+	 * Read UTF-8 encoded mappings from a stream, which may be gzip compressed.
+	 *
+	 * <p>The stream is not closed.
+	 */
+	public static void read(InputStream in, MappingFormat format, MappingVisitor visitor) throws IOException {
+		if (!in.markSupported()) in = new BufferedInputStream(in);
+		in.mark(2);
+		int magic = in.read() | in.read() << 8;
+		in.reset();
+
+		if (magic == GZIP_MAGIC) in = new GZIPInputStream(in, GZIP_BUFFER_SIZE);
+
+		read(newReader(in), format, visitor);
+	}
+
+	/**
+	 * Read the first mapping file found at one of the well known locations within a zip or jar file.
+	 *
+	 * <p>These are {@code mappings/mappings.tiny} as used by Fabric's mapping artifacts and {@code config/joined.tsrg}
+	 * as used by MCPConfig, optionally gzip compressed.
+	 */
+	public static void readZip(Path zipFile, MappingVisitor visitor) throws IOException {
+		try (ZipFile zip = new ZipFile(zipFile.toFile())) {
+			for (String name : ZIP_ENTRY_NAMES) {
+				ZipEntry entry = zip.getEntry(name);
+
+				if (entry != null) {
+					readZipEntry(zip, entry, null, visitor);
+					return;
+				}
+			}
+		}
+
+		throw new IOException("no mapping file found in "+zipFile);
+	}
+
+	/**
+	 * Read the mapping file stored under the specified entry name within a zip or jar file.
+	 *
+	 * <p>The entry is decompressed straight into the parser, without extracting it or mounting a zip file system.
+	 */
+	public static void readZip(Path zipFile, String entryName, MappingFormat format, MappingVisitor visitor) throws IOException {
+		try (ZipFile zip = new ZipFile(zipFile.toFile())) {
+			ZipEntry entry = zip.getEntry(entryName);
+			if (entry == null) throw new IOException("no entry "+entryName+" in "+zipFile);
+
+			readZipEntry(zip, entry, format, visitor);
+		}
+	}
+
+	private static void readZipEntry(ZipFile zip, ZipEntry entry, MappingFormat format, MappingVisitor visitor) throws IOException {
+		if (entry.isDirectory()) throw new IOException("entry "+entry.getName()+" is a directory");
+
+		try (InputStream in = zip.getInputStream(entry)) {
+			// the inflater stream doesn't support marking, wrap it with a buffer sized for the inflater output
+			read(new BufferedInputStream(in, GZIP_BUFFER_SIZE), format, visitor);
+		}
+	}
+
+	/**
+	 * Open a file for reading, transparently decompressing it if it starts with the gzip magic bytes.
+	 */
+	private static InputStream openFile(Path file) throws IOException {
+		FileChannel channel = FileChannel.open(file);
+
+		try {
+			ByteBuffer magic = ByteBuffer.allocate(2);
+
+			while (magic.hasRemaining() && channel.read(magic) >= 0) { }
+
+			channel.position(0);
+			InputStream ret = Channels.newInputStream(channel);
+
+			if (!magic.hasRemaining() && (magic.get(0) & 0xff | (magic.get(1) & 0xff) << 8) == GZIP_MAGIC) {
+				ret = new GZIPInputStream(ret, GZIP_BUFFER_SIZE);
+			}
+
+			return ret;
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	// equivalent to Files.newBufferedReader, rejecting malformed input
+	private static BufferedReader newReader(InputStream in) {
+		return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8.newDecoder()));
+	}
+
+	private static void readFile(Reader reader, MappingFormat format, MappingVisitor visitor) throws IOException {
 		switch (format) {
 		case TINY_FILE:
 			Tiny1FileReader.read(reader, visitor);
@@ -202,6 +316,20 @@ public final class MappingReader {
 		}
 	}
 
+	private static MappingFormat detectFormatAndReset(Reader reader) throws IOException {
+		reader.mark(DETECT_HEADER_LEN);
+		MappingFormat ret = detectFormat(reader);
+		reader.reset();
+		if (ret == null) throw new IOException("invalid/unsupported mapping format");
+
+		return ret;
+	}
+
+	private static void commitEvent(MappingEvent event, MappingFormat format) {
+		event.format = format.name();
+		event.commit();
+	}
+
 	private static void checkReaderCompatible(MappingFormat format) throws IOException {
 		if (!format.hasSingleFile()) {
 			throw new IOException("can't read mapping format "+format.name+" using a Reader, use the Path based API");
@@ -209,4 +337,7 @@ public final class MappingReader {
 	}
 
 	private static final int DETECT_HEADER_LEN = 4096;
+	private static final int GZIP_MAGIC = 0x8b1f; // little endian 1f 8b
+	private static final int GZIP_BUFFER_SIZE = 1 << 16;
+	private static final String[] ZIP_ENTRY_NAMES = { "mappings/mappings.tiny", "mappings/mappings.tiny.gz", "config/joined.tsrg" };
 }
@@ -16,6 +16,7 @@
 
 package net.fabricmc.mappingio;
 
+import java.io.IOException;
 import java.util.Map;
 
 public final class MappingUtil {
@@ -57,6 +58,50 @@ public final class MappingUtil {
 		return s != null ? new String[] { s } : null;
 	}
 
+	/**
+	 * Fallback for the bulk visit methods, replays an element's properties through the individual callbacks.
+	 */
+	static boolean visitElement(MappingVisitor visitor, MappedElementKind targetKind, String[] dstNames, String[] dstDescs, String comment) throws IOException {
+		if (dstNames != null) {
+			for (int i = 0; i < dstNames.length; i++) {
+				String name = dstNames[i];
+				if (name != null) visitor.visitDstName(targetKind, i, name);
+			}
+		}
+
+		if (dstDescs != null) {
+			for (int i = 0; i < dstDescs.length; i++) {
+				String desc = dstDescs[i];
+				if (desc != null) visitor.visitDstDesc(targetKind, i, desc);
+			}
+		}
+
+		if (!visitor.visitElementContent(targetKind)) return false;
+		if (comment != null) visitor.visitComment(targetKind, comment);
+
+		return true;
+	}
+
+	public static boolean isSizeHint(String key) {
+		return key.equals(SIZE_HINT_CLASSES) || key.equals(SIZE_HINT_FIELDS) || key.equals(SIZE_HINT_METHODS);
+	}
+
 	public static final String NS_SOURCE_FALLBACK = "source";
 	public static final String NS_TARGET_FALLBACK = "target";
+
+	/**
+	 * Prefix of metadata keys reserved for use by Mapping-IO itself.
+	 */
+	public static final String RESERVED_METADATA_PREFIX = "mapping-io:";
+
+	/**
+	 * Metadata keys announcing the total amount of classes, fields and methods in the subsequent content.
+	 *
+	 * <p>The values are decimal integers meant for pre-sizing storage only, they may be inaccurate e.g. after
+	 * filtering. They are only supplied to visitors with {@link MappingFlag#WANTS_SIZE_HINTS}, which consume them
+	 * instead of treating them as regular metadata.
+	 */
+	public static final String SIZE_HINT_CLASSES = RESERVED_METADATA_PREFIX+"class-count";
+	public static final String SIZE_HINT_FIELDS = RESERVED_METADATA_PREFIX+"field-count";
+	public static final String SIZE_HINT_METHODS = RESERVED_METADATA_PREFIX+"method-count";
 }
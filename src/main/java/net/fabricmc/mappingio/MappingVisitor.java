@@ -45,6 +45,12 @@ import java.util.Set;
  * something else after a {@link #reset()}.
  *
  * <p>The same element may be visited more than once unless the flags contain {@link MappingFlag#NEEDS_UNIQUENESS}.
+ *
+ * <p>The bulk variants of the element visit methods (e.g. {@link #visitClass(String, String[], String)}) combine an
+ * element's visit, dst names, dst descs, ElementContent and comment into a single call. They default to the individual
+ * callbacks, so implementing them is an optional optimization for visitors and adapters that can handle a whole
+ * element at once. Producers may use either form, including mixed with separate Comment visits for comments that
+ * aren't available upfront.
  */
 public interface MappingVisitor {
 	default Set<MappingFlag> getFlags() {
@@ -124,4 +130,58 @@ public interface MappingVisitor {
 	 * @param comment comment as a potentially multi-line string
 	 */
 	void visitComment(MappedElementKind targetKind, String comment) throws IOException;
+
+	/**
+	 * Visit a class with its dst names and comment, equivalent to Class -> DstName* -> ElementContent [-> Comment].
+	 *
+	 * <p>The arrays passed to bulk visit methods are indexed by dst namespace, with null for absent entries. They may
+	 * be shorter than the dst namespace count and must be treated as read-only and only valid during the call.
+	 *
+	 * @param dstNames dst names or null if there are none
+	 * @param comment comment or null if there is none
+	 * @return true if the class' members are to be visited, false otherwise
+	 */
+	default boolean visitClass(String srcName, String[] dstNames, String comment) throws IOException {
+		if (!visitClass(srcName)) return false;
+
+		return MappingUtil.visitElement(this, MappedElementKind.CLASS, dstNames, null, comment);
+	}
+
+	/**
+	 * Visit a field with its dst names, dst descs and comment, see {@link #visitClass(String, String[], String)}.
+	 */
+	default boolean visitField(String srcName, String srcDesc, String[] dstNames, String[] dstDescs, String comment) throws IOException {
+		if (!visitField(srcName, srcDesc)) return false;
+
+		return MappingUtil.visitElement(this, MappedElementKind.FIELD, dstNames, dstDescs, comment);
+	}
+
+	/**
+	 * Visit a method with its dst names, dst descs and comment, see {@link #visitClass(String, String[], String)}.
+	 *
+	 * @return true if the method's args and vars are to be visited, false otherwise
+	 */
+	default boolean visitMethod(String srcName, String srcDesc, String[] dstNames, String[] dstDescs, String comment) throws IOException {
+		if (!visitMethod(srcName, srcDesc)) return false;
+
+		return MappingUtil.visitElement(this, MappedElementKind.METHOD, dstNames, dstDescs, comment);
+	}
+
+	/**
+	 * Visit a method arg with its dst names and comment, see {@link #visitClass(String, String[], String)}.
+	 */
+	default boolean visitMethodArg(int argPosition, int lvIndex, String srcName, String[] dstNames, String comment) throws IOException {
+		if (!visitMethodArg(argPosition, lvIndex, srcName)) return false;
+
+		return MappingUtil.visitElement(this, MappedElementKind.METHOD_ARG, dstNames, null, comment);
+	}
+
+	/**
+	 * Visit a method var with its dst names and comment, see {@link #visitClass(String, String[], String)}.
+	 */
+	default boolean visitMethodVar(int lvtRowIndex, int lvIndex, int startOpIdx, int endOpIdx, String srcName, String[] dstNames, String comment) throws IOException {
+		if (!visitMethodVar(lvtRowIndex, lvIndex, startOpIdx, endOpIdx, srcName)) return false;
+
+		return MappingUtil.visitElement(this, MappedElementKind.METHOD_VAR, dstNames, null, comment);
+	}
 }
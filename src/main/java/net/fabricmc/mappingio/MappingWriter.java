@@ -18,21 +18,51 @@ package net.fabricmc.mappingio;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
-import java.nio.file.Files;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 import net.fabricmc.mappingio.format.MappingFormat;
+import net.fabricmc.mappingio.format.ParallelGzipOutputStream;
+import net.fabricmc.mappingio.format.Utf8Writer;
 import net.fabricmc.mappingio.format.enigma.EnigmaDirWriter;
 import net.fabricmc.mappingio.format.enigma.EnigmaFileWriter;
 import net.fabricmc.mappingio.format.proguard.ProGuardFileWriter;
 import net.fabricmc.mappingio.format.tiny.Tiny1FileWriter;
 import net.fabricmc.mappingio.format.tiny.Tiny2FileWriter;
+import net.fabricmc.mappingio.jfr.EventWriter;
+import net.fabricmc.mappingio.jfr.MappingEvent;
 
 public interface MappingWriter extends Closeable, MappingVisitor {
+	/**
+	 * Create a writer for the specified file or directory.
+	 *
+	 * <p>Single file formats are gzip compressed in parallel blocks if the file name ends with {@code .gz}.
+	 */
 	static MappingWriter create(Path file, MappingFormat format) throws IOException {
 		if (format.hasSingleFile()) {
-			return create(Files.newBufferedWriter(file), format);
+			FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+			Path fileName = file.getFileName();
+			Writer writer;
+
+			if (fileName != null && fileName.toString().endsWith(".gz")) {
+				writer = new Utf8Writer(new ParallelGzipOutputStream(Channels.newOutputStream(channel)));
+			} else {
+				writer = new Utf8Writer(channel);
+			}
+
+			MappingEvent event = MappingEvent.begin(MappingEvent.Type.WRITE);
+
+			if (event != null) { // picked up by create(Writer, MappingFormat) instead of starting another event
+				event.format = format.name();
+				event.path = file.toString();
+				writer = new EventWriter(writer, event);
+			}
+
+			return create(writer, format);
 		} else {
 			switch (format) {
 			case ENIGMA_DIR: return new EnigmaDirWriter(file, true);
@@ -41,9 +71,26 @@ public interface MappingWriter extends Closeable, MappingVisitor {
 		}
 	}
 
+	/**
+	 * Create a writer encoding UTF-8 into the stream through an internal 64 KiB buffer, replacing the usual
+	 * {@link java.io.OutputStreamWriter} and {@link java.io.BufferedWriter} stack.
+	 */
+	static MappingWriter create(OutputStream out, MappingFormat format) throws IOException {
+		if (!format.hasSingleFile()) throw new IllegalArgumentException("format "+format+" is not applicable to a single stream");
+
+		return create(new Utf8Writer(out), format);
+	}
+
 	static MappingWriter create(Writer writer, MappingFormat format) throws IOException {
 		if (!format.hasSingleFile()) throw new IllegalArgumentException("format "+format+" is not applicable to a single writer");
 
+		MappingEvent event = writer instanceof EventWriter ? null : MappingEvent.begin(MappingEvent.Type.WRITE);
+
+		if (event != null) { // committed once the writer closes its output
+			event.format = format.name();
+			writer = new EventWriter(writer, event);
+		}
+
 		switch (format) {
 		case TINY_FILE: return new Tiny1FileWriter(writer);
 		case TINY_2_FILE: return new Tiny2FileWriter(writer, false);
@@ -0,0 +1,394 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import net.fabricmc.mappingio.adapter.ForwardingMappingVisitor;
+import net.fabricmc.mappingio.format.MappingFormat;
+import net.fabricmc.mappingio.tree.MemoryMappingTree;
+import net.fabricmc.mappingio.tree.VisitOrder;
+
+/**
+ * Merges multiple mapping inputs into a single visit stream without holding all of them in memory.
+ *
+ * <p>All inputs have to share the same src namespace and visit their classes sorted by src name as in
+ * {@link VisitOrder#createByName()}. The inputs are read concurrently, one thread each, and merged class by class, so
+ * only a few classes per input are held at any time. Dst namespaces are combined in input order like
+ * {@link MemoryMappingTree} does when merging.
+ *
+ * <p>The target visitor is visited in a single pass, {@link MappingFlag#NEEDS_MULTIPLE_PASSES} isn't supported. Dst
+ * descriptors requested through {@link MappingFlag#NEEDS_DST_FIELD_DESC} or {@link MappingFlag#NEEDS_DST_METHOD_DESC}
+ * can only be mapped with the class being emitted.
+ */
+public final class StreamingMappingMerger {
+	@FunctionalInterface
+	public interface Input {
+		void accept(MappingVisitor visitor) throws IOException;
+	}
+
+	public StreamingMappingMerger add(Input input) {
+		inputs.add(input);
+
+		return this;
+	}
+
+	public StreamingMappingMerger add(Path file, MappingFormat format) {
+		return add(visitor -> MappingReader.read(file, format, visitor));
+	}
+
+	public void merge(MappingVisitor visitor) throws IOException {
+		if (visitor.getFlags().contains(MappingFlag.NEEDS_MULTIPLE_PASSES)) {
+			throw new IllegalArgumentException("streaming merge doesn't support visitors requiring multiple passes");
+		}
+
+		List<Source> sources = new ArrayList<>(inputs.size());
+
+		try {
+			for (int i = 0; i < inputs.size(); i++) {
+				Source source = new Source(i, inputs.get(i));
+				sources.add(source);
+				source.thread.start();
+			}
+
+			merge(sources, visitor);
+		} finally {
+			for (Source source : sources) {
+				source.aborted = true;
+				source.thread.interrupt();
+			}
+		}
+	}
+
+	private static void merge(List<Source> sources, MappingVisitor visitor) throws IOException {
+		String srcNamespace = null;
+		List<String> dstNamespaces = new ArrayList<>();
+		List<Map.Entry<String, String>> metadata = new ArrayList<>();
+
+		for (Source source : sources) {
+			Header header = (Header) source.take();
+
+			if (srcNamespace == null) {
+				srcNamespace = header.srcNamespace;
+			} else if (!srcNamespace.equals(header.srcNamespace)) {
+				throw new IOException("merge input "+source.index+" has src namespace "+header.srcNamespace+", expected "+srcNamespace);
+			}
+
+			for (String ns : header.dstNamespaces) {
+				if (!ns.equals(srcNamespace) && !dstNamespaces.contains(ns)) dstNamespaces.add(ns);
+			}
+
+			metadata.addAll(header.metadata);
+		}
+
+		if (srcNamespace == null) return; // no inputs
+
+		if (visitor.visitHeader()) {
+			visitor.visitNamespaces(srcNamespace, dstNamespaces);
+
+			for (Map.Entry<String, String> entry : metadata) {
+				visitor.visitMetadata(entry.getKey(), entry.getValue());
+			}
+		}
+
+		if (visitor.visitContent()) {
+			MemoryMappingTree tree = new MemoryMappingTree();
+			tree.visitNamespaces(srcNamespace, dstNamespaces);
+			MappingVisitor merger = new SinglePassVisitor(tree, true);
+			MappingVisitor emitter = new SinglePassVisitor(visitor, false);
+			VisitOrder order = VisitOrder.createByName(); // members of different inputs interleave
+
+			for (Source source : sources) {
+				source.advance();
+			}
+
+			for (;;) {
+				String name = null;
+
+				for (Source source : sources) {
+					if (source.head != null && (name == null || VisitOrder.compare(source.head.name, name) < 0)) {
+						name = source.head.name;
+					}
+				}
+
+				if (name == null) break;
+
+				for (Source source : sources) {
+					if (source.head != null && source.head.name.equals(name)) {
+						source.head.tree.accept(merger);
+						source.advance();
+					}
+				}
+
+				tree.accept(emitter, order);
+				tree.removeClass(name);
+			}
+		}
+
+		if (!visitor.visitEnd()) {
+			throw new IllegalStateException("visitor requested another pass, which a streaming merge can't provide");
+		}
+	}
+
+	private static final class Header {
+		Header(String srcNamespace, List<String> dstNamespaces, List<Map.Entry<String, String>> metadata) {
+			this.srcNamespace = srcNamespace;
+			this.dstNamespaces = dstNamespaces;
+			this.metadata = metadata;
+		}
+
+		final String srcNamespace;
+		final List<String> dstNamespaces;
+		final List<Map.Entry<String, String>> metadata;
+	}
+
+	/**
+	 * All mappings of one input's class, visits of the same class in a row are combined.
+	 */
+	private static final class Chunk {
+		Chunk(String name, MemoryMappingTree tree) {
+			this.name = name;
+			this.tree = tree;
+		}
+
+		final String name;
+		final MemoryMappingTree tree;
+	}
+
+	private static final class Failure {
+		Failure(Throwable cause) {
+			this.cause = cause;
+		}
+
+		final Throwable cause;
+	}
+
+	private static final class Source {
+		Source(int index, Input input) {
+			this.index = index;
+			this.thread = new Thread(() -> run(input), "mapping-merge-input-"+index);
+			thread.setDaemon(true);
+		}
+
+		private void run(Input input) {
+			try {
+				input.accept(new ChunkingVisitor(this));
+
+				// the merging thread would wait for END forever otherwise
+				if (!ended) fail(new IOException("merge input "+index+" returned without finishing its visit"));
+			} catch (Throwable t) {
+				if (!aborted) fail(t);
+			}
+		}
+
+		private void fail(Throwable cause) {
+			queue.clear(); // make room, the merge aborts anyway
+			queue.offer(new Failure(cause));
+		}
+
+		void put(Object item) throws IOException {
+			try {
+				queue.put(item);
+			} catch (InterruptedException e) {
+				throw new InterruptedIOException("merge aborted");
+			}
+		}
+
+		Object take() throws IOException {
+			Object ret;
+
+			try {
+				ret = queue.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("merge interrupted");
+			}
+
+			if (ret instanceof Failure) {
+				throw new IOException("reading merge input "+index+" failed", ((Failure) ret).cause);
+			}
+
+			return ret;
+		}
+
+		void advance() throws IOException {
+			Object next = take();
+			head = next != END ? (Chunk) next : null;
+		}
+
+		final int index;
+		final Thread thread;
+		final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+		volatile boolean aborted;
+		boolean ended;
+		Chunk head;
+	}
+
+	/**
+	 * Splits an input's visit stream into per-class chunks and hands them to the merging thread.
+	 */
+	private static final class ChunkingVisitor implements MappingVisitor {
+		ChunkingVisitor(Source source) {
+			this.source = source;
+		}
+
+		@Override
+		public void visitNamespaces(String srcNamespace, List<String> dstNamespaces) {
+			this.srcNamespace = srcNamespace;
+			this.dstNamespaces = dstNamespaces;
+		}
+
+		@Override
+		public void visitMetadata(String key, String value) {
+			// per input counts don't describe the merged output
+			if (!MappingUtil.isSizeHint(key)) metadata.add(new AbstractMap.SimpleEntry<>(key, value));
+		}
+
+		@Override
+		public boolean visitContent() throws IOException {
+			if (srcNamespace == null) throw new IOException("merge input "+source.index+" didn't visit its namespaces");
+
+			source.put(new Header(srcNamespace, dstNamespaces, metadata));
+			headerSent = true;
+
+			return true;
+		}
+
+		@Override
+		public boolean visitClass(String srcName) throws IOException {
+			if (current == null || !current.name.equals(srcName)) {
+				if (current != null) {
+					if (VisitOrder.compare(current.name, srcName) > 0) {
+						throw new IOException("merge input "+source.index+" isn't sorted by src class name: "+srcName+" after "+current.name);
+					}
+
+					source.put(current);
+				}
+
+				MemoryMappingTree tree = new MemoryMappingTree();
+				tree.visitNamespaces(srcNamespace, dstNamespaces);
+				current = new Chunk(srcName, tree);
+			}
+
+			return current.tree.visitClass(srcName);
+		}
+
+		@Override
+		public boolean visitField(String srcName, String srcDesc) throws IOException {
+			return current.tree.visitField(srcName, srcDesc);
+		}
+
+		@Override
+		public boolean visitMethod(String srcName, String srcDesc) throws IOException {
+			return current.tree.visitMethod(srcName, srcDesc);
+		}
+
+		@Override
+		public boolean visitMethodArg(int argPosition, int lvIndex, String srcName) throws IOException {
+			return current.tree.visitMethodArg(argPosition, lvIndex, srcName);
+		}
+
+		@Override
+		public boolean visitMethodVar(int lvtRowIndex, int lvIndex, int startOpIdx, int endOpIdx, String srcName) throws IOException {
+			return current.tree.visitMethodVar(lvtRowIndex, lvIndex, startOpIdx, endOpIdx, srcName);
+		}
+
+		@Override
+		public boolean visitEnd() throws IOException {
+			if (!headerSent) throw new IOException("merge input "+source.index+" didn't visit its content");
+
+			if (current != null) {
+				source.put(current);
+				current = null;
+			}
+
+			source.put(END);
+			source.ended = true;
+
+			return true;
+		}
+
+		@Override
+		public void visitDstName(MappedElementKind targetKind, int namespace, String name) throws IOException {
+			current.tree.visitDstName(targetKind, namespace, name);
+		}
+
+		@Override
+		public void visitDstDesc(MappedElementKind targetKind, int namespace, String desc) throws IOException {
+			current.tree.visitDstDesc(targetKind, namespace, desc);
+		}
+
+		@Override
+		public boolean visitElementContent(MappedElementKind targetKind) throws IOException {
+			return current.tree.visitElementContent(targetKind);
+		}
+
+		@Override
+		public void visitComment(MappedElementKind targetKind, String comment) throws IOException {
+			current.tree.visitComment(targetKind, comment);
+		}
+
+		private final Source source;
+		private String srcNamespace;
+		private List<String> dstNamespaces;
+		private final List<Map.Entry<String, String>> metadata = new ArrayList<>();
+		private Chunk current;
+		private boolean headerSent;
+	}
+
+	/**
+	 * Forwards a single content pass, either including the header for merging into the class tree or excluding it for
+	 * emitting to the target visitor.
+	 */
+	private static final class SinglePassVisitor extends ForwardingMappingVisitor {
+		SinglePassVisitor(MappingVisitor next, boolean visitHeader) {
+			super(next);
+
+			this.visitHeader = visitHeader;
+		}
+
+		@Override
+		public boolean visitHeader() throws IOException {
+			return visitHeader && super.visitHeader();
+		}
+
+		@Override
+		public boolean visitContent() {
+			return true;
+		}
+
+		@Override
+		public boolean visitEnd() {
+			return true;
+		}
+
+		private final boolean visitHeader;
+	}
+
+	private static final int QUEUE_CAPACITY = 16;
+	private static final Object END = new Object();
+
+	private final List<Input> inputs = new ArrayList<>();
+}
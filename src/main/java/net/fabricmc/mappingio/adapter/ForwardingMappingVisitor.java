@@ -25,11 +25,18 @@ import net.fabricmc.mappingio.MappedElementKind;
 import net.fabricmc.mappingio.MappingFlag;
 import net.fabricmc.mappingio.MappingVisitor;
 
+/**
+ * Visitor relaying all calls to another visitor.
+ *
+ * <p>Bulk element visits are relayed as such only if the subclass doesn't override any of the individual element
+ * callbacks, otherwise they are decomposed so the overrides see every element regardless of the API used upstream.
+ */
 public abstract class ForwardingMappingVisitor implements MappingVisitor {
 	protected ForwardingMappingVisitor(MappingVisitor next) {
 		Objects.requireNonNull(next, "null next");
 
 		this.next = next;
+		this.relayBulk = RELAY_BULK.get(getClass());
 	}
 
 	@Override
@@ -92,6 +99,41 @@ public abstract class ForwardingMappingVisitor implements MappingVisitor {
 		return next.visitEnd();
 	}
 
+	@Override
+	public boolean visitClass(String srcName, String[] dstNames, String comment) throws IOException {
+		if (!relayBulk) return MappingVisitor.super.visitClass(srcName, dstNames, comment);
+
+		return next.visitClass(srcName, dstNames, comment);
+	}
+
+	@Override
+	public boolean visitField(String srcName, String srcDesc, String[] dstNames, String[] dstDescs, String comment) throws IOException {
+		if (!relayBulk) return MappingVisitor.super.visitField(srcName, srcDesc, dstNames, dstDescs, comment);
+
+		return next.visitField(srcName, srcDesc, dstNames, dstDescs, comment);
+	}
+
+	@Override
+	public boolean visitMethod(String srcName, String srcDesc, String[] dstNames, String[] dstDescs, String comment) throws IOException {
+		if (!relayBulk) return MappingVisitor.super.visitMethod(srcName, srcDesc, dstNames, dstDescs, comment);
+
+		return next.visitMethod(srcName, srcDesc, dstNames, dstDescs, comment);
+	}
+
+	@Override
+	public boolean visitMethodArg(int argPosition, int lvIndex, String srcName, String[] dstNames, String comment) throws IOException {
+		if (!relayBulk) return MappingVisitor.super.visitMethodArg(argPosition, lvIndex, srcName, dstNames, comment);
+
+		return next.visitMethodArg(argPosition, lvIndex, srcName, dstNames, comment);
+	}
+
+	@Override
+	public boolean visitMethodVar(int lvtRowIndex, int lvIndex, int startOpIdx, int endOpIdx, String srcName, String[] dstNames, String comment) throws IOException {
+		if (!relayBulk) return MappingVisitor.super.visitMethodVar(lvtRowIndex, lvIndex, startOpIdx, endOpIdx, srcName, dstNames, comment);
+
+		return next.visitMethodVar(lvtRowIndex, lvIndex, startOpIdx, endOpIdx, srcName, dstNames, comment);
+	}
+
 	@Override
 	public void visitDstName(MappedElementKind targetKind, int namespace, String name) throws IOException {
 		next.visitDstName(targetKind, namespace, name);
@@ -112,5 +154,40 @@ public abstract class ForwardingMappingVisitor implements MappingVisitor {
 		next.visitComment(targetKind, comment);
 	}
 
+	private static boolean overridesElementCallbacks(Class<?> cls) {
+		for (; cls != ForwardingMappingVisitor.class; cls = cls.getSuperclass()) {
+			if (declares(cls, "visitClass", String.class)
+					|| declares(cls, "visitField", String.class, String.class)
+					|| declares(cls, "visitMethod", String.class, String.class)
+					|| declares(cls, "visitMethodArg", int.class, int.class, String.class)
+					|| declares(cls, "visitMethodVar", int.class, int.class, int.class, int.class, String.class)
+					|| declares(cls, "visitDstName", MappedElementKind.class, int.class, String.class)
+					|| declares(cls, "visitDstDesc", MappedElementKind.class, int.class, String.class)
+					|| declares(cls, "visitElementContent", MappedElementKind.class)
+					|| declares(cls, "visitComment", MappedElementKind.class, String.class)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static boolean declares(Class<?> cls, String name, Class<?>... parameterTypes) {
+		try {
+			cls.getDeclaredMethod(name, parameterTypes);
+			return true;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	private static final ClassValue<Boolean> RELAY_BULK = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			return !overridesElementCallbacks(type);
+		}
+	};
+
 	protected final MappingVisitor next;
+	private final boolean relayBulk;
 }
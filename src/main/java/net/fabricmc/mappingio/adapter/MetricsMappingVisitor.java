@@ -0,0 +1,606 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.adapter;
+
+import java.io.FilterInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import net.fabricmc.mappingio.MappedElementKind;
+import net.fabricmc.mappingio.MappingVisitor;
+import net.fabricmc.mappingio.jfr.MappingEvent;
+
+/**
+ * Visitor recording element counts and the time spent in the downstream visitor, may be inserted anywhere in a chain.
+ *
+ * <p>Wrapping the input with {@link #wrap(Reader)} or {@link #wrap(InputStream)} additionally records the amount of
+ * data consumed by a {@link net.fabricmc.mappingio.MappingReader}. Each pass is also emitted as a JFR event if
+ * available and enabled.
+ *
+ * <p>The counters aren't reset by {@link #reset()} or new passes, see {@link #clear()}.
+ */
+public final class MetricsMappingVisitor extends ForwardingMappingVisitor {
+	public MetricsMappingVisitor(MappingVisitor next) {
+		this(next, true);
+	}
+
+	/**
+	 * @param timing whether to measure the time spent in the downstream visitor's callbacks
+	 */
+	public MetricsMappingVisitor(MappingVisitor next, boolean timing) {
+		super(next);
+
+		this.timing = timing;
+	}
+
+	/**
+	 * Count the characters and lines read through the returned reader.
+	 */
+	public Reader wrap(Reader reader) {
+		return new FilterReader(reader) {
+			@Override
+			public int read() throws IOException {
+				int ret = super.read();
+
+				if (ret >= 0) {
+					chars++;
+					if (ret == '\n') lines++;
+				}
+
+				return ret;
+			}
+
+			@Override
+			public int read(char[] cbuf, int off, int len) throws IOException {
+				int ret = super.read(cbuf, off, len);
+
+				if (ret > 0) {
+					chars += ret;
+
+					for (int i = off, end = off + ret; i < end; i++) {
+						if (cbuf[i] == '\n') lines++;
+					}
+				}
+
+				return ret;
+			}
+
+			@Override
+			public long skip(long n) throws IOException {
+				long ret = super.skip(n); // skipped line breaks aren't counted
+				chars += ret;
+
+				return ret;
+			}
+		};
+	}
+
+	/**
+	 * Count the bytes read through the returned stream.
+	 */
+	public InputStream wrap(InputStream stream) {
+		return new FilterInputStream(stream) {
+			@Override
+			public int read() throws IOException {
+				int ret = super.read();
+				if (ret >= 0) bytes++;
+
+				return ret;
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				int ret = super.read(b, off, len);
+				if (ret > 0) bytes += ret;
+
+				return ret;
+			}
+
+			@Override
+			public long skip(long n) throws IOException {
+				long ret = super.skip(n);
+				bytes += ret;
+
+				return ret;
+			}
+		};
+	}
+
+	/**
+	 * Capture the current state of all counters.
+	 */
+	public Snapshot snapshot() {
+		return new Snapshot(this);
+	}
+
+	/**
+	 * Reset all counters to 0.
+	 */
+	public void clear() {
+		Arrays.fill(visited, 0);
+		Arrays.fill(skipped, 0);
+		Arrays.fill(calls, 0);
+		Arrays.fill(nanos, 0);
+		passes = 0;
+		dstNames = dstDescs = comments = metadata = 0;
+		chars = lines = bytes = 0;
+	}
+
+	@Override
+	public void reset() {
+		// a pass aborted by an exception never reached visitEnd, drop its event instead of extending it
+		passActive = false;
+		passEvent = null;
+
+		super.reset();
+	}
+
+	@Override
+	public boolean visitHeader() throws IOException {
+		beginPass();
+
+		long start = startTiming();
+		boolean ret = next.visitHeader();
+		endTiming(Callback.HEADER, start);
+
+		return ret;
+	}
+
+	@Override
+	public void visitNamespaces(String srcNamespace, List<String> dstNamespaces) throws IOException {
+		long start = startTiming();
+		next.visitNamespaces(srcNamespace, dstNamespaces);
+		endTiming(Callback.NAMESPACES, start);
+	}
+
+	@Override
+	public void visitMetadata(String key, String value) throws IOException {
+		metadata++;
+
+		long start = startTiming();
+		next.visitMetadata(key, value);
+		endTiming(Callback.METADATA, start);
+	}
+
+	@Override
+	public boolean visitContent() throws IOException {
+		beginPass(); // visitHeader may be omitted by the caller
+
+		long start = startTiming();
+		boolean ret = next.visitContent();
+		endTiming(Callback.CONTENT, start);
+
+		return ret;
+	}
+
+	@Override
+	public boolean visitClass(String srcName) throws IOException {
+		long start = startTiming();
+		boolean ret = next.visitClass(srcName);
+		endTiming(Callback.CLASS, start);
+
+		return count(MappedElementKind.CLASS, ret);
+	}
+
+	@Override
+	public boolean visitField(String srcName, String srcDesc) throws IOException {
+		long start = startTiming();
+		boolean ret = next.visitField(srcName, srcDesc);
+		endTiming(Callback.FIELD, start);
+
+		return count(MappedElementKind.FIELD, ret);
+	}
+
+	@Override
+	public boolean visitMethod(String srcName, String srcDesc) throws IOException {
+		long start = startTiming();
+		boolean ret = next.visitMethod(srcName, srcDesc);
+		endTiming(Callback.METHOD, start);
+
+		return count(MappedElementKind.METHOD, ret);
+	}
+
+	@Override
+	public boolean visitMethodArg(int argPosition, int lvIndex, String srcName) throws IOException {
+		long start = startTiming();
+		boolean ret = next.visitMethodArg(argPosition, lvIndex, srcName);
+		endTiming(Callback.METHOD_ARG, start);
+
+		return count(MappedElementKind.METHOD_ARG, ret);
+	}
+
+	@Override
+	public boolean visitMethodVar(int lvtRowIndex, int lvIndex, int startOpIdx, int endOpIdx, String srcName) throws IOException {
+		long start = startTiming();
+		boolean ret = next.visitMethodVar(lvtRowIndex, lvIndex, startOpIdx, endOpIdx, srcName);
+		endTiming(Callback.METHOD_VAR, start);
+
+		return count(MappedElementKind.METHOD_VAR, ret);
+	}
+
+	@Override
+	public boolean visitEnd() throws IOException {
+		passes++;
+
+		long start = startTiming();
+		boolean ret = next.visitEnd();
+		endTiming(Callback.END, start);
+
+		endPass();
+
+		return ret;
+	}
+
+	@Override
+	public void visitDstName(MappedElementKind targetKind, int namespace, String name) throws IOException {
+		dstNames++;
+
+		long start = startTiming();
+		next.visitDstName(targetKind, namespace, name);
+		endTiming(Callback.DST_NAME, start);
+	}
+
+	@Override
+	public void visitDstDesc(MappedElementKind targetKind, int namespace, String desc) throws IOException {
+		dstDescs++;
+
+		long start = startTiming();
+		next.visitDstDesc(targetKind, namespace, desc);
+		endTiming(Callback.DST_DESC, start);
+	}
+
+	@Override
+	public boolean visitElementContent(MappedElementKind targetKind) throws IOException {
+		long start = startTiming();
+		boolean ret = next.visitElementContent(targetKind);
+		endTiming(Callback.ELEMENT_CONTENT, start);
+
+		return ret;
+	}
+
+	@Override
+	public void visitComment(MappedElementKind targetKind, String comment) throws IOException {
+		comments++;
+
+		long start = startTiming();
+		next.visitComment(targetKind, comment);
+		endTiming(Callback.COMMENT, start);
+	}
+
+	@Override
+	public boolean visitClass(String srcName, String[] dstNames, String comment) throws IOException {
+		countElement(dstNames, null, comment);
+
+		long start = startTiming();
+		boolean ret = next.visitClass(srcName, dstNames, comment);
+		endTiming(Callback.CLASS, start);
+
+		return count(MappedElementKind.CLASS, ret);
+	}
+
+	@Override
+	public boolean visitField(String srcName, String srcDesc, String[] dstNames, String[] dstDescs, String comment) throws IOException {
+		countElement(dstNames, dstDescs, comment);
+
+		long start = startTiming();
+		boolean ret = next.visitField(srcName, srcDesc, dstNames, dstDescs, comment);
+		endTiming(Callback.FIELD, start);
+
+		return count(MappedElementKind.FIELD, ret);
+	}
+
+	@Override
+	public boolean visitMethod(String srcName, String srcDesc, String[] dstNames, String[] dstDescs, String comment) throws IOException {
+		countElement(dstNames, dstDescs, comment);
+
+		long start = startTiming();
+		boolean ret = next.visitMethod(srcName, srcDesc, dstNames, dstDescs, comment);
+		endTiming(Callback.METHOD, start);
+
+		return count(MappedElementKind.METHOD, ret);
+	}
+
+	@Override
+	public boolean visitMethodArg(int argPosition, int lvIndex, String srcName, String[] dstNames, String comment) throws IOException {
+		countElement(dstNames, null, comment);
+
+		long start = startTiming();
+		boolean ret = next.visitMethodArg(argPosition, lvIndex, srcName, dstNames, comment);
+		endTiming(Callback.METHOD_ARG, start);
+
+		return count(MappedElementKind.METHOD_ARG, ret);
+	}
+
+	@Override
+	public boolean visitMethodVar(int lvtRowIndex, int lvIndex, int startOpIdx, int endOpIdx, String srcName, String[] dstNames, String comment) throws IOException {
+		countElement(dstNames, null, comment);
+
+		long start = startTiming();
+		boolean ret = next.visitMethodVar(lvtRowIndex, lvIndex, startOpIdx, endOpIdx, srcName, dstNames, comment);
+		endTiming(Callback.METHOD_VAR, start);
+
+		return count(MappedElementKind.METHOD_VAR, ret);
+	}
+
+	/**
+	 * Count the properties passed with a bulk visit, the time spent on them is attributed to the element's callback.
+	 */
+	private void countElement(String[] dstNames, String[] dstDescs, String comment) {
+		this.dstNames += countNonNull(dstNames);
+		this.dstDescs += countNonNull(dstDescs);
+		if (comment != null) comments++;
+	}
+
+	private static int countNonNull(String[] values) {
+		if (values == null) return 0;
+
+		int ret = 0;
+
+		for (String value : values) {
+			if (value != null) ret++;
+		}
+
+		return ret;
+	}
+
+	private long startTiming() {
+		return timing ? System.nanoTime() : 0;
+	}
+
+	private void endTiming(Callback callback, long start) {
+		int idx = callback.ordinal();
+		calls[idx]++;
+		if (timing) nanos[idx] += System.nanoTime() - start;
+	}
+
+	private boolean count(MappedElementKind kind, boolean visit) {
+		if (visit) {
+			visited[kind.ordinal()]++;
+		} else {
+			skipped[kind.ordinal()]++;
+		}
+
+		return visit;
+	}
+
+	private void beginPass() {
+		if (passActive) return;
+
+		passActive = true;
+		passEvent = MappingEvent.begin(MappingEvent.Type.VISIT);
+
+		if (passEvent != null) {
+			passStart = visited.clone();
+			passStartChars = chars;
+			passStartBytes = bytes;
+		}
+	}
+
+	private void endPass() {
+		passActive = false;
+
+		MappingEvent event = passEvent;
+		if (event == null) return;
+
+		passEvent = null;
+		event.classes = visited[MappedElementKind.CLASS.ordinal()] - passStart[MappedElementKind.CLASS.ordinal()];
+		event.fields = visited[MappedElementKind.FIELD.ordinal()] - passStart[MappedElementKind.FIELD.ordinal()];
+		event.methods = visited[MappedElementKind.METHOD.ordinal()] - passStart[MappedElementKind.METHOD.ordinal()];
+		event.args = visited[MappedElementKind.METHOD_ARG.ordinal()] - passStart[MappedElementKind.METHOD_ARG.ordinal()];
+		event.vars = visited[MappedElementKind.METHOD_VAR.ordinal()] - passStart[MappedElementKind.METHOD_VAR.ordinal()];
+		event.chars = chars - passStartChars;
+		event.bytes = bytes - passStartBytes;
+		event.commit();
+	}
+
+	/**
+	 * Downstream visitor callback kinds for timing purposes.
+	 */
+	public enum Callback {
+		HEADER,
+		NAMESPACES,
+		METADATA,
+		CONTENT,
+		CLASS,
+		FIELD,
+		METHOD,
+		METHOD_ARG,
+		METHOD_VAR,
+		DST_NAME,
+		DST_DESC,
+		ELEMENT_CONTENT,
+		COMMENT,
+		END
+	}
+
+	/**
+	 * Immutable copy of a {@link MetricsMappingVisitor}'s counters.
+	 */
+	public static final class Snapshot {
+		private Snapshot(MetricsMappingVisitor src) {
+			visited = src.visited.clone();
+			skipped = src.skipped.clone();
+			calls = src.calls.clone();
+			nanos = src.nanos.clone();
+			passes = src.passes;
+			dstNames = src.dstNames;
+			dstDescs = src.dstDescs;
+			comments = src.comments;
+			metadata = src.metadata;
+			chars = src.chars;
+			lines = src.lines;
+			bytes = src.bytes;
+		}
+
+		/**
+		 * Get the number of elements of the given kind the downstream visitor accepted.
+		 */
+		public long getVisited(MappedElementKind kind) {
+			return visited[kind.ordinal()];
+		}
+
+		/**
+		 * Get the number of elements of the given kind the downstream visitor skipped by returning false.
+		 */
+		public long getSkipped(MappedElementKind kind) {
+			return skipped[kind.ordinal()];
+		}
+
+		public long getCalls(Callback callback) {
+			return calls[callback.ordinal()];
+		}
+
+		/**
+		 * Get the time spent within the downstream visitor's callback, 0 if timing is disabled.
+		 */
+		public long getNanos(Callback callback) {
+			return nanos[callback.ordinal()];
+		}
+
+		public long getTotalNanos() {
+			long ret = 0;
+
+			for (long n : nanos) {
+				ret += n;
+			}
+
+			return ret;
+		}
+
+		/**
+		 * Get the number of completed passes, more than one if a visitor requested repeated visitation.
+		 */
+		public int getPasses() {
+			return passes;
+		}
+
+		public long getDstNames() {
+			return dstNames;
+		}
+
+		public long getDstDescs() {
+			return dstDescs;
+		}
+
+		public long getComments() {
+			return comments;
+		}
+
+		public long getMetadata() {
+			return metadata;
+		}
+
+		/**
+		 * Get the characters read through {@link MetricsMappingVisitor#wrap(Reader)}.
+		 */
+		public long getChars() {
+			return chars;
+		}
+
+		/**
+		 * Get the lines read through {@link MetricsMappingVisitor#wrap(Reader)}.
+		 */
+		public long getLines() {
+			return lines;
+		}
+
+		/**
+		 * Get the bytes read through {@link MetricsMappingVisitor#wrap(InputStream)}.
+		 */
+		public long getBytes() {
+			return bytes;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append("passes: ").append(passes);
+
+			for (MappedElementKind kind : MappedElementKind.values()) {
+				sb.append(", ").append(kind.name().toLowerCase(Locale.ROOT)).append(": ").append(visited[kind.ordinal()]);
+				if (skipped[kind.ordinal()] != 0) sb.append(" (").append(skipped[kind.ordinal()]).append(" skipped)");
+			}
+
+			sb.append(", dst names: ").append(dstNames);
+			sb.append(", dst descs: ").append(dstDescs);
+			sb.append(", comments: ").append(comments);
+			if (chars != 0) sb.append(", chars: ").append(chars).append(", lines: ").append(lines);
+			if (bytes != 0) sb.append(", bytes: ").append(bytes);
+
+			long totalNanos = getTotalNanos();
+
+			if (totalNanos != 0) {
+				sb.append(", downstream: ").append(totalNanos / 1000000).append(" ms (");
+				boolean first = true;
+
+				for (Callback callback : Callback.values()) {
+					long n = nanos[callback.ordinal()];
+					if (n == 0) continue;
+
+					if (!first) sb.append(", ");
+					first = false;
+					sb.append(callback.name().toLowerCase(Locale.ROOT)).append(' ').append(n / 1000000).append(" ms");
+				}
+
+				sb.append(')');
+			}
+
+			return sb.toString();
+		}
+
+		private final long[] visited;
+		private final long[] skipped;
+		private final long[] calls;
+		private final long[] nanos;
+		private final int passes;
+		private final long dstNames;
+		private final long dstDescs;
+		private final long comments;
+		private final long metadata;
+		private final long chars;
+		private final long lines;
+		private final long bytes;
+	}
+
+	private static final int KINDS = MappedElementKind.values().length;
+	private static final int CALLBACKS = Callback.values().length;
+
+	private final boolean timing;
+	private final long[] visited = new long[KINDS];
+	private final long[] skipped = new long[KINDS];
+	private final long[] calls = new long[CALLBACKS];
+	private final long[] nanos = new long[CALLBACKS];
+	private int passes;
+	private long dstNames;
+	private long dstDescs;
+	private long comments;
+	private long metadata;
+	private long chars;
+	private long lines;
+	private long bytes;
+
+	private boolean passActive;
+	private MappingEvent passEvent;
+	private long[] passStart;
+	private long passStartChars;
+	private long passStartBytes;
+}
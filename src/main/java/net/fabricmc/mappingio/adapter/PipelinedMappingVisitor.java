@@ -0,0 +1,497 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.adapter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import net.fabricmc.mappingio.MappedElementKind;
+import net.fabricmc.mappingio.MappingFlag;
+import net.fabricmc.mappingio.MappingVisitor;
+
+/**
+ * Relays visits to another visitor running on a separate thread, letting e.g. parsing and writing overlap.
+ *
+ * <p>Visits are recorded into a bounded pool of reusable batches, the producer blocks once all of them are in
+ * flight. Element visits return true immediately, their actual results are applied on the consumer side by skipping
+ * the element's content there. {@link #visitHeader()}, {@link #visitContent()} and {@link #visitEnd()} wait for the
+ * consumer, so multi-pass visitation behaves as without pipelining.
+ *
+ * <p>Failures on the consumer side are rethrown on the producer side by the next blocking call or {@link #close()},
+ * which also waits for all pending visits to complete:
+ *
+ * <pre>{@code
+ * try (MappingWriter writer = MappingWriter.create(out, format);
+ *         PipelinedMappingVisitor pipeline = new PipelinedMappingVisitor(writer)) {
+ *     MappingReader.read(in, pipeline);
+ * }
+ * }</pre>
+ */
+public final class PipelinedMappingVisitor implements MappingVisitor, Closeable {
+	public PipelinedMappingVisitor(MappingVisitor next) {
+		this(next, 4096, 4);
+	}
+
+	/**
+	 * @param batchSize maximum number of visits per batch
+	 * @param batchCount number of batches, bounding the amount of pending visits
+	 */
+	public PipelinedMappingVisitor(MappingVisitor next, int batchSize, int batchCount) {
+		Objects.requireNonNull(next, "null next");
+		if (batchSize < 1 || batchCount < 1) throw new IllegalArgumentException("invalid batch size/count");
+
+		this.next = next;
+		this.flags = next.getFlags();
+		this.free = new ArrayBlockingQueue<>(batchCount);
+		this.filled = new ArrayBlockingQueue<>(batchCount);
+
+		for (int i = 0; i < batchCount; i++) {
+			free.add(new Batch(batchSize));
+		}
+
+		consumer = new Thread(this::consume, "mapping-pipeline");
+		consumer.setDaemon(true);
+		consumer.start();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) return;
+		closed = true;
+
+		Batch batch = current != null ? current : take(free);
+		current = null;
+		batch.terminate = true;
+		put(filled, batch);
+
+		try {
+			consumer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		}
+
+		checkFailure();
+	}
+
+	@Override
+	public Set<MappingFlag> getFlags() {
+		return flags;
+	}
+
+	@Override
+	public void reset() {
+		try {
+			batch(0, 0).add(RESET);
+		} catch (IOException e) {
+			throw new IllegalStateException("pipeline failed", e);
+		}
+	}
+
+	@Override
+	public boolean visitHeader() throws IOException {
+		return sync(HEADER);
+	}
+
+	@Override
+	public void visitNamespaces(String srcNamespace, List<String> dstNamespaces) throws IOException {
+		batch(0, 2).add(NAMESPACES).ref(srcNamespace).ref(new ArrayList<>(dstNamespaces));
+	}
+
+	@Override
+	public void visitMetadata(String key, String value) throws IOException {
+		batch(0, 2).add(METADATA).ref(key).ref(value);
+	}
+
+	@Override
+	public boolean visitContent() throws IOException {
+		return sync(CONTENT);
+	}
+
+	@Override
+	public boolean visitClass(String srcName) throws IOException {
+		batch(0, 1).add(CLASS).ref(srcName);
+
+		return true;
+	}
+
+	@Override
+	public boolean visitField(String srcName, String srcDesc) throws IOException {
+		batch(0, 2).add(FIELD).ref(srcName).ref(srcDesc);
+
+		return true;
+	}
+
+	@Override
+	public boolean visitMethod(String srcName, String srcDesc) throws IOException {
+		batch(0, 2).add(METHOD).ref(srcName).ref(srcDesc);
+
+		return true;
+	}
+
+	@Override
+	public boolean visitMethodArg(int argPosition, int lvIndex, String srcName) throws IOException {
+		batch(2, 1).add(ARG).num(argPosition).num(lvIndex).ref(srcName);
+
+		return true;
+	}
+
+	@Override
+	public boolean visitMethodVar(int lvtRowIndex, int lvIndex, int startOpIdx, int endOpIdx, String srcName) throws IOException {
+		batch(4, 1).add(VAR).num(lvtRowIndex).num(lvIndex).num(startOpIdx).num(endOpIdx).ref(srcName);
+
+		return true;
+	}
+
+	@Override
+	public boolean visitEnd() throws IOException {
+		return sync(END);
+	}
+
+	@Override
+	public void visitDstName(MappedElementKind targetKind, int namespace, String name) throws IOException {
+		batch(2, 1).add(DST_NAME).num(targetKind.ordinal()).num(namespace).ref(name);
+	}
+
+	@Override
+	public void visitDstDesc(MappedElementKind targetKind, int namespace, String desc) throws IOException {
+		batch(2, 1).add(DST_DESC).num(targetKind.ordinal()).num(namespace).ref(desc);
+	}
+
+	@Override
+	public boolean visitElementContent(MappedElementKind targetKind) throws IOException {
+		batch(1, 0).add(ELEMENT_CONTENT).num(targetKind.ordinal());
+
+		return true;
+	}
+
+	@Override
+	public void visitComment(MappedElementKind targetKind, String comment) throws IOException {
+		batch(1, 1).add(COMMENT).num(targetKind.ordinal()).ref(comment);
+	}
+
+	// producer side
+
+	private Batch batch(int ints, int refs) throws IOException {
+		if (closed) throw new IllegalStateException("pipeline closed");
+
+		Batch ret = current;
+
+		if (ret != null) {
+			if (ret.hasRoom(ints, refs)) return ret;
+
+			put(filled, ret);
+		}
+
+		return current = takeFree(true);
+	}
+
+	private boolean sync(int op) throws IOException {
+		Batch batch = batch(0, 0);
+		batch.add(op);
+		batch.sync = true;
+		current = null;
+		put(filled, batch);
+
+		Object ret = take(results);
+
+		if (ret == FAILED) checkFailure();
+
+		return (Boolean) ret;
+	}
+
+	private Batch takeFree(boolean check) throws IOException {
+		if (check) checkFailure();
+
+		return take(free);
+	}
+
+	/**
+	 * Take from a queue filled by the consumer, polling so an early exit of the consumer doesn't block forever.
+	 */
+	private <T> T take(BlockingQueue<T> queue) throws IOException {
+		try {
+			for (;;) {
+				T ret = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+				if (ret != null) return ret;
+
+				if (!consumer.isAlive()) {
+					ret = queue.poll(); // may have been added right before exiting
+					if (ret != null) return ret;
+
+					checkFailure();
+					throw new IOException("pipeline consumer terminated");
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		}
+	}
+
+	private <T> void put(BlockingQueue<T> queue, T item) throws IOException {
+		try {
+			while (!queue.offer(item, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+				if (!consumer.isAlive()) {
+					checkFailure();
+					throw new IOException("pipeline consumer terminated");
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		}
+	}
+
+	private void checkFailure() throws IOException {
+		Throwable t = failure;
+		if (t == null) return;
+
+		if (t instanceof RuntimeException) throw (RuntimeException) t;
+		if (t instanceof Error) throw (Error) t;
+
+		throw new IOException("pipelined visitor failed", t);
+	}
+
+	// consumer side
+
+	private void consume() {
+		boolean terminate;
+
+		do {
+			Batch batch;
+
+			try {
+				batch = filled.take();
+			} catch (InterruptedException e) {
+				failure = e;
+				return;
+			}
+
+			Object result = FAILED;
+
+			if (failure == null) {
+				try {
+					result = replay(batch);
+				} catch (Throwable t) {
+					failure = t;
+					result = FAILED;
+				}
+			}
+
+			if (batch.sync) results.add(result); // the producer is waiting, capacity 1 suffices
+
+			terminate = batch.terminate;
+			batch.clear();
+			free.add(batch);
+		} while (!terminate);
+	}
+
+	private Object replay(Batch batch) throws IOException {
+		int intPos = 0;
+		int refPos = 0;
+		int[] ints = batch.ints;
+		Object[] refs = batch.refs;
+		boolean ret = false;
+
+		for (int i = 0; i < batch.opCount; i++) {
+			int op = batch.ops[i];
+
+			switch (op) {
+			case RESET:
+				skipLevel = NO_SKIP;
+				next.reset();
+				break;
+			case HEADER:
+				ret = next.visitHeader();
+				break;
+			case NAMESPACES: {
+				@SuppressWarnings("unchecked")
+				List<String> dstNamespaces = (List<String>) refs[refPos + 1];
+				next.visitNamespaces((String) refs[refPos], dstNamespaces);
+				refPos += 2;
+				break;
+			}
+			case METADATA:
+				next.visitMetadata((String) refs[refPos], (String) refs[refPos + 1]);
+				refPos += 2;
+				break;
+			case CONTENT:
+				skipLevel = NO_SKIP;
+				ret = next.visitContent();
+				break;
+			case CLASS:
+				if (enter(0)) skipUnless(0, next.visitClass((String) refs[refPos]));
+				refPos++;
+				break;
+			case FIELD:
+				if (enter(1)) skipUnless(1, next.visitField((String) refs[refPos], (String) refs[refPos + 1]));
+				refPos += 2;
+				break;
+			case METHOD:
+				if (enter(1)) skipUnless(1, next.visitMethod((String) refs[refPos], (String) refs[refPos + 1]));
+				refPos += 2;
+				break;
+			case ARG:
+				if (enter(2)) skipUnless(2, next.visitMethodArg(ints[intPos], ints[intPos + 1], (String) refs[refPos]));
+				intPos += 2;
+				refPos++;
+				break;
+			case VAR:
+				if (enter(2)) skipUnless(2, next.visitMethodVar(ints[intPos], ints[intPos + 1], ints[intPos + 2], ints[intPos + 3], (String) refs[refPos]));
+				intPos += 4;
+				refPos++;
+				break;
+			case END:
+				skipLevel = NO_SKIP;
+				ret = next.visitEnd();
+				break;
+			case DST_NAME:
+				if (skipLevel == NO_SKIP) next.visitDstName(KINDS[ints[intPos]], ints[intPos + 1], (String) refs[refPos]);
+				intPos += 2;
+				refPos++;
+				break;
+			case DST_DESC:
+				if (skipLevel == NO_SKIP) next.visitDstDesc(KINDS[ints[intPos]], ints[intPos + 1], (String) refs[refPos]);
+				intPos += 2;
+				refPos++;
+				break;
+			case ELEMENT_CONTENT: {
+				MappedElementKind kind = KINDS[ints[intPos]];
+				if (skipLevel == NO_SKIP) skipUnless(kind.level, next.visitElementContent(kind));
+				intPos++;
+				break;
+			}
+			case COMMENT:
+				if (skipLevel == NO_SKIP) next.visitComment(KINDS[ints[intPos]], (String) refs[refPos]);
+				intPos++;
+				refPos++;
+				break;
+			default:
+				throw new IllegalStateException("invalid op "+op);
+			}
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Check whether an element at the given level gets visited, ending any skip of an element at the same or a
+	 * deeper level.
+	 */
+	private boolean enter(int level) {
+		if (level > skipLevel) return false;
+
+		skipLevel = NO_SKIP;
+
+		return true;
+	}
+
+	private void skipUnless(int level, boolean visit) {
+		if (!visit) skipLevel = level;
+	}
+
+	private static final class Batch {
+		Batch(int size) {
+			ops = new int[size];
+			ints = new int[size * 4];
+			refs = new Object[size * 2];
+		}
+
+		boolean hasRoom(int intCount, int refCount) {
+			return opCount < ops.length
+					&& this.intCount + intCount <= ints.length
+					&& this.refCount + refCount <= refs.length;
+		}
+
+		Batch add(int op) {
+			ops[opCount++] = op;
+
+			return this;
+		}
+
+		Batch num(int value) {
+			ints[intCount++] = value;
+
+			return this;
+		}
+
+		Batch ref(Object value) {
+			refs[refCount++] = value;
+
+			return this;
+		}
+
+		void clear() {
+			for (int i = 0; i < refCount; i++) {
+				refs[i] = null;
+			}
+
+			opCount = intCount = refCount = 0;
+			sync = terminate = false;
+		}
+
+		final int[] ops;
+		final int[] ints;
+		final Object[] refs;
+		int opCount;
+		int intCount;
+		int refCount;
+		boolean sync;
+		boolean terminate;
+	}
+
+	private static final int RESET = 0;
+	private static final int HEADER = 1;
+	private static final int NAMESPACES = 2;
+	private static final int METADATA = 3;
+	private static final int CONTENT = 4;
+	private static final int CLASS = 5;
+	private static final int FIELD = 6;
+	private static final int METHOD = 7;
+	private static final int ARG = 8;
+	private static final int VAR = 9;
+	private static final int END = 10;
+	private static final int DST_NAME = 11;
+	private static final int DST_DESC = 12;
+	private static final int ELEMENT_CONTENT = 13;
+	private static final int COMMENT = 14;
+
+	private static final int NO_SKIP = Integer.MAX_VALUE;
+	private static final MappedElementKind[] KINDS = MappedElementKind.values();
+	private static final Object FAILED = new Object();
+	private static final long POLL_INTERVAL_MS = 100;
+
+	private final MappingVisitor next;
+	private final Set<MappingFlag> flags;
+	private final BlockingQueue<Batch> free;
+	private final BlockingQueue<Batch> filled;
+	private final BlockingQueue<Object> results = new ArrayBlockingQueue<>(1);
+	private final Thread consumer;
+	private volatile Throwable failure;
+	private Batch current;
+	private boolean closed;
+	private int skipLevel = NO_SKIP; // consumer side
+}
@@ -154,6 +154,35 @@ public final class ColumnFileReader implements Closeable {
 		}
 	}
 
+	/**
+	 * Consume a column without materializing its content.
+	 *
+	 * @return true if a column was skipped, false if already at eol
+	 */
+	public boolean skipCol() throws IOException {
+		if (eol) return false;
+
+		do {
+			while (bufferPos < bufferLimit) {
+				char c = buffer[bufferPos];
+
+				if (c == columnSeparator) { // seek to the start of the next column
+					bufferPos++;
+					return true;
+				} else if (c == '\n' || c == '\r') {
+					eol = true;
+					return true;
+				}
+
+				bufferPos++;
+			}
+		} while (fillBuffer(1));
+
+		eol = true;
+
+		return true;
+	}
+
 	/**
 	 * Read and consume all column until eol and unescape if requested.
 	 */
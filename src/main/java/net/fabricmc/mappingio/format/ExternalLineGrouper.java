@@ -0,0 +1,647 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.format;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import net.fabricmc.mappingio.MappedElementKind;
+import net.fabricmc.mappingio.MappingFlag;
+import net.fabricmc.mappingio.MappingVisitor;
+import net.fabricmc.mappingio.adapter.ForwardingMappingVisitor;
+import net.fabricmc.mappingio.tree.MemoryMappingTree;
+
+/**
+ * Groups the lines of a line based mapping file by their owner class within a bounded memory budget.
+ *
+ * <p>Lines are collected into runs of at most the budget's estimated size, each run gets sorted by owner and spilled to
+ * a temporary file once full. The runs are merged again when {@link #open() opening} the result. Lines without owner,
+ * like headers or comments, precede all grouped lines and count against the same budget, they get spilled to a
+ * separate file if they make up most of it. Within a group the class' own lines come first, otherwise the original
+ * line order is retained.
+ */
+@ApiStatus.Internal
+public final class ExternalLineGrouper implements Closeable {
+	public ExternalLineGrouper(LineKey key, long memoryBudget, @Nullable Path tempDir) {
+		if (memoryBudget <= 0) throw new IllegalArgumentException("non-positive memory budget: "+memoryBudget);
+
+		this.key = key;
+		this.memoryBudget = memoryBudget;
+		this.tempDir = tempDir;
+	}
+
+	/**
+	 * Read a file through a grouping pass if the visitor needs unique classes or leading metadata, with the parser
+	 * streaming the grouped lines instead of buffering the whole file in a tree.
+	 *
+	 * <p>The parser has to tolerate grouped input with metadata lines ahead of all content, multiple passes are served
+	 * by merging the runs again. Duplicate lines are merged like buffering the file in a tree does, with later names
+	 * overriding earlier ones. Of a class' own lines only the last one is passed to the parser.
+	 */
+	public static void read(Reader reader, LineKey key, long memoryBudget, @Nullable Path tempDir, MappingVisitor visitor, Parser parser) throws IOException {
+		Set<MappingFlag> flags = visitor.getFlags();
+
+		if (!flags.contains(MappingFlag.NEEDS_UNIQUENESS) && !flags.contains(MappingFlag.NEEDS_HEADER_METADATA)) {
+			parser.read(reader, visitor);
+			return;
+		}
+
+		try (ExternalLineGrouper grouper = new ExternalLineGrouper(key, memoryBudget, tempDir)) {
+			grouper.addAll(reader);
+
+			GroupedVisitor groupedVisitor = new GroupedVisitor(visitor);
+
+			do {
+				try (Reader groupedReader = grouper.open()) {
+					parser.read(groupedReader, groupedVisitor);
+				}
+			} while (!groupedVisitor.finished);
+		}
+	}
+
+	public void addAll(Reader reader) throws IOException {
+		BufferedReader lineReader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+		String line;
+
+		while ((line = lineReader.readLine()) != null) {
+			add(line);
+		}
+
+		finish();
+	}
+
+	public void add(String line) throws IOException {
+		if (finished) throw new IllegalStateException("already finished");
+		if (line.isEmpty()) return;
+
+		String owner = key.getOwner(line);
+
+		if (owner == null) {
+			ahead.add(line);
+			aheadSize += LINE_OVERHEAD + 2L * line.length();
+		} else {
+			pending.add(new Line(line, owner, key.isClassLine(line)));
+			pendingSize += LINE_OVERHEAD + 2L * (line.length() + owner.length());
+		}
+
+		if (pendingSize + aheadSize >= memoryBudget) {
+			if (pendingSize >= aheadSize) {
+				spill();
+			} else {
+				spillAhead();
+			}
+		}
+	}
+
+	public void finish() throws IOException {
+		if (finished) return;
+
+		if (runs.isEmpty()) {
+			pending.sort(null);
+		} else if (!pending.isEmpty()) {
+			spill();
+		}
+
+		finished = true;
+	}
+
+	/**
+	 * Open a reader over all lines, may be called repeatedly.
+	 */
+	public Reader open() throws IOException {
+		finish();
+
+		if (runs.isEmpty()) {
+			List<String> lines = new ArrayList<>(pending.size());
+
+			for (int i = 0; i < pending.size(); i++) {
+				Line line = pending.get(i);
+				if (line.classLine && i + 1 < pending.size() && isSameClassLine(pending.get(i + 1), line.owner)) continue; // superseded
+
+				lines.add(line.line);
+			}
+
+			return new LineReader(openAheadRun(), ahead.iterator(), lines.iterator(), null);
+		}
+
+		PriorityQueue<RunCursor> queue = new PriorityQueue<>(runs.size());
+		BufferedReader aheadReader = null;
+
+		try {
+			aheadReader = openAheadRun();
+
+			for (int i = 0; i < runs.size(); i++) {
+				RunCursor cursor = new RunCursor(Files.newBufferedReader(runs.get(i), StandardCharsets.UTF_8), i);
+
+				if (cursor.advance(key)) {
+					queue.add(cursor);
+				} else {
+					cursor.reader.close();
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			for (RunCursor cursor : queue) {
+				cursor.reader.close();
+			}
+
+			if (aheadReader != null) aheadReader.close();
+
+			throw e;
+		}
+
+		return new LineReader(aheadReader, ahead.iterator(), null, new RunMerger(queue, key));
+	}
+
+	@Nullable
+	private BufferedReader openAheadRun() throws IOException {
+		return aheadRun != null ? Files.newBufferedReader(aheadRun, StandardCharsets.UTF_8) : null;
+	}
+
+	public int getRunCount() {
+		return runs.size();
+	}
+
+	@Override
+	public void close() throws IOException {
+		IOException exc = null;
+
+		if (aheadRun != null) runs.add(aheadRun);
+
+		for (Path run : runs) {
+			try {
+				Files.deleteIfExists(run);
+			} catch (IOException e) {
+				if (exc == null) {
+					exc = e;
+				} else {
+					exc.addSuppressed(e);
+				}
+			}
+		}
+
+		runs.clear();
+		aheadRun = null;
+		pending.clear();
+		ahead.clear();
+
+		if (exc != null) throw exc;
+	}
+
+	private void spill() throws IOException {
+		pending.sort(null);
+
+		Path run = tempDir != null ? Files.createTempFile(tempDir, "mapping-io-", ".run") : Files.createTempFile("mapping-io-", ".run");
+		runs.add(run);
+
+		try (Writer writer = new Utf8Writer(Files.newOutputStream(run))) {
+			for (Line line : pending) {
+				writer.write(line.line);
+				writer.write('\n');
+			}
+		}
+
+		pending.clear();
+		pendingSize = 0;
+	}
+
+	/**
+	 * Append the ownerless lines to their own file, they aren't sorted and get read before any other line.
+	 */
+	private void spillAhead() throws IOException {
+		if (aheadRun == null) aheadRun = tempDir != null ? Files.createTempFile(tempDir, "mapping-io-", ".ahead") : Files.createTempFile("mapping-io-", ".ahead");
+
+		try (Writer writer = new Utf8Writer(Files.newOutputStream(aheadRun, StandardOpenOption.APPEND))) {
+			for (String line : ahead) {
+				writer.write(line);
+				writer.write('\n');
+			}
+		}
+
+		ahead.clear();
+		aheadSize = 0;
+	}
+
+	private static boolean isSameClassLine(Line line, String owner) {
+		return line.classLine && line.owner.equals(owner);
+	}
+
+	static int compare(String ownerA, boolean classLineA, String ownerB, boolean classLineB) {
+		int cmp = ownerA.compareTo(ownerB);
+		if (cmp != 0) return cmp;
+
+		return Boolean.compare(!classLineA, !classLineB);
+	}
+
+	/**
+	 * Determines the group of a line.
+	 */
+	public interface LineKey {
+		/**
+		 * @return the owner class name, or null if the line isn't associated with a class and should precede all groups
+		 */
+		@Nullable
+		String getOwner(String line);
+
+		/**
+		 * @return whether the line declares its owner class itself, such lines are sorted first within their group
+		 */
+		boolean isClassLine(String line);
+	}
+
+	@FunctionalInterface
+	public interface Parser {
+		void read(Reader reader, MappingVisitor visitor) throws IOException;
+	}
+
+	private static final class Line implements Comparable<Line> {
+		Line(String line, String owner, boolean classLine) {
+			this.line = line;
+			this.owner = owner;
+			this.classLine = classLine;
+		}
+
+		@Override
+		public int compareTo(Line o) {
+			return compare(owner, classLine, o.owner, o.classLine);
+		}
+
+		final String line;
+		final String owner;
+		final boolean classLine;
+	}
+
+	private static final class RunCursor implements Comparable<RunCursor> {
+		RunCursor(BufferedReader reader, int index) {
+			this.reader = reader;
+			this.index = index;
+		}
+
+		boolean advance(LineKey key) throws IOException {
+			line = reader.readLine();
+			if (line == null) return false;
+
+			owner = key.getOwner(line);
+			if (owner == null) throw new IOException("ownerless line in grouped run: "+line);
+			classLine = key.isClassLine(line);
+
+			return true;
+		}
+
+		@Override
+		public int compareTo(RunCursor o) {
+			int cmp = compare(owner, classLine, o.owner, o.classLine);
+
+			return cmp != 0 ? cmp : Integer.compare(index, o.index); // earlier runs hold earlier lines
+		}
+
+		final BufferedReader reader;
+		final int index;
+		String line;
+		String owner;
+		boolean classLine;
+	}
+
+	private static final class RunMerger implements Closeable {
+		RunMerger(PriorityQueue<RunCursor> queue, LineKey key) {
+			this.queue = queue;
+			this.key = key;
+		}
+
+		@Nullable
+		String next() throws IOException {
+			for (;;) {
+				RunCursor cursor = queue.poll();
+				if (cursor == null) return null;
+
+				String ret = cursor.line;
+				String owner = cursor.owner;
+				boolean classLine = cursor.classLine;
+
+				if (cursor.advance(key)) {
+					queue.add(cursor);
+				} else {
+					cursor.reader.close();
+				}
+
+				RunCursor head = queue.peek();
+
+				if (!classLine || head == null || !head.classLine || !head.owner.equals(owner)) { // not superseded
+					return ret;
+				}
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			RunCursor cursor;
+
+			while ((cursor = queue.poll()) != null) {
+				cursor.reader.close();
+			}
+		}
+
+		private final PriorityQueue<RunCursor> queue;
+		private final LineKey key;
+	}
+
+	/**
+	 * Reader concatenating the spilled and in-memory ahead lines with either the in-memory or the merged grouped lines.
+	 */
+	private static final class LineReader extends Reader {
+		LineReader(@Nullable BufferedReader aheadReader, Iterator<String> ahead, @Nullable Iterator<String> lines, @Nullable RunMerger merger) {
+			this.aheadReader = aheadReader;
+			this.ahead = ahead;
+			this.lines = lines;
+			this.merger = merger;
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) throws IOException {
+			if (len == 0) return 0;
+
+			int ret = 0;
+
+			while (ret < len) {
+				if (line == null) {
+					if ((line = nextLine()) == null) break;
+					pos = 0;
+				}
+
+				if (pos < line.length()) {
+					int count = Math.min(len - ret, line.length() - pos);
+					line.getChars(pos, pos + count, cbuf, off + ret);
+					pos += count;
+					ret += count;
+				} else {
+					cbuf[off + ret++] = '\n';
+					line = null;
+				}
+			}
+
+			return ret > 0 ? ret : -1;
+		}
+
+		@Nullable
+		private String nextLine() throws IOException {
+			if (aheadReader != null) {
+				String ret = aheadReader.readLine();
+				if (ret != null) return ret;
+
+				aheadReader.close();
+				aheadReader = null;
+			}
+
+			if (ahead.hasNext()) return ahead.next();
+			if (lines != null) return lines.hasNext() ? lines.next() : null;
+
+			return merger.next();
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				if (aheadReader != null) aheadReader.close();
+			} finally {
+				if (merger != null) merger.close();
+			}
+		}
+
+		private BufferedReader aheadReader;
+		private final Iterator<String> ahead;
+		private final Iterator<String> lines;
+		private final RunMerger merger;
+		private String line;
+		private int pos;
+	}
+
+	/**
+	 * Visitor for the grouped stream. Each class is buffered in a small tree until the next one starts, duplicate lines
+	 * within a class get merged there like the regular read's tree does, with later names overriding earlier ones.
+	 * Metadata lines precede the content in the grouped stream, but their parsers may only emit them after
+	 * visitContent, which gets deferred until the first class for that reason. Passes are driven by
+	 * {@link ExternalLineGrouper#read}.
+	 */
+	private static final class GroupedVisitor extends ForwardingMappingVisitor {
+		GroupedVisitor(MappingVisitor next) {
+			super(next);
+
+			Set<MappingFlag> flags = EnumSet.noneOf(MappingFlag.class);
+
+			for (MappingFlag flag : next.getFlags()) {
+				if (flag != MappingFlag.NEEDS_UNIQUENESS
+						&& flag != MappingFlag.NEEDS_HEADER_METADATA
+						&& flag != MappingFlag.NEEDS_MULTIPLE_PASSES) {
+					flags.add(flag);
+				}
+			}
+
+			this.flags = flags;
+			this.classRelay = new ClassRelay(next);
+		}
+
+		@Override
+		public Set<MappingFlag> getFlags() {
+			return flags;
+		}
+
+		@Override
+		public boolean visitHeader() throws IOException {
+			contentPending = false;
+			visitContent = false;
+			discardClass();
+			visitHeader = super.visitHeader();
+
+			return true; // the buffer needs the namespaces regardless
+		}
+
+		@Override
+		public void visitNamespaces(String srcNamespace, List<String> dstNamespaces) throws IOException {
+			buffer = new MemoryMappingTree();
+			buffer.visitNamespaces(srcNamespace, dstNamespaces);
+
+			if (visitHeader) super.visitNamespaces(srcNamespace, dstNamespaces);
+		}
+
+		@Override
+		public void visitMetadata(String key, @Nullable String value) throws IOException {
+			if (visitHeader) super.visitMetadata(key, value);
+		}
+
+		@Override
+		public boolean visitContent() throws IOException {
+			contentPending = true;
+
+			return true;
+		}
+
+		@Override
+		public boolean visitClass(String srcName) throws IOException {
+			flushClass();
+			if (!startContent()) return false;
+
+			bufferedClass = srcName;
+
+			return buffer.visitClass(srcName);
+		}
+
+		@Override
+		public boolean visitField(String srcName, @Nullable String srcDesc) throws IOException {
+			return bufferedClass != null ? buffer.visitField(srcName, srcDesc) : super.visitField(srcName, srcDesc);
+		}
+
+		@Override
+		public boolean visitMethod(String srcName, @Nullable String srcDesc) throws IOException {
+			return bufferedClass != null ? buffer.visitMethod(srcName, srcDesc) : super.visitMethod(srcName, srcDesc);
+		}
+
+		@Override
+		public boolean visitMethodArg(int argPosition, int lvIndex, @Nullable String srcName) throws IOException {
+			return bufferedClass != null ? buffer.visitMethodArg(argPosition, lvIndex, srcName) : super.visitMethodArg(argPosition, lvIndex, srcName);
+		}
+
+		@Override
+		public boolean visitMethodVar(int lvtRowIndex, int lvIndex, int startOpIdx, int endOpIdx, @Nullable String srcName) throws IOException {
+			return bufferedClass != null ? buffer.visitMethodVar(lvtRowIndex, lvIndex, startOpIdx, endOpIdx, srcName) : super.visitMethodVar(lvtRowIndex, lvIndex, startOpIdx, endOpIdx, srcName);
+		}
+
+		@Override
+		public void visitDstName(MappedElementKind targetKind, int namespace, String name) throws IOException {
+			if (bufferedClass != null) {
+				buffer.visitDstName(targetKind, namespace, name);
+			} else {
+				super.visitDstName(targetKind, namespace, name);
+			}
+		}
+
+		@Override
+		public void visitDstDesc(MappedElementKind targetKind, int namespace, String desc) throws IOException {
+			if (bufferedClass != null) {
+				buffer.visitDstDesc(targetKind, namespace, desc);
+			} else {
+				super.visitDstDesc(targetKind, namespace, desc);
+			}
+		}
+
+		@Override
+		public boolean visitElementContent(MappedElementKind targetKind) throws IOException {
+			return bufferedClass != null ? buffer.visitElementContent(targetKind) : super.visitElementContent(targetKind);
+		}
+
+		@Override
+		public void visitComment(MappedElementKind targetKind, String comment) throws IOException {
+			if (bufferedClass != null) {
+				buffer.visitComment(targetKind, comment);
+			} else {
+				super.visitComment(targetKind, comment);
+			}
+		}
+
+		@Override
+		public boolean visitEnd() throws IOException {
+			startContent();
+			flushClass();
+			finished = super.visitEnd();
+
+			return true;
+		}
+
+		private boolean startContent() throws IOException {
+			if (contentPending) {
+				contentPending = false;
+				visitContent = super.visitContent();
+			}
+
+			return visitContent;
+		}
+
+		private void flushClass() throws IOException {
+			if (bufferedClass == null) return;
+
+			buffer.accept(classRelay);
+			discardClass();
+		}
+
+		private void discardClass() {
+			if (bufferedClass == null) return;
+
+			buffer.removeClass(bufferedClass);
+			bufferedClass = null;
+		}
+
+		private final Set<MappingFlag> flags;
+		private final ClassRelay classRelay;
+		private MemoryMappingTree buffer;
+		private String bufferedClass;
+		private boolean visitHeader;
+		private boolean contentPending;
+		private boolean visitContent;
+		boolean finished;
+	}
+
+	/**
+	 * Passes a buffered class on to the grouped stream's visitor, which is already within its content.
+	 */
+	private static final class ClassRelay extends ForwardingMappingVisitor {
+		ClassRelay(MappingVisitor next) {
+			super(next);
+		}
+
+		@Override
+		public boolean visitHeader() {
+			return false;
+		}
+
+		@Override
+		public boolean visitContent() {
+			return true;
+		}
+
+		@Override
+		public boolean visitEnd() {
+			return true;
+		}
+	}
+
+	private static final int LINE_OVERHEAD = 96; // line entry, two string headers and their arrays
+
+	private final LineKey key;
+	private final long memoryBudget;
+	private final Path tempDir;
+	private final List<String> ahead = new ArrayList<>();
+	private final List<Line> pending = new ArrayList<>();
+	private final List<Path> runs = new ArrayList<>();
+	private Path aheadRun;
+	private long aheadSize;
+	private long pendingSize;
+	private boolean finished;
+}
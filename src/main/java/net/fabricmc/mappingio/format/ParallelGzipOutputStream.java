@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.format;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Gzip output stream compressing fixed size blocks concurrently.
+ *
+ * <p>Every block becomes an independent gzip member, the concatenation of which is a valid gzip stream as understood
+ * by {@link java.util.zip.GZIPInputStream} and the {@code gzip} tool. Members are written in submission order, the
+ * amount of blocks in flight is bounded to keep memory usage constant.
+ *
+ * <p>Calling {@link #flush()} terminates the current member, flushing frequently hurts the compression ratio.
+ */
+public final class ParallelGzipOutputStream extends OutputStream {
+	public ParallelGzipOutputStream(OutputStream out) {
+		this(out, Deflater.DEFAULT_COMPRESSION, DEFAULT_BLOCK_SIZE, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param level deflate compression level, see {@link Deflater#setLevel}
+	 * @param blockSize amount of uncompressed bytes per gzip member
+	 * @param executor executor to run the compression tasks on
+	 */
+	public ParallelGzipOutputStream(OutputStream out, int level, int blockSize, Executor executor) {
+		if (level != Deflater.DEFAULT_COMPRESSION && (level < 0 || level > 9)) throw new IllegalArgumentException("invalid level: "+level);
+		if (blockSize <= 0) throw new IllegalArgumentException("invalid block size: "+blockSize);
+
+		this.out = out;
+		this.level = level;
+		this.blockSize = blockSize;
+		this.executor = executor;
+		this.maxInFlight = 2 * Math.max(1, executor instanceof ForkJoinPool ? ((ForkJoinPool) executor).getParallelism() : Runtime.getRuntime().availableProcessors());
+		this.buffer = new byte[blockSize];
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		if (pos == buffer.length) submit();
+		buffer[pos++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		if ((off | len) < 0 || len > b.length - off) throw new IndexOutOfBoundsException();
+
+		while (len > 0) {
+			if (pos == buffer.length) submit();
+
+			int count = Math.min(len, buffer.length - pos);
+			System.arraycopy(b, off, buffer, pos, count);
+			pos += count;
+			off += count;
+			len -= count;
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		checkOpen();
+		if (pos > 0) submit();
+
+		while (!pending.isEmpty()) {
+			writeHead();
+		}
+
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) return;
+
+		try {
+			// an empty stream still needs one member to be valid gzip
+			if (pos > 0 || !written) submit();
+
+			while (!pending.isEmpty()) {
+				writeHead();
+			}
+		} finally {
+			closed = true;
+			pending.clear();
+			out.close();
+		}
+	}
+
+	private void submit() throws IOException {
+		checkOpen();
+
+		while (pending.size() >= maxInFlight) {
+			writeHead();
+		}
+
+		byte[] data = buffer;
+		int len = pos;
+		pending.add(CompletableFuture.supplyAsync(() -> compress(data, len, level), executor));
+		written = true;
+
+		buffer = freeBuffers.isEmpty() ? new byte[blockSize] : freeBuffers.pop();
+		pos = 0;
+	}
+
+	private void writeHead() throws IOException {
+		Member member;
+
+		try {
+			member = pending.remove().get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Error) throw (Error) cause;
+			throw new IOException("gzip compression failed", cause);
+		}
+
+		out.write(member.data, 0, member.length);
+		if (member.input.length == blockSize) freeBuffers.push(member.input);
+	}
+
+	private void checkOpen() throws IOException {
+		if (closed) throw new IOException("stream closed");
+	}
+
+	private static Member compress(byte[] data, int len, int level) {
+		Deflater deflater = new Deflater(level, true);
+		byte[] ret = new byte[len + (len >>> 12) + (len >>> 14) + 64 + HEADER.length + TRAILER_SIZE];
+		System.arraycopy(HEADER, 0, ret, 0, HEADER.length);
+		int pos = HEADER.length;
+
+		try {
+			deflater.setInput(data, 0, len);
+			deflater.finish();
+
+			for (;;) {
+				pos += deflater.deflate(ret, pos, ret.length - TRAILER_SIZE - pos);
+				if (deflater.finished()) break;
+				ret = Arrays.copyOf(ret, ret.length * 2);
+			}
+		} finally {
+			deflater.end();
+		}
+
+		CRC32 crc = new CRC32();
+		crc.update(data, 0, len);
+		pos = writeIntLe((int) crc.getValue(), ret, pos);
+		pos = writeIntLe(len, ret, pos);
+
+		return new Member(data, ret, pos);
+	}
+
+	private static int writeIntLe(int value, byte[] out, int pos) {
+		out[pos] = (byte) value;
+		out[pos + 1] = (byte) (value >>> 8);
+		out[pos + 2] = (byte) (value >>> 16);
+		out[pos + 3] = (byte) (value >>> 24);
+
+		return pos + 4;
+	}
+
+	private static final class Member {
+		Member(byte[] input, byte[] data, int length) {
+			this.input = input;
+			this.data = data;
+			this.length = length;
+		}
+
+		final byte[] input;
+		final byte[] data;
+		final int length;
+	}
+
+	public static final int DEFAULT_BLOCK_SIZE = 1 << 17;
+
+	// magic, deflate, no flags, no mtime, no extra flags, unknown os
+	private static final byte[] HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+	private static final int TRAILER_SIZE = 8;
+
+	private final OutputStream out;
+	private final int level;
+	private final int blockSize;
+	private final Executor executor;
+	private final int maxInFlight;
+	private final ArrayDeque<CompletableFuture<Member>> pending = new ArrayDeque<>();
+	private final ArrayDeque<byte[]> freeBuffers = new ArrayDeque<>();
+	private byte[] buffer;
+	private int pos;
+	private boolean written;
+	private boolean closed;
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.format;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.MalformedInputException;
+
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Unsynchronized {@link Writer} encoding straight to UTF-8 into a reusable byte buffer.
+ *
+ * <p>ASCII chars, by far the most common in mappings, are stored without any encoder involvement. Unpaired
+ * surrogates are rejected with a {@link MalformedInputException} like {@link java.nio.file.Files#newBufferedWriter}
+ * does.
+ */
+@ApiStatus.Internal
+public final class Utf8Writer extends Writer {
+	public Utf8Writer(OutputStream out) {
+		this.out = out;
+		this.channel = null;
+		this.buffer = new byte[BUFFER_SIZE];
+		this.byteBuffer = null;
+	}
+
+	public Utf8Writer(WritableByteChannel channel) {
+		this.out = null;
+		this.channel = channel;
+		this.buffer = new byte[BUFFER_SIZE];
+		this.byteBuffer = ByteBuffer.wrap(buffer);
+	}
+
+	@Override
+	public void write(int c) throws IOException {
+		if (c < 0x80 && highSurrogate == 0) {
+			if (pos == buffer.length) flushBuffer();
+			buffer[pos++] = (byte) c;
+		} else {
+			writeSlow((char) c);
+		}
+	}
+
+	@Override
+	public void write(char[] cbuf, int off, int len) throws IOException {
+		for (int end = off + len; off < end; off++) {
+			char c = cbuf[off];
+
+			if (c < 0x80 && highSurrogate == 0) {
+				if (pos == buffer.length) flushBuffer();
+				buffer[pos++] = (byte) c;
+			} else {
+				writeSlow(c);
+			}
+		}
+	}
+
+	@Override
+	public void write(String str, int off, int len) throws IOException {
+		byte[] buffer = this.buffer;
+
+		for (int end = off + len; off < end; off++) {
+			char c = str.charAt(off);
+
+			if (c < 0x80 && highSurrogate == 0) {
+				if (pos == buffer.length) flushBuffer();
+				buffer[pos++] = (byte) c;
+			} else {
+				writeSlow(c);
+			}
+		}
+	}
+
+	private void writeSlow(char c) throws IOException {
+		if (buffer.length - pos < 4) flushBuffer();
+
+		if (highSurrogate != 0) {
+			char high = highSurrogate;
+			highSurrogate = 0;
+
+			if (Character.isLowSurrogate(c)) {
+				int cp = Character.toCodePoint(high, c);
+				buffer[pos++] = (byte) (0xf0 | cp >> 18);
+				buffer[pos++] = (byte) (0x80 | cp >> 12 & 0x3f);
+				buffer[pos++] = (byte) (0x80 | cp >> 6 & 0x3f);
+				buffer[pos++] = (byte) (0x80 | cp & 0x3f);
+				return;
+			}
+
+			throw new MalformedInputException(1); // unpaired high surrogate
+		}
+
+		if (c < 0x80) {
+			buffer[pos++] = (byte) c;
+		} else if (c < 0x800) {
+			buffer[pos++] = (byte) (0xc0 | c >> 6);
+			buffer[pos++] = (byte) (0x80 | c & 0x3f);
+		} else if (Character.isHighSurrogate(c)) {
+			highSurrogate = c;
+		} else if (Character.isLowSurrogate(c)) {
+			throw new MalformedInputException(1); // unpaired low surrogate
+		} else {
+			buffer[pos++] = (byte) (0xe0 | c >> 12);
+			buffer[pos++] = (byte) (0x80 | c >> 6 & 0x3f);
+			buffer[pos++] = (byte) (0x80 | c & 0x3f);
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		flushBuffer();
+		if (out != null) out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) return;
+		closed = true;
+
+		try {
+			if (highSurrogate != 0) {
+				highSurrogate = 0;
+				throw new MalformedInputException(1); // trailing unpaired high surrogate
+			}
+
+			flushBuffer();
+		} finally {
+			if (out != null) {
+				out.close();
+			} else {
+				channel.close();
+			}
+		}
+	}
+
+	private void flushBuffer() throws IOException {
+		if (pos == 0) return;
+
+		if (out != null) {
+			out.write(buffer, 0, pos);
+		} else {
+			byteBuffer.clear().limit(pos);
+
+			while (byteBuffer.hasRemaining()) {
+				channel.write(byteBuffer);
+			}
+		}
+
+		pos = 0;
+	}
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final OutputStream out;
+	private final WritableByteChannel channel;
+	private final byte[] buffer;
+	private final ByteBuffer byteBuffer;
+	private int pos;
+	private char highSurrogate;
+	private boolean closed;
+}
@@ -30,11 +30,13 @@ import java.util.List;
 
 import net.fabricmc.mappingio.MappedElementKind;
 import net.fabricmc.mappingio.format.MappingFormat;
+import net.fabricmc.mappingio.jfr.MappingEvent;
 
 public final class EnigmaDirWriter extends EnigmaWriterBase {
 	public EnigmaDirWriter(Path dir, boolean deleteExistingFiles) throws IOException {
 		super(null);
 		this.dir = dir.toAbsolutePath().normalize();
+		this.event = MappingEvent.begin(MappingEvent.Type.WRITE);
 
 		if (deleteExistingFiles && Files.exists(dir)) {
 			Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
@@ -68,6 +70,13 @@ public final class EnigmaDirWriter extends EnigmaWriterBase {
 			writer = null;
 			currentClass = null;
 		}
+
+		if (event != null) {
+			event.format = MappingFormat.ENIGMA_DIR.name();
+			event.path = dir.toString();
+			event.commit();
+			event = null;
+		}
 	}
 
 	@Override
@@ -143,4 +152,5 @@ public final class EnigmaDirWriter extends EnigmaWriterBase {
 	}
 
 	private final Path dir;
+	private MappingEvent event;
 }
@@ -23,6 +23,8 @@ import java.io.Reader;
 import java.util.Arrays;
 import java.util.Collections;
 
+import org.jetbrains.annotations.Nullable;
+
 import net.fabricmc.mappingio.MappedElementKind;
 import net.fabricmc.mappingio.MappingFlag;
 import net.fabricmc.mappingio.MappingUtil;
@@ -34,12 +36,20 @@ public final class ProGuardFileReader {
 	}
 
 	public static void read(Reader reader, String sourceNs, String targetNs, MappingVisitor visitor) throws IOException {
+		read(reader, sourceNs, targetNs, visitor, null);
+	}
+
+	/**
+	 * Read the mappings into {@code visitor} while also passing line number ranges and inline frames to
+	 * {@code retraceBuilder}, both of which can't be expressed through {@link MappingVisitor}.
+	 */
+	public static void read(Reader reader, String sourceNs, String targetNs, MappingVisitor visitor, @Nullable ProGuardRetracer.Builder retraceBuilder) throws IOException {
 		BufferedReader br = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
 
-		read(br, sourceNs, targetNs, visitor);
+		read(br, sourceNs, targetNs, visitor, retraceBuilder);
 	}
 
-	private static void read(BufferedReader reader, String sourceNs, String targetNs, MappingVisitor visitor) throws IOException {
+	private static void read(BufferedReader reader, String sourceNs, String targetNs, MappingVisitor visitor, @Nullable ProGuardRetracer.Builder retraceBuilder) throws IOException {
 		CharArrayReader parentReader = null;
 
 		if (visitor.getFlags().contains(MappingFlag.NEEDS_MULTIPLE_PASSES)) {
@@ -74,7 +84,12 @@ public final class ProGuardFileReader {
 
 				while ((line = reader.readLine()) != null) {
 					line = line.trim();
-					if (line.isEmpty() || line.startsWith("#")) continue;
+					if (line.isEmpty()) continue;
+
+					if (line.startsWith("#")) {
+						if (retraceBuilder != null) retraceBuilder.visitComment(line);
+						continue;
+					}
 
 					if (line.endsWith(":")) { // class: <deobf> -> <obf>:
 						int pos = line.indexOf(" -> ");
@@ -82,6 +97,8 @@ public final class ProGuardFileReader {
 						if (pos == 0) throw new IOException("invalid proguard line (empty src class): "+line);
 						if (pos + 4 + 1 >= line.length()) throw new IOException("invalid proguard line (empty dst class): "+line);
 
+						if (retraceBuilder != null) retraceBuilder.visitClass(line.substring(0, pos), line.substring(pos + 4, line.length() - 1));
+
 						String name = line.substring(0, pos).replace('.', '/');
 						visitClass = visitor.visitClass(name);
 
@@ -90,7 +107,7 @@ public final class ProGuardFileReader {
 							visitor.visitDstName(MappedElementKind.CLASS, 0, mappedName);
 							visitClass = visitor.visitElementContent(MappedElementKind.CLASS);
 						}
-					} else if (visitClass) { // method or field: <type> <deobf> -> <obf>
+					} else if (visitClass || retraceBuilder != null) { // method or field: <type> <deobf> -> <obf>
 						String[] parts = line.split(" ");
 
 						if (parts.length != 4) throw new IOException("invalid proguard line (extra columns): "+line);
@@ -100,6 +117,8 @@ public final class ProGuardFileReader {
 						if (parts[3].isEmpty()) throw new IOException("invalid proguard line (empty dst member): "+line);
 
 						if (parts[1].indexOf('(') < 0) { // field: <type> <deobf> -> <obf>
+							if (!visitClass) continue;
+
 							String name = parts[1];
 							String desc = pgTypeToAsm(parts[0], tmp);
 
@@ -114,14 +133,18 @@ public final class ProGuardFileReader {
 							int pos = part0.indexOf(':');
 
 							String retType;
+							int obfStart, obfEnd;
 
 							if (pos == -1) { // no obf line numbers
 								retType = part0;
+								obfStart = obfEnd = -1;
 							} else {
 								int pos2 = part0.indexOf(':', pos + 1);
-								assert pos2 != -1;
+								if (pos2 < 0) throw new IOException("invalid proguard line (invalid line range): "+line);
 
 								retType = part0.substring(pos2 + 1);
+								obfStart = parseLineNumber(part0, 0, pos, line);
+								obfEnd = parseLineNumber(part0, pos + 1, pos2, line);
 							}
 
 							// clazz, deobf, arg-desc, obf
@@ -130,7 +153,27 @@ public final class ProGuardFileReader {
 							int pos3 = part1.indexOf(')', pos + 1); // arg-desc, obf
 							assert pos3 != -1;
 
-							if (part1.lastIndexOf('.', pos - 1) < 0 && part1.length() == pos3 + 1) { // no inlined method
+							int ownerEnd = part1.lastIndexOf('.', pos - 1);
+
+							if (retraceBuilder != null) {
+								// deobf-lineStart, deobf-lineEnd
+								int srcStart = -1;
+								int srcEnd = -1;
+
+								if (part1.length() > pos3 + 1) {
+									if (part1.charAt(pos3 + 1) != ':') throw new IOException("invalid proguard line (invalid line range): "+line);
+									int pos4 = part1.indexOf(':', pos3 + 2);
+
+									srcStart = parseLineNumber(part1, pos3 + 2, pos4 < 0 ? part1.length() : pos4, line);
+									srcEnd = pos4 < 0 ? srcStart : parseLineNumber(part1, pos4 + 1, part1.length(), line);
+								}
+
+								retraceBuilder.visitMethod(obfStart, obfEnd,
+										ownerEnd < 0 ? null : part1.substring(0, ownerEnd), part1.substring(ownerEnd + 1, pos),
+										srcStart, srcEnd, parts[3]);
+							}
+
+							if (visitClass && ownerEnd < 0 && part1.length() == pos3 + 1) { // no inlined method
 								String name = part1.substring(0, pos);
 								String argDesc = part1.substring(pos, pos3 + 1);
 								String desc = pgDescToAsm(argDesc, retType, tmp);
@@ -146,6 +189,8 @@ public final class ProGuardFileReader {
 				}
 			}
 
+			retraceBuilder = null; // collected in the first pass
+
 			if (visitor.visitEnd()) break;
 
 			if (parentReader == null) {
@@ -157,6 +202,14 @@ public final class ProGuardFileReader {
 		}
 	}
 
+	private static int parseLineNumber(String str, int start, int end, String line) throws IOException {
+		try {
+			return Integer.parseInt(str.substring(start, end));
+		} catch (NumberFormatException e) {
+			throw new IOException("invalid proguard line (invalid line number): "+line);
+		}
+	}
+
 	private static String pgDescToAsm(String pgArgDesc, String pgRetType, StringBuilder tmp) {
 		tmp.setLength(0);
 		tmp.append('(');
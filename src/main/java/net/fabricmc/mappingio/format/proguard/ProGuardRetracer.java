@@ -0,0 +1,598 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.format.proguard;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.fabricmc.mappingio.MappedElementKind;
+import net.fabricmc.mappingio.MappingUtil;
+import net.fabricmc.mappingio.MappingVisitor;
+
+/**
+ * Stack trace deobfuscation based on the line number ranges and inline frames of a ProGuard or R8 mapping file.
+ *
+ * <p>Each obfuscated method name of a class maps to a table of line ranges, kept as sorted int arrays. A range
+ * expands to one or more original frames, innermost first, when methods were inlined into it. Instances are
+ * immutable and may be shared between threads.
+ *
+ * @see <a href="https://www.guardsquare.com/manual/tools/retrace">Official format documentation</a>
+ */
+public final class ProGuardRetracer {
+	private ProGuardRetracer(Map<String, ClassData> classes) {
+		this.classes = classes;
+	}
+
+	public static ProGuardRetracer read(Reader reader) throws IOException {
+		Builder builder = new Builder();
+		ProGuardFileReader.read(reader, MappingUtil.NS_SOURCE_FALLBACK, MappingUtil.NS_TARGET_FALLBACK, SkippingVisitor.INSTANCE, builder);
+
+		return builder.build();
+	}
+
+	/**
+	 * Get the original name of an obfuscated class.
+	 *
+	 * @param className Obfuscated class name in Java notation, e.g. {@code a.b}.
+	 * @return The original class name in Java notation, or null if the class isn't mapped.
+	 */
+	@Nullable
+	public String getOriginalClassName(String className) {
+		ClassData cls = classes.get(className);
+
+		return cls != null ? cls.srcName : null;
+	}
+
+	/**
+	 * Retrace a single stack frame.
+	 *
+	 * @param className Obfuscated class name in Java notation.
+	 * @param methodName Obfuscated method name.
+	 * @param lineNumber Obfuscated line number, or -1 if unknown.
+	 * @return Possible original frame sequences, each innermost frame first. There are several if the frame is
+	 * ambiguous and none if the class isn't mapped.
+	 */
+	public List<List<Frame>> retraceFrame(String className, String methodName, int lineNumber) {
+		ClassData cls = classes.get(className);
+		if (cls == null) return Collections.emptyList();
+
+		MethodTable table = cls.methods.get(methodName);
+
+		if (table == null) { // kept method name
+			return Collections.singletonList(Collections.singletonList(new Frame(cls.srcName, methodName, lineNumber, cls.getSourceFile())));
+		}
+
+		int last = lineNumber >= 0 ? findLastRange(table, lineNumber) : -1;
+		int first = last + 1;
+
+		while (first > 0 && table.maxEnds[first - 1] >= lineNumber) {
+			first--;
+		}
+
+		List<List<Frame>> ret = new ArrayList<>(1);
+
+		for (int i = first; i <= last; i++) {
+			if (table.ends[i] >= lineNumber) ret.add(table.getFrames(i, cls, lineNumber));
+		}
+
+		if (ret.isEmpty()) {
+			// no matching range, use the entries without range or everything if the line is unknown
+			Set<List<Frame>> candidates = new LinkedHashSet<>();
+			int start = lineNumber >= 0 && table.rangedCount < table.starts.length ? table.rangedCount : 0;
+
+			for (int i = start; i < table.starts.length; i++) {
+				candidates.add(table.getFrames(i, cls, lineNumber));
+			}
+
+			ret.addAll(candidates);
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Find the last ranged entry starting at or before {@code lineNumber}.
+	 */
+	private static int findLastRange(MethodTable table, int lineNumber) {
+		int low = 0;
+		int high = table.rangedCount - 1;
+
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+
+			if (table.starts[mid] <= lineNumber) {
+				low = mid + 1;
+			} else {
+				high = mid - 1;
+			}
+		}
+
+		return high;
+	}
+
+	/**
+	 * Retrace a textual stack trace as printed by {@link Throwable#printStackTrace()}.
+	 *
+	 * <p>Frames expand to their inline frames, ambiguous frames list the alternatives prefixed with {@code <OR>}.
+	 * Exception class names are deobfuscated, other lines are copied unchanged.
+	 */
+	public String retrace(String stackTrace) {
+		StringBuilder ret = new StringBuilder(stackTrace.length() + stackTrace.length() / 2);
+
+		try {
+			retrace(new StringReader(stackTrace), ret);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		return ret.toString();
+	}
+
+	/**
+	 * Retrace textual stack traces line by line from {@code reader} to {@code out}.
+	 *
+	 * @see #retrace(String)
+	 */
+	public void retrace(Reader reader, Appendable out) throws IOException {
+		BufferedReader br = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+		String line;
+
+		while ((line = br.readLine()) != null) {
+			retraceLine(line, out);
+		}
+	}
+
+	private void retraceLine(String line, Appendable out) throws IOException {
+		int indentEnd = 0;
+
+		while (indentEnd < line.length() && Character.isWhitespace(line.charAt(indentEnd))) {
+			indentEnd++;
+		}
+
+		if (line.startsWith("at ", indentEnd)) {
+			if (retraceFrameLine(line, indentEnd, out)) return;
+		} else {
+			int nameStart = getThrowableNameStart(line, indentEnd);
+			int nameEnd = nameStart;
+
+			while (nameEnd < line.length() && line.charAt(nameEnd) != ':' && !Character.isWhitespace(line.charAt(nameEnd))) {
+				nameEnd++;
+			}
+
+			ClassData cls = nameEnd > nameStart ? classes.get(line.substring(nameStart, nameEnd)) : null;
+
+			if (cls != null) {
+				out.append(line, 0, nameStart).append(cls.srcName).append(line, nameEnd, line.length()).append('\n');
+				return;
+			}
+		}
+
+		out.append(line).append('\n');
+	}
+
+	private static int getThrowableNameStart(String line, int pos) {
+		if (line.startsWith("Caused by: ", pos)) return pos + 11;
+		if (line.startsWith("Suppressed: ", pos)) return pos + 12;
+
+		if (line.startsWith("Exception in thread \"", pos)) {
+			int end = line.indexOf("\" ", pos + 21);
+			if (end >= 0) return end + 2;
+		}
+
+		return pos;
+	}
+
+	/**
+	 * Retrace a frame line of the form {@code at [module/]class.method(file[:line])}.
+	 *
+	 * @return Whether the line was handled.
+	 */
+	private boolean retraceFrameLine(String line, int indentEnd, Appendable out) throws IOException {
+		int nameStart = indentEnd + 3;
+		int argsStart = line.indexOf('(', nameStart);
+		int argsEnd = argsStart >= 0 ? line.indexOf(')', argsStart) : -1;
+		if (argsEnd < 0) return false;
+
+		int classStart = line.lastIndexOf('/', argsStart) + 1; // skip module and class loader prefix
+		if (classStart <= nameStart) classStart = nameStart;
+		int methodStart = line.lastIndexOf('.', argsStart) + 1;
+		if (methodStart <= classStart) return false;
+
+		int lineNumber = -1;
+		int fileEnd = line.lastIndexOf(':', argsEnd);
+
+		if (fileEnd > argsStart) {
+			try {
+				lineNumber = Integer.parseInt(line.substring(fileEnd + 1, argsEnd));
+			} catch (NumberFormatException e) {
+				fileEnd = argsEnd;
+			}
+		} else {
+			fileEnd = argsEnd;
+		}
+
+		List<List<Frame>> alternatives = retraceFrame(line.substring(classStart, methodStart - 1), line.substring(methodStart, argsStart), lineNumber);
+		if (alternatives.isEmpty()) return false;
+
+		// keep special markers like Native Method and Unknown Source
+		String file = line.substring(argsStart + 1, fileEnd);
+		boolean keepFile = file.equals("Native Method") || file.equals("Unknown Source");
+
+		for (int i = 0; i < alternatives.size(); i++) {
+			for (Frame frame : alternatives.get(i)) {
+				out.append(line, 0, indentEnd);
+				if (i > 0) out.append("<OR> ");
+				out.append(line, indentEnd, classStart).append(frame.className).append('.').append(frame.methodName).append('(');
+
+				if (keepFile) {
+					out.append(file);
+				} else {
+					out.append(frame.sourceFile);
+					if (frame.lineNumber >= 0) out.append(':').append(Integer.toString(frame.lineNumber));
+				}
+
+				out.append(')').append(line, argsEnd + 1, line.length()).append('\n');
+			}
+		}
+
+		return true;
+	}
+
+	private static int mapLine(int line, int obfStart, int obfEnd, int srcStart, int srcEnd) {
+		boolean inRange = line >= 0 && (obfStart < 0 || line >= obfStart && line <= obfEnd);
+
+		if (srcStart < 0) return inRange ? line : -1; // original line numbers unchanged
+		if (srcEnd == srcStart) return srcStart;
+		if (!inRange) return -1;
+		if (obfStart >= 0 && srcEnd - srcStart == obfEnd - obfStart) return srcStart + line - obfStart;
+
+		return srcStart;
+	}
+
+	private static String getDefaultSourceFile(String className) {
+		int start = className.lastIndexOf('.') + 1;
+		int end = className.indexOf('$', start);
+
+		return className.substring(start, end > start ? end : className.length()).concat(".java");
+	}
+
+	/**
+	 * Original stack frame.
+	 */
+	public static final class Frame {
+		Frame(String className, String methodName, int lineNumber, String sourceFile) {
+			this.className = className;
+			this.methodName = methodName;
+			this.lineNumber = lineNumber;
+			this.sourceFile = sourceFile;
+		}
+
+		/**
+		 * @return The class name in Java notation.
+		 */
+		public String getClassName() {
+			return className;
+		}
+
+		public String getMethodName() {
+			return methodName;
+		}
+
+		/**
+		 * @return The line number, or -1 if unknown.
+		 */
+		public int getLineNumber() {
+			return lineNumber;
+		}
+
+		/**
+		 * @return The source file name from the mapping metadata, or one derived from the class name.
+		 */
+		public String getSourceFile() {
+			return sourceFile;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) return true;
+			if (!(obj instanceof Frame)) return false;
+
+			Frame o = (Frame) obj;
+
+			return lineNumber == o.lineNumber && className.equals(o.className) && methodName.equals(o.methodName);
+		}
+
+		@Override
+		public int hashCode() {
+			return (className.hashCode() * 31 + methodName.hashCode()) * 31 + lineNumber;
+		}
+
+		@Override
+		public String toString() {
+			return className+"."+methodName+"("+sourceFile+(lineNumber >= 0 ? ":"+lineNumber : "")+")";
+		}
+
+		private final String className;
+		private final String methodName;
+		private final int lineNumber;
+		private final String sourceFile;
+	}
+
+	/**
+	 * Collector for the retrace data of a ProGuard mapping file.
+	 *
+	 * @see ProGuardFileReader#read(Reader, String, String, MappingVisitor, Builder)
+	 */
+	public static final class Builder {
+		void visitClass(String srcName, String dstName) {
+			finishClass();
+
+			currentClass = new ClassData(srcName);
+			classes.put(dstName, currentClass);
+		}
+
+		/**
+		 * Handle R8 metadata comments like {@code # {"id":"sourceFile","fileName":"Foo.kt"}} following a class.
+		 */
+		void visitComment(String line) {
+			if (currentClass == null || entryCount > 0 || !line.contains("\"sourceFile\"")) return;
+
+			int keyPos = line.indexOf("\"fileName\"");
+			int start = keyPos >= 0 ? line.indexOf('"', line.indexOf(':', keyPos) + 1) + 1 : 0;
+			int end = start > 0 ? line.indexOf('"', start) : -1;
+
+			if (end > start) currentClass.sourceFile = line.substring(start, end);
+		}
+
+		void visitMethod(int obfStart, int obfEnd, @Nullable String srcOwner, String srcName, int srcStart, int srcEnd, String dstName) {
+			if (currentClass == null) return;
+
+			if (entryCount == entryNames.length) {
+				int newSize = entryCount * 2;
+				entryNames = Arrays.copyOf(entryNames, newSize);
+				entryOwners = Arrays.copyOf(entryOwners, newSize);
+				entrySrcNames = Arrays.copyOf(entrySrcNames, newSize);
+				entryLines = Arrays.copyOf(entryLines, newSize * 4);
+			}
+
+			entryNames[entryCount] = dstName;
+			entryOwners[entryCount] = srcOwner;
+			entrySrcNames[entryCount] = srcName;
+			entryLines[entryCount * 4] = obfStart;
+			entryLines[entryCount * 4 + 1] = obfEnd;
+			entryLines[entryCount * 4 + 2] = srcStart;
+			entryLines[entryCount * 4 + 3] = srcEnd;
+			entryCount++;
+		}
+
+		public ProGuardRetracer build() {
+			finishClass();
+
+			return new ProGuardRetracer(new HashMap<>(classes));
+		}
+
+		private void finishClass() {
+			if (currentClass == null) return;
+
+			// entry indices per obfuscated method name, in file order
+			Map<String, List<Integer>> groups = new LinkedHashMap<>();
+
+			for (int i = 0; i < entryCount; i++) {
+				groups.computeIfAbsent(entryNames[i], ignore -> new ArrayList<>()).add(i);
+			}
+
+			Map<String, MethodTable> methods = new HashMap<>(groups.size() * 4 / 3 + 1);
+
+			for (Map.Entry<String, List<Integer>> entry : groups.entrySet()) {
+				methods.put(entry.getKey(), createTable(entry.getValue()));
+			}
+
+			currentClass.methods = methods;
+			currentClass = null;
+			Arrays.fill(entryNames, 0, entryCount, null);
+			Arrays.fill(entryOwners, 0, entryCount, null);
+			Arrays.fill(entrySrcNames, 0, entryCount, null);
+			entryCount = 0;
+		}
+
+		private MethodTable createTable(List<Integer> entries) {
+			// split into inline chains: directly consecutive entries sharing the same obfuscated line range
+			List<int[]> chains = new ArrayList<>(); // first and last entry index
+			int rangedCount = 0;
+
+			for (int i = 0; i < entries.size(); i++) {
+				int entry = entries.get(i);
+				int[] prev = chains.isEmpty() ? null : chains.get(chains.size() - 1);
+
+				if (prev != null && prev[1] == entry - 1
+						&& entryLines[entry * 4] >= 0
+						&& entryLines[entry * 4] == entryLines[prev[1] * 4]
+						&& entryLines[entry * 4 + 1] == entryLines[prev[1] * 4 + 1]) {
+					prev[1] = entry;
+				} else {
+					chains.add(new int[] { entry, entry });
+					if (entryLines[entry * 4] >= 0) rangedCount++;
+				}
+			}
+
+			// ranged chains sorted by start line first, chains without range last
+			chains.sort((a, b) -> {
+				int startA = entryLines[a[0] * 4];
+				int startB = entryLines[b[0] * 4];
+				if ((startA < 0) != (startB < 0)) return startA < 0 ? 1 : -1;
+
+				return Integer.compare(startA, startB);
+			});
+
+			MethodTable ret = new MethodTable(chains.size(), rangedCount);
+			int frameCount = 0;
+
+			for (int[] chain : chains) {
+				frameCount += chain[1] - chain[0] + 1;
+			}
+
+			ret.frameOwners = new String[frameCount];
+			ret.frameNames = new String[frameCount];
+			ret.frameLines = new int[frameCount * 2];
+			int frame = 0;
+			int maxEnd = -1;
+
+			for (int i = 0; i < chains.size(); i++) {
+				int[] chain = chains.get(i);
+				ret.starts[i] = entryLines[chain[0] * 4];
+				ret.ends[i] = entryLines[chain[0] * 4 + 1];
+				maxEnd = Math.max(maxEnd, ret.ends[i]);
+				ret.maxEnds[i] = maxEnd;
+				ret.chainStarts[i] = frame;
+
+				for (int entry = chain[0]; entry <= chain[1]; entry++) {
+					ret.frameOwners[frame] = entryOwners[entry];
+					ret.frameNames[frame] = entrySrcNames[entry];
+					ret.frameLines[frame * 2] = entryLines[entry * 4 + 2];
+					ret.frameLines[frame * 2 + 1] = entryLines[entry * 4 + 3];
+					frame++;
+				}
+			}
+
+			ret.chainStarts[chains.size()] = frame;
+
+			return ret;
+		}
+
+		private final Map<String, ClassData> classes = new HashMap<>();
+		private ClassData currentClass;
+		private int entryCount;
+		private String[] entryNames = new String[16];
+		private String[] entryOwners = new String[16];
+		private String[] entrySrcNames = new String[16];
+		private int[] entryLines = new int[16 * 4]; // obfStart, obfEnd, srcStart, srcEnd
+	}
+
+	private static final class ClassData {
+		ClassData(String srcName) {
+			this.srcName = srcName;
+		}
+
+		String getSourceFile() {
+			if (sourceFile == null) sourceFile = getDefaultSourceFile(srcName);
+
+			return sourceFile;
+		}
+
+		final String srcName;
+		volatile String sourceFile;
+		Map<String, MethodTable> methods;
+	}
+
+	/**
+	 * Line ranges of one obfuscated method name, ranged chains sorted by start line followed by chains without range.
+	 */
+	private static final class MethodTable {
+		MethodTable(int chainCount, int rangedCount) {
+			this.rangedCount = rangedCount;
+			this.starts = new int[chainCount];
+			this.ends = new int[chainCount];
+			this.maxEnds = new int[chainCount];
+			this.chainStarts = new int[chainCount + 1];
+		}
+
+		List<Frame> getFrames(int chain, ClassData cls, int lineNumber) {
+			int start = chainStarts[chain];
+			int end = chainStarts[chain + 1];
+			List<Frame> ret = new ArrayList<>(end - start);
+
+			for (int i = start; i < end; i++) {
+				String owner = frameOwners[i];
+				int line = mapLine(lineNumber, starts[chain], ends[chain], frameLines[i * 2], frameLines[i * 2 + 1]);
+
+				if (owner == null) {
+					ret.add(new Frame(cls.srcName, frameNames[i], line, cls.getSourceFile()));
+				} else {
+					ret.add(new Frame(owner, frameNames[i], line, getDefaultSourceFile(owner)));
+				}
+			}
+
+			return ret;
+		}
+
+		final int rangedCount;
+		final int[] starts;
+		final int[] ends;
+		final int[] maxEnds; // running maximum of ends, bounds the backwards scan for overlapping ranges
+		final int[] chainStarts; // first frame index per chain
+		String[] frameOwners; // null for the mapped class itself
+		String[] frameNames;
+		int[] frameLines; // srcStart, srcEnd
+	}
+
+	/**
+	 * Visitor ignoring all mappings, for reading only the retrace data.
+	 */
+	private static final class SkippingVisitor implements MappingVisitor {
+		@Override
+		public void visitNamespaces(String srcNamespace, List<String> dstNamespaces) { }
+
+		@Override
+		public boolean visitClass(String srcName) {
+			return false;
+		}
+
+		@Override
+		public boolean visitField(String srcName, String srcDesc) {
+			return false;
+		}
+
+		@Override
+		public boolean visitMethod(String srcName, String srcDesc) {
+			return false;
+		}
+
+		@Override
+		public boolean visitMethodArg(int argPosition, int lvIndex, String srcName) {
+			return false;
+		}
+
+		@Override
+		public boolean visitMethodVar(int lvtRowIndex, int lvIndex, int startOpIdx, int endOpIdx, String srcName) {
+			return false;
+		}
+
+		@Override
+		public void visitDstName(MappedElementKind targetKind, int namespace, String name) { }
+
+		@Override
+		public void visitComment(MappedElementKind targetKind, String comment) { }
+
+		static final SkippingVisitor INSTANCE = new SkippingVisitor();
+	}
+
+	private final Map<String, ClassData> classes;
+}
@@ -18,14 +18,18 @@ package net.fabricmc.mappingio.format.srg;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.Set;
 
+import org.jetbrains.annotations.Nullable;
+
 import net.fabricmc.mappingio.MappedElementKind;
 import net.fabricmc.mappingio.MappingFlag;
 import net.fabricmc.mappingio.MappingUtil;
 import net.fabricmc.mappingio.MappingVisitor;
 import net.fabricmc.mappingio.format.ColumnFileReader;
+import net.fabricmc.mappingio.format.ExternalLineGrouper;
 import net.fabricmc.mappingio.tree.MappingTree;
 import net.fabricmc.mappingio.tree.MemoryMappingTree;
 
@@ -38,6 +42,17 @@ public final class SrgFileReader {
 		read(new ColumnFileReader(reader, ' '), sourceNs, targetNs, visitor);
 	}
 
+	/**
+	 * Read with bounded memory use for visitors requiring unique classes, grouping the lines by owner class via an
+	 * external sort instead of buffering the whole file in a {@link MemoryMappingTree}.
+	 *
+	 * @param memoryBudget approximate heap size in bytes to use for buffering lines before spilling them
+	 * @param tempDir directory for the spilled runs, or null for the default temporary file directory
+	 */
+	public static void readGrouped(Reader reader, String sourceNs, String targetNs, long memoryBudget, @Nullable Path tempDir, MappingVisitor visitor) throws IOException {
+		ExternalLineGrouper.read(reader, LINE_KEY, memoryBudget, tempDir, visitor, (groupedReader, groupedVisitor) -> read(groupedReader, sourceNs, targetNs, groupedVisitor));
+	}
+
 	private static void read(ColumnFileReader reader, String sourceNs, String targetNs, MappingVisitor visitor) throws IOException {
 		Set<MappingFlag> flags = visitor.getFlags();
 		MappingVisitor parentVisitor = null;
@@ -136,4 +151,27 @@ public final class SrgFileReader {
 			((MappingTree) visitor).accept(parentVisitor);
 		}
 	}
+
+	private static final ExternalLineGrouper.LineKey LINE_KEY = new ExternalLineGrouper.LineKey() {
+		@Override
+		public String getOwner(String line) {
+			boolean isClass = line.startsWith("CL: ");
+			if (!isClass && !line.startsWith("FD: ") && !line.startsWith("MD: ")) return null;
+
+			int end = line.indexOf(' ', 4);
+			if (end < 0) end = line.length();
+
+			if (!isClass) {
+				int sepPos = line.lastIndexOf('/', end - 1);
+				if (sepPos > 4) end = sepPos;
+			}
+
+			return line.substring(4, end);
+		}
+
+		@Override
+		public boolean isClassLine(String line) {
+			return line.startsWith("CL: ");
+		}
+	};
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.format.tiny;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Maps the dst namespace columns of a file to a requested subset of them.
+ */
+final class NamespaceProjection {
+	/**
+	 * Create the column mapping for the requested dst namespaces.
+	 *
+	 * @param fileDstNamespaces dst namespaces as present in the file
+	 * @param requested dst namespaces to keep in visit order, all if null, the src namespace is ignored
+	 * @param outDstNamespaces receives the projected dst namespaces
+	 * @return target dst namespace index for each file column, -1 for skipped columns
+	 */
+	static int[] create(String srcNamespace, List<String> fileDstNamespaces, Collection<String> requested, List<String> outDstNamespaces) throws IOException {
+		int[] ret = new int[fileDstNamespaces.size()];
+
+		if (requested == null) {
+			for (int i = 0; i < ret.length; i++) {
+				ret[i] = i;
+			}
+
+			outDstNamespaces.addAll(fileDstNamespaces);
+
+			return ret;
+		}
+
+		Arrays.fill(ret, -1);
+
+		for (String ns : requested) {
+			if (ns.equals(srcNamespace) || outDstNamespaces.contains(ns)) continue;
+
+			int idx = fileDstNamespaces.indexOf(ns);
+			if (idx < 0) throw new IOException("requested namespace "+ns+" not present in file");
+
+			ret[idx] = outDstNamespaces.size();
+			outDstNamespaces.add(ns);
+		}
+
+		return ret;
+	}
+}
@@ -18,14 +18,19 @@ package net.fabricmc.mappingio.format.tiny;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
+import org.jetbrains.annotations.Nullable;
+
 import net.fabricmc.mappingio.MappedElementKind;
 import net.fabricmc.mappingio.MappingFlag;
 import net.fabricmc.mappingio.MappingVisitor;
 import net.fabricmc.mappingio.format.ColumnFileReader;
+import net.fabricmc.mappingio.format.ExternalLineGrouper;
 import net.fabricmc.mappingio.tree.MappingTree;
 import net.fabricmc.mappingio.tree.MemoryMappingTree;
 
@@ -50,23 +55,48 @@ public final class Tiny1FileReader {
 	}
 
 	public static void read(Reader reader, MappingVisitor visitor) throws IOException {
-		read(new ColumnFileReader(reader, '\t'), visitor);
+		read(new ColumnFileReader(reader, '\t'), null, visitor);
+	}
+
+	/**
+	 * Read only the src namespace and the given dst namespaces, skipping all other name columns while parsing.
+	 *
+	 * @param dstNamespaces dst namespaces to visit, in the order they should be visited in
+	 * @throws IOException if a requested namespace isn't present in the file
+	 */
+	public static void read(Reader reader, Collection<String> dstNamespaces, MappingVisitor visitor) throws IOException {
+		read(new ColumnFileReader(reader, '\t'), dstNamespaces, visitor);
+	}
+
+	/**
+	 * Read with bounded memory use for visitors requiring unique classes or header metadata.
+	 *
+	 * <p>The regular read buffers the whole file in a {@link MemoryMappingTree} for such visitors, this groups the lines
+	 * by owner class via an external sort instead, spilling sorted runs of about {@code memoryBudget} bytes into
+	 * temporary files. Duplicate lines are merged the same way as with the regular read.
+	 *
+	 * @param memoryBudget approximate heap size in bytes to use for buffering lines before spilling them
+	 * @param tempDir directory for the spilled runs, or null for the default temporary file directory
+	 */
+	public static void readGrouped(Reader reader, long memoryBudget, @Nullable Path tempDir, MappingVisitor visitor) throws IOException {
+		ExternalLineGrouper.read(reader, LINE_KEY, memoryBudget, tempDir, visitor, Tiny1FileReader::read);
 	}
 
-	private static void read(ColumnFileReader reader, MappingVisitor visitor) throws IOException {
+	private static void read(ColumnFileReader reader, Collection<String> projection, MappingVisitor visitor) throws IOException {
 		if (!reader.nextCol("v1")) { // magic/version
 			throw new IOException("invalid/unsupported tiny file: no tiny 1 header");
 		}
 
 		String srcNamespace = reader.nextCol();
-		List<String> dstNamespaces = new ArrayList<>();
+		List<String> fileDstNamespaces = new ArrayList<>();
 		String dstNamespace;
 
 		while ((dstNamespace = reader.nextCol()) != null) {
-			dstNamespaces.add(dstNamespace);
+			fileDstNamespaces.add(dstNamespace);
 		}
 
-		int dstNsCount = dstNamespaces.size();
+		List<String> dstNamespaces = new ArrayList<>(fileDstNamespaces.size());
+		int[] nsMap = NamespaceProjection.create(srcNamespace, fileDstNamespaces, projection, dstNamespaces);
 		Set<MappingFlag> flags = visitor.getFlags();
 		MappingVisitor parentVisitor = null;
 
@@ -102,7 +132,7 @@ public final class Tiny1FileReader {
 							visitLastClass = visitor.visitClass(srcName);
 
 							if (visitLastClass) {
-								readDstNames(reader, MappedElementKind.CLASS, dstNsCount, visitor);
+								readDstNames(reader, MappedElementKind.CLASS, nsMap, visitor);
 								visitLastClass = visitor.visitElementContent(MappedElementKind.CLASS);
 							}
 						}
@@ -125,7 +155,7 @@ public final class Tiny1FileReader {
 							if (isMethod && visitor.visitMethod(srcName, srcDesc)
 									|| !isMethod && visitor.visitField(srcName, srcDesc)) {
 								MappedElementKind kind = isMethod ? MappedElementKind.METHOD : MappedElementKind.FIELD;
-								readDstNames(reader, kind, dstNsCount, visitor);
+								readDstNames(reader, kind, nsMap, visitor);
 								visitor.visitElementContent(kind);
 							}
 						}
@@ -168,8 +198,15 @@ public final class Tiny1FileReader {
 		}
 	}
 
-	private static void readDstNames(ColumnFileReader reader, MappedElementKind subjectKind, int dstNsCount, MappingVisitor visitor) throws IOException {
-		for (int dstNs = 0; dstNs < dstNsCount; dstNs++) {
+	private static void readDstNames(ColumnFileReader reader, MappedElementKind subjectKind, int[] nsMap, MappingVisitor visitor) throws IOException {
+		for (int col = 0; col < nsMap.length; col++) {
+			int dstNs = nsMap[col];
+
+			if (dstNs < 0) {
+				if (!reader.skipCol()) throw new IOException("missing name columns in line "+reader.getLineNumber());
+				continue;
+			}
+
 			String name = reader.nextCol();
 			if (name == null) throw new IOException("missing name columns in line "+reader.getLineNumber());
 
@@ -177,6 +214,32 @@ public final class Tiny1FileReader {
 		}
 	}
 
+	private static final ExternalLineGrouper.LineKey LINE_KEY = new ExternalLineGrouper.LineKey() {
+		@Override
+		public String getOwner(String line) {
+			int start;
+
+			if (line.startsWith("CLASS\t")) {
+				start = 6;
+			} else if (line.startsWith("FIELD\t")) {
+				start = 6;
+			} else if (line.startsWith("METHOD\t")) {
+				start = 7;
+			} else {
+				return null;
+			}
+
+			int end = line.indexOf('\t', start);
+
+			return line.substring(start, end >= 0 ? end : line.length());
+		}
+
+		@Override
+		public boolean isClassLine(String line) {
+			return line.startsWith("CLASS\t");
+		}
+	};
+
 	static final String nextIntermediaryClassProperty = "next-intermediary-class";
 	static final String nextIntermediaryFieldProperty = "next-intermediary-field";
 	static final String nextIntermediaryMethodProperty = "next-intermediary-method";
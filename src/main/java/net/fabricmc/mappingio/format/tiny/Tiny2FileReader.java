@@ -18,11 +18,23 @@ package net.fabricmc.mappingio.format.tiny;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
 
 import net.fabricmc.mappingio.MappedElementKind;
 import net.fabricmc.mappingio.MappingFlag;
+import net.fabricmc.mappingio.MappingUtil;
 import net.fabricmc.mappingio.MappingVisitor;
 import net.fabricmc.mappingio.format.ColumnFileReader;
 
@@ -49,10 +61,89 @@ public final class Tiny2FileReader {
 	}
 
 	public static void read(Reader reader, MappingVisitor visitor) throws IOException {
-		read(new ColumnFileReader(reader, '\t'), visitor);
+		read(new ColumnFileReader(reader, '\t'), null, visitor);
 	}
 
-	private static void read(ColumnFileReader reader, MappingVisitor visitor) throws IOException {
+	/**
+	 * Read only the src namespace and the given dst namespaces, skipping all other name columns while parsing.
+	 *
+	 * @param dstNamespaces dst namespaces to visit, in the order they should be visited in
+	 * @throws IOException if a requested namespace isn't present in the file
+	 */
+	public static void read(Reader reader, Collection<String> dstNamespaces, MappingVisitor visitor) throws IOException {
+		read(new ColumnFileReader(reader, '\t'), dstNamespaces, visitor);
+	}
+
+	/**
+	 * Read only the requested classes from a Tiny v2 file, seeking to them through the file's sidecar index.
+	 *
+	 * <p>The header and metadata are always visited, unknown class names are ignored.
+	 *
+	 * @param classNames class names to read, in the given namespace
+	 * @param namespace namespace of {@code classNames}, the src namespace if null
+	 * @throws IOException if the index doesn't match the file, detected by length and the checksums of the loaded
+	 * ranges
+	 */
+	public static void read(Path file, Tiny2Index index, Collection<String> classNames, String namespace, MappingVisitor visitor) throws IOException {
+		Map<Tiny2Index.Entry, Boolean> entries = new IdentityHashMap<>();
+
+		for (String name : classNames) {
+			Tiny2Index.Entry entry = index.getClass(name, namespace);
+			if (entry != null) entries.put(entry, Boolean.TRUE);
+		}
+
+		List<Tiny2Index.Entry> sorted = new ArrayList<>(entries.keySet());
+		sorted.sort(Comparator.comparingLong(Tiny2Index.Entry::getOffset));
+
+		long total = index.getHeaderLength();
+
+		for (Tiny2Index.Entry entry : sorted) {
+			total += entry.getLength();
+		}
+
+		if (total > Integer.MAX_VALUE) throw new IOException("selection too large: "+total+" bytes");
+
+		ByteBuffer buffer = ByteBuffer.allocate((int) total);
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() != index.getFileLength()) {
+				throw new IOException("stale tiny index for "+file+": expected "+index.getFileLength()+" bytes, found "+channel.size());
+			}
+
+			readFully(channel, buffer, 0, (int) index.getHeaderLength());
+			checkRange(file, buffer, 0, 0, index.getHeaderChecksum());
+
+			for (Tiny2Index.Entry entry : sorted) {
+				int start = buffer.position();
+				readFully(channel, buffer, entry.getOffset(), entry.getLength());
+				checkRange(file, buffer, start, entry.getOffset(), entry.getChecksum());
+			}
+		}
+
+		read(new StringReader(new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8)), visitor);
+	}
+
+	private static void checkRange(Path file, ByteBuffer buffer, int start, long fileOffset, long checksum) throws IOException {
+		CRC32 crc = new CRC32();
+		crc.update(buffer.array(), start, buffer.position() - start);
+
+		if (crc.getValue() != checksum) {
+			throw new IOException("stale tiny index for "+file+": checksum mismatch at offset "+fileOffset);
+		}
+	}
+
+	private static void readFully(FileChannel channel, ByteBuffer buffer, long offset, int length) throws IOException {
+		buffer.limit(buffer.position() + length);
+
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, offset);
+			if (read < 0) throw new IOException("unexpected end of file at offset "+offset);
+
+			offset += read;
+		}
+	}
+
+	private static void read(ColumnFileReader reader, Collection<String> projection, MappingVisitor visitor) throws IOException {
 		if (!reader.nextCol("tiny") // magic
 				|| reader.nextIntCol() != 2 // major version
 				|| reader.nextIntCol() < 0) { // minor version
@@ -60,13 +151,16 @@ public final class Tiny2FileReader {
 		}
 
 		String srcNamespace = reader.nextCol();
-		List<String> dstNamespaces = new ArrayList<>();
+		List<String> fileDstNamespaces = new ArrayList<>();
 		String dstNamespace;
 
 		while ((dstNamespace = reader.nextCol()) != null) {
-			dstNamespaces.add(dstNamespace);
+			fileDstNamespaces.add(dstNamespace);
 		}
 
+		List<String> dstNamespaces = new ArrayList<>(fileDstNamespaces.size());
+		int[] nsMap = NamespaceProjection.create(srcNamespace, fileDstNamespaces, projection, dstNamespaces);
+		if (projection == null) nsMap = null; // identity, use the plain column loop
 		int dstNsCount = dstNamespaces.size();
 
 		if (visitor.getFlags().contains(MappingFlag.NEEDS_MULTIPLE_PASSES)) {
@@ -75,6 +169,7 @@ public final class Tiny2FileReader {
 
 		boolean firstIteration = true;
 		boolean escapeNames = false;
+		boolean wantsSizeHints = visitor.getFlags().contains(MappingFlag.WANTS_SIZE_HINTS);
 
 		for (;;) {
 			boolean visitHeader = visitor.visitHeader();
@@ -96,6 +191,8 @@ public final class Tiny2FileReader {
 
 						if (key.equals(Tiny2Util.escapedNamesProperty)) {
 							escapeNames = true;
+						} else if (MappingUtil.isSizeHint(key) && !wantsSizeHints) {
+							continue;
 						}
 
 						visitor.visitMetadata(key, value);
@@ -104,13 +201,16 @@ public final class Tiny2FileReader {
 			}
 
 			if (visitor.visitContent()) {
+				String[] dstNames = new String[dstNsCount];
+
 				while (reader.nextLine(0)) {
 					if (reader.nextCol("c")) { // class: c <names>...
 						String srcName = reader.nextCol(escapeNames);
 						if (srcName == null || srcName.isEmpty()) throw new IOException("missing class-name-a in line "+reader.getLineNumber());
+						readDstNames(reader, dstNames, nsMap, escapeNames);
 
-						if (visitor.visitClass(srcName)) {
-							readClass(reader, dstNsCount, escapeNames, visitor);
+						if (visitor.visitClass(srcName, dstNames, null)) {
+							readClass(reader, dstNames, nsMap, escapeNames, visitor);
 						}
 					}
 				}
@@ -123,28 +223,27 @@ public final class Tiny2FileReader {
 		}
 	}
 
-	private static void readClass(ColumnFileReader reader, int dstNsCount, boolean escapeNames, MappingVisitor visitor) throws IOException {
-		readDstNames(reader, MappedElementKind.CLASS, dstNsCount, escapeNames, visitor);
-		if (!visitor.visitElementContent(MappedElementKind.CLASS)) return;
-
+	private static void readClass(ColumnFileReader reader, String[] dstNames, int[] nsMap, boolean escapeNames, MappingVisitor visitor) throws IOException {
 		while (reader.nextLine(1)) {
 			if (reader.nextCol("f")) { // field: f <descA> <names>...
 				String srcDesc = reader.nextCol(escapeNames);
 				if (srcDesc == null || srcDesc.isEmpty()) throw new IOException("missing field-desc-a in line "+reader.getLineNumber());
 				String srcName = reader.nextCol(escapeNames);
 				if (srcName == null || srcName.isEmpty()) throw new IOException("missing field-name-a in line "+reader.getLineNumber());
+				readDstNames(reader, dstNames, nsMap, escapeNames);
 
-				if (visitor.visitField(srcName, srcDesc)) {
-					readElement(reader, MappedElementKind.FIELD, dstNsCount, escapeNames, visitor);
+				if (visitor.visitField(srcName, srcDesc, dstNames, null, null)) {
+					readComments(reader, MappedElementKind.FIELD, visitor);
 				}
 			} else if (reader.nextCol("m")) { // method: m <descA> <names>...
 				String srcDesc = reader.nextCol(escapeNames);
 				if (srcDesc == null || srcDesc.isEmpty()) throw new IOException("missing method-desc-a in line "+reader.getLineNumber());
 				String srcName = reader.nextCol(escapeNames);
 				if (srcName == null || srcName.isEmpty()) throw new IOException("missing method-name-a in line "+reader.getLineNumber());
+				readDstNames(reader, dstNames, nsMap, escapeNames);
 
-				if (visitor.visitMethod(srcName, srcDesc)) {
-					readMethod(reader, dstNsCount, escapeNames, visitor);
+				if (visitor.visitMethod(srcName, srcDesc, dstNames, null, null)) {
+					readMethod(reader, dstNames, nsMap, escapeNames, visitor);
 				}
 			} else if (reader.nextCol("c")) { // comment: c <comment>
 				readComment(reader, MappedElementKind.CLASS, visitor);
@@ -152,10 +251,7 @@ public final class Tiny2FileReader {
 		}
 	}
 
-	private static void readMethod(ColumnFileReader reader, int dstNsCount, boolean escapeNames, MappingVisitor visitor) throws IOException {
-		readDstNames(reader, MappedElementKind.METHOD, dstNsCount, escapeNames, visitor);
-		if (!visitor.visitElementContent(MappedElementKind.METHOD)) return;
-
+	private static void readMethod(ColumnFileReader reader, String[] dstNames, int[] nsMap, boolean escapeNames, MappingVisitor visitor) throws IOException {
 		while (reader.nextLine(2)) {
 			if (reader.nextCol("p")) { // method parameter: p <lv-index> <names>...
 				int lvIndex = reader.nextIntCol();
@@ -163,9 +259,10 @@ public final class Tiny2FileReader {
 				String srcName = reader.nextCol(escapeNames);
 				if (srcName == null) throw new IOException("missing var-name-a column in line "+reader.getLineNumber());
 				if (srcName.isEmpty()) srcName = null;
+				readDstNames(reader, dstNames, nsMap, escapeNames);
 
-				if (visitor.visitMethodArg(-1, lvIndex, srcName)) {
-					readElement(reader, MappedElementKind.METHOD_ARG, dstNsCount, escapeNames, visitor);
+				if (visitor.visitMethodArg(-1, lvIndex, srcName, dstNames, null)) {
+					readComments(reader, MappedElementKind.METHOD_ARG, visitor);
 				}
 			} else if (reader.nextCol("v")) { // method variable: v <lv-index> <lv-start-offset> <optional-lvt-index> <names>...
 				int lvIndex = reader.nextIntCol();
@@ -176,9 +273,10 @@ public final class Tiny2FileReader {
 				String srcName = reader.nextCol(escapeNames);
 				if (srcName == null) throw new IOException("missing var-name-a column in line "+reader.getLineNumber());
 				if (srcName.isEmpty()) srcName = null;
+				readDstNames(reader, dstNames, nsMap, escapeNames);
 
-				if (visitor.visitMethodVar(lvtRowIndex, lvIndex, startOpIdx, -1, srcName)) {
-					readElement(reader, MappedElementKind.METHOD_VAR, dstNsCount, escapeNames, visitor);
+				if (visitor.visitMethodVar(lvtRowIndex, lvIndex, startOpIdx, -1, srcName, dstNames, null)) {
+					readComments(reader, MappedElementKind.METHOD_VAR, visitor);
 				}
 			} else if (reader.nextCol("c")) { // comment: c <comment>
 				readComment(reader, MappedElementKind.METHOD, visitor);
@@ -186,10 +284,7 @@ public final class Tiny2FileReader {
 		}
 	}
 
-	private static void readElement(ColumnFileReader reader, MappedElementKind kind, int dstNsCount, boolean escapeNames, MappingVisitor visitor) throws IOException {
-		readDstNames(reader, kind, dstNsCount, escapeNames, visitor);
-		if (!visitor.visitElementContent(kind)) return;
-
+	private static void readComments(ColumnFileReader reader, MappedElementKind kind, MappingVisitor visitor) throws IOException {
 		while (reader.nextLine(kind.level + 1)) {
 			if (reader.nextCol("c")) { // comment: c <comment>
 				readComment(reader, kind, visitor);
@@ -204,12 +299,27 @@ public final class Tiny2FileReader {
 		visitor.visitComment(subjectKind, comment);
 	}
 
-	private static void readDstNames(ColumnFileReader reader, MappedElementKind subjectKind, int dstNsCount, boolean escapeNames, MappingVisitor visitor) throws IOException {
-		for (int dstNs = 0; dstNs < dstNsCount; dstNs++) {
-			String name = reader.nextCol(escapeNames);
-			if (name == null) throw new IOException("missing name columns in line "+reader.getLineNumber());
+	private static void readDstNames(ColumnFileReader reader, String[] dstNames, int[] nsMap, boolean escapeNames) throws IOException {
+		if (nsMap == null) {
+			for (int dstNs = 0; dstNs < dstNames.length; dstNs++) {
+				String name = reader.nextCol(escapeNames);
+				if (name == null) throw new IOException("missing name columns in line "+reader.getLineNumber());
 
-			if (!name.isEmpty()) visitor.visitDstName(subjectKind, dstNs, name);
+				dstNames[dstNs] = name.isEmpty() ? null : name;
+			}
+		} else {
+			for (int col = 0; col < nsMap.length; col++) {
+				int dstNs = nsMap[col];
+
+				if (dstNs < 0) {
+					if (!reader.skipCol()) throw new IOException("missing name columns in line "+reader.getLineNumber());
+				} else {
+					String name = reader.nextCol(escapeNames);
+					if (name == null) throw new IOException("missing name columns in line "+reader.getLineNumber());
+
+					dstNames[dstNs] = name.isEmpty() ? null : name;
+				}
+			}
 		}
 	}
 }
@@ -16,37 +16,76 @@
 
 package net.fabricmc.mappingio.format.tiny;
 
+import java.io.FilterWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
+import java.util.zip.CRC32;
 
 import net.fabricmc.mappingio.MappedElementKind;
 import net.fabricmc.mappingio.MappingFlag;
 import net.fabricmc.mappingio.MappingWriter;
+import net.fabricmc.mappingio.format.Utf8Writer;
 
 public final class Tiny2FileWriter implements MappingWriter {
 	public Tiny2FileWriter(Writer writer, boolean escapeNames) {
 		this.writer = writer;
 		this.escapeNames = escapeNames;
+		this.indexWriter = null;
+	}
+
+	/**
+	 * Create a writer encoding UTF-8 into {@code out} that additionally emits a {@link Tiny2Index} for the written
+	 * file to {@code indexWriter}.
+	 *
+	 * <p>The writer owns the encoding so the index' byte offsets and checksums match the output. The index is written
+	 * at {@link #visitEnd()}, {@code out} has to receive the mappings unaltered starting at offset 0.
+	 */
+	public Tiny2FileWriter(OutputStream out, boolean escapeNames, Writer indexWriter) {
+		this.writer = new ChecksummingWriter(new Utf8Writer(out));
+		this.escapeNames = escapeNames;
+		this.indexWriter = indexWriter;
+	}
+
+	/**
+	 * Whether to request and write the class, field and method count properties, allowing readers to pre-size their
+	 * storage.
+	 */
+	public void setWriteSizeHints(boolean writeSizeHints) {
+		this.writeSizeHints = writeSizeHints;
 	}
 
 	@Override
 	public void close() throws IOException {
-		writer.close();
+		try {
+			writer.close();
+		} finally {
+			if (indexWriter != null) indexWriter.close();
+		}
 	}
 
 	@Override
 	public Set<MappingFlag> getFlags() {
-		return flags;
+		if (indexWriter != null) return writeSizeHints ? indexSizeHintFlags : indexFlags;
+
+		return writeSizeHints ? sizeHintFlags : flags;
 	}
 
 	@Override
 	public void visitNamespaces(String srcNamespace, List<String> dstNamespaces) throws IOException {
 		dstNames = new String[dstNamespaces.size()];
 
+		if (indexWriter != null) {
+			namespaces = new ArrayList<>(dstNamespaces.size() + 1);
+			namespaces.add(srcNamespace);
+			namespaces.addAll(dstNamespaces);
+		}
+
 		write("tiny\t2\t0\t");
 		write(srcNamespace);
 
@@ -89,6 +128,8 @@ public final class Tiny2FileWriter implements MappingWriter {
 
 	@Override
 	public boolean visitClass(String srcName) throws IOException {
+		if (indexWriter != null) startIndexedClass(srcName);
+
 		write("c\t");
 		writeName(srcName);
 
@@ -139,6 +180,42 @@ public final class Tiny2FileWriter implements MappingWriter {
 		return true;
 	}
 
+	@Override
+	public boolean visitClass(String srcName, String[] dstNames, String comment) throws IOException {
+		visitClass(srcName);
+		if (indexWriter != null) captureClassNames(dstNames);
+
+		return writeElement(MappedElementKind.CLASS, dstNames, comment);
+	}
+
+	@Override
+	public boolean visitField(String srcName, String srcDesc, String[] dstNames, String[] dstDescs, String comment) throws IOException {
+		visitField(srcName, srcDesc);
+
+		return writeElement(MappedElementKind.FIELD, dstNames, comment);
+	}
+
+	@Override
+	public boolean visitMethod(String srcName, String srcDesc, String[] dstNames, String[] dstDescs, String comment) throws IOException {
+		visitMethod(srcName, srcDesc);
+
+		return writeElement(MappedElementKind.METHOD, dstNames, comment);
+	}
+
+	@Override
+	public boolean visitMethodArg(int argPosition, int lvIndex, String srcName, String[] dstNames, String comment) throws IOException {
+		visitMethodArg(argPosition, lvIndex, srcName);
+
+		return writeElement(MappedElementKind.METHOD_ARG, dstNames, comment);
+	}
+
+	@Override
+	public boolean visitMethodVar(int lvtRowIndex, int lvIndex, int startOpIdx, int endOpIdx, String srcName, String[] dstNames, String comment) throws IOException {
+		visitMethodVar(lvtRowIndex, lvIndex, startOpIdx, endOpIdx, srcName);
+
+		return writeElement(MappedElementKind.METHOD_VAR, dstNames, comment);
+	}
+
 	@Override
 	public void visitDstName(MappedElementKind targetKind, int namespace, String name) {
 		dstNames[namespace] = name;
@@ -146,13 +223,9 @@ public final class Tiny2FileWriter implements MappingWriter {
 
 	@Override
 	public boolean visitElementContent(MappedElementKind targetKind) throws IOException {
-		for (String dstName : dstNames) {
-			writeTab();
-			if (dstName != null) writeName(dstName);
-		}
-
-		writeLn();
+		if (indexWriter != null && targetKind == MappedElementKind.CLASS) captureClassNames(dstNames);
 
+		writeDstNames(dstNames);
 		Arrays.fill(dstNames, null);
 
 		return true;
@@ -166,6 +239,113 @@ public final class Tiny2FileWriter implements MappingWriter {
 		writeLn();
 	}
 
+	@Override
+	public boolean visitEnd() throws IOException {
+		if (indexWriter != null && namespaces != null) {
+			finishIndexedClass();
+			writeIndex();
+		}
+
+		return true;
+	}
+
+	private void startIndexedClass(String srcName) {
+		finishIndexedClass();
+
+		ChecksummingWriter checksummer = (ChecksummingWriter) writer;
+		long offset = checksummer.count;
+
+		if (headerLength < 0) {
+			headerLength = offset;
+			headerChecksum = checksummer.resetChecksum();
+		}
+
+		classOffset = offset;
+		classNames = new String[namespaces.size()];
+		classNames[0] = srcName;
+	}
+
+	private void captureClassNames(String[] names) {
+		if (classNames == null || names == null) return;
+
+		System.arraycopy(names, 0, classNames, 1, Math.min(names.length, classNames.length - 1));
+	}
+
+	private void finishIndexedClass() {
+		if (classNames == null) return;
+
+		ChecksummingWriter checksummer = (ChecksummingWriter) writer;
+		long length = checksummer.count - classOffset;
+		indexEntries.add(new Tiny2Index.Entry(classOffset, (int) length, checksummer.resetChecksum(), classNames));
+		classNames = null;
+	}
+
+	private void writeIndex() throws IOException {
+		ChecksummingWriter checksummer = (ChecksummingWriter) writer;
+		long fileLength = checksummer.count;
+
+		if (headerLength < 0) { // no classes
+			headerLength = fileLength;
+			headerChecksum = checksummer.resetChecksum();
+		}
+
+		indexWriter.write("tiny-index\t2\t0\t");
+		indexWriter.write(Long.toString(fileLength));
+		indexWriter.write('\t');
+		indexWriter.write(Long.toString(headerLength));
+		indexWriter.write('\t');
+		indexWriter.write(Long.toHexString(headerChecksum));
+
+		for (String ns : namespaces) {
+			indexWriter.write('\t');
+			indexWriter.write(ns);
+		}
+
+		indexWriter.write('\n');
+
+		for (Tiny2Index.Entry entry : indexEntries) {
+			indexWriter.write("c\t");
+			indexWriter.write(Long.toString(entry.getOffset()));
+			indexWriter.write('\t');
+			indexWriter.write(Integer.toString(entry.getLength()));
+			indexWriter.write('\t');
+			indexWriter.write(Long.toHexString(entry.getChecksum()));
+
+			for (int i = 0; i < namespaces.size(); i++) {
+				indexWriter.write('\t');
+				String name = entry.getName(i);
+				if (name != null) Tiny2Util.writeEscaped(name, indexWriter);
+			}
+
+			indexWriter.write('\n');
+		}
+
+		indexEntries.clear();
+		indexWriter.flush();
+	}
+
+	private boolean writeElement(MappedElementKind kind, String[] names, String comment) throws IOException {
+		writeDstNames(names);
+		if (comment != null) visitComment(kind, comment);
+
+		return true;
+	}
+
+	private void writeDstNames(String[] names) throws IOException {
+		int count = names != null ? Math.min(names.length, dstNames.length) : 0;
+
+		for (int i = 0; i < dstNames.length; i++) {
+			writeTab();
+
+			if (i < count) {
+				String name = names[i];
+				if (name != null) writeName(name);
+			}
+		}
+
+		writeLn();
+	}
+
 	private void write(String str) throws IOException {
 		writer.write(str);
 	}
@@ -200,10 +380,94 @@ public final class Tiny2FileWriter implements MappingWriter {
 		}
 	}
 
+	/**
+	 * Counts the UTF-8 encoded length of everything written through it and checksums the encoded bytes, mirroring
+	 * {@link Utf8Writer}.
+	 */
+	private static final class ChecksummingWriter extends FilterWriter {
+		ChecksummingWriter(Writer out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int c) throws IOException {
+			out.write(c);
+			update((char) c);
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			out.write(cbuf, off, len);
+
+			for (int i = off, end = off + len; i < end; i++) {
+				update(cbuf[i]);
+			}
+		}
+
+		@Override
+		public void write(String str, int off, int len) throws IOException {
+			out.write(str, off, len);
+
+			for (int i = off, end = off + len; i < end; i++) {
+				update(str.charAt(i));
+			}
+		}
+
+		private void update(char c) {
+			if (c < 0x80) {
+				crc.update(c);
+				count++;
+			} else if (c < 0x800) {
+				crc.update(0xc0 | c >> 6);
+				crc.update(0x80 | c & 0x3f);
+				count += 2;
+			} else if (Character.isHighSurrogate(c)) {
+				highSurrogate = c; // Utf8Writer rejects unpaired surrogates
+			} else if (Character.isLowSurrogate(c)) {
+				int cp = Character.toCodePoint(highSurrogate, c);
+				crc.update(0xf0 | cp >> 18);
+				crc.update(0x80 | cp >> 12 & 0x3f);
+				crc.update(0x80 | cp >> 6 & 0x3f);
+				crc.update(0x80 | cp & 0x3f);
+				count += 4;
+			} else {
+				crc.update(0xe0 | c >> 12);
+				crc.update(0x80 | c >> 6 & 0x3f);
+				crc.update(0x80 | c & 0x3f);
+				count += 3;
+			}
+		}
+
+		/**
+		 * Get the checksum of the bytes since the previous call.
+		 */
+		long resetChecksum() {
+			long ret = crc.getValue();
+			crc.reset();
+
+			return ret;
+		}
+
+		private final CRC32 crc = new CRC32();
+		private char highSurrogate;
+		long count;
+	}
+
 	private static final Set<MappingFlag> flags = EnumSet.of(MappingFlag.NEEDS_HEADER_METADATA, MappingFlag.NEEDS_UNIQUENESS, MappingFlag.NEEDS_SRC_FIELD_DESC, MappingFlag.NEEDS_SRC_METHOD_DESC);
+	private static final Set<MappingFlag> sizeHintFlags = EnumSet.of(MappingFlag.NEEDS_HEADER_METADATA, MappingFlag.NEEDS_UNIQUENESS, MappingFlag.NEEDS_SRC_FIELD_DESC, MappingFlag.NEEDS_SRC_METHOD_DESC, MappingFlag.WANTS_SIZE_HINTS);
+	private static final Set<MappingFlag> indexFlags = EnumSet.of(MappingFlag.NEEDS_HEADER_METADATA, MappingFlag.NEEDS_UNIQUENESS, MappingFlag.NEEDS_SRC_FIELD_DESC, MappingFlag.NEEDS_SRC_METHOD_DESC, MappingFlag.NEEDS_CONTIGUOUS_OUTPUT);
+	private static final Set<MappingFlag> indexSizeHintFlags = EnumSet.of(MappingFlag.NEEDS_HEADER_METADATA, MappingFlag.NEEDS_UNIQUENESS, MappingFlag.NEEDS_SRC_FIELD_DESC, MappingFlag.NEEDS_SRC_METHOD_DESC, MappingFlag.NEEDS_CONTIGUOUS_OUTPUT, MappingFlag.WANTS_SIZE_HINTS);
 
 	private final Writer writer;
+	private final Writer indexWriter;
 	private boolean escapeNames;
 	private boolean wroteEscapedNamesProperty;
+	private boolean writeSizeHints;
 	private String[] dstNames;
+	private List<String> namespaces;
+	private final List<Tiny2Index.Entry> indexEntries = new ArrayList<>();
+	private long headerLength = -1;
+	private long headerChecksum;
+	private long classOffset;
+	private String[] classNames;
 }
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.format.tiny;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.fabricmc.mappingio.format.ColumnFileReader;
+
+/**
+ * Sidecar index for Tiny v2 files, mapping class names in every namespace to the byte range of the class' block.
+ *
+ * <p>Written by {@link Tiny2FileWriter} if constructed with an index writer, used by
+ * {@link Tiny2FileReader#read(Path, Tiny2Index, java.util.Collection, String, net.fabricmc.mappingio.MappingVisitor)}
+ * to load select classes without scanning the whole file.
+ *
+ * <p>Format: a header line {@code tiny-index 2 0 <file-length> <header-length> <header-crc> <namespaces>...}
+ * followed by one {@code c <offset> <length> <crc> <names>...} line per class, tab separated with names escaped like
+ * Tiny v2. Checksums are hexadecimal CRC32 values of the respective byte ranges, allowing readers to detect a stale
+ * index from just the ranges they load.
+ */
+public final class Tiny2Index {
+	public static Tiny2Index read(Path file) throws IOException {
+		try (Reader reader = Files.newBufferedReader(file)) {
+			return read(reader);
+		}
+	}
+
+	public static Tiny2Index read(Reader reader) throws IOException {
+		ColumnFileReader colReader = new ColumnFileReader(reader, '\t');
+
+		if (!colReader.nextCol("tiny-index") // magic
+				|| colReader.nextIntCol() != 2 // major version
+				|| colReader.nextIntCol() < 0) { // minor version
+			throw new IOException("invalid/unsupported tiny index: no tiny-index 2 header");
+		}
+
+		long fileLength = nextLongCol(colReader);
+		long headerLength = nextLongCol(colReader);
+		long headerChecksum = nextChecksumCol(colReader);
+		List<String> namespaces = new ArrayList<>();
+		String ns;
+
+		while ((ns = colReader.nextCol()) != null) {
+			namespaces.add(ns);
+		}
+
+		if (namespaces.isEmpty()) throw new IOException("missing namespaces in tiny index header");
+
+		List<Entry> entries = new ArrayList<>();
+
+		while (colReader.nextLine(0)) {
+			if (!colReader.nextCol("c")) continue;
+
+			long offset = nextLongCol(colReader);
+			int length = (int) nextLongCol(colReader);
+			long checksum = nextChecksumCol(colReader);
+			String[] names = new String[namespaces.size()];
+
+			for (int i = 0; i < names.length; i++) {
+				String name = colReader.nextCol(true);
+				if (name == null) throw new IOException("missing name columns in line "+colReader.getLineNumber());
+
+				names[i] = name.isEmpty() ? null : name;
+			}
+
+			if (names[0] == null) throw new IOException("missing class-name-a in line "+colReader.getLineNumber());
+
+			entries.add(new Entry(offset, length, checksum, names));
+		}
+
+		return new Tiny2Index(fileLength, headerLength, headerChecksum, namespaces, entries);
+	}
+
+	private static long nextLongCol(ColumnFileReader reader) throws IOException {
+		String str = reader.nextCol();
+
+		try {
+			if (str != null) {
+				long ret = Long.parseLong(str);
+				if (ret >= 0) return ret;
+			}
+		} catch (NumberFormatException e) {
+			// handled below
+		}
+
+		throw new IOException("missing/invalid number in line "+reader.getLineNumber()+": "+str);
+	}
+
+	private static long nextChecksumCol(ColumnFileReader reader) throws IOException {
+		String str = reader.nextCol();
+
+		try {
+			if (str != null) {
+				long ret = Long.parseLong(str, 16);
+				if (ret >= 0 && ret <= 0xffffffffL) return ret;
+			}
+		} catch (NumberFormatException e) {
+			// handled below
+		}
+
+		throw new IOException("missing/invalid checksum in line "+reader.getLineNumber()+": "+str);
+	}
+
+	Tiny2Index(long fileLength, long headerLength, long headerChecksum, List<String> namespaces, List<Entry> entries) {
+		this.fileLength = fileLength;
+		this.headerLength = headerLength;
+		this.headerChecksum = headerChecksum;
+		this.namespaces = Collections.unmodifiableList(namespaces);
+		this.entries = Collections.unmodifiableList(entries);
+		@SuppressWarnings("unchecked")
+		Map<String, Entry>[] byName = new Map[namespaces.size()];
+		this.byName = byName;
+	}
+
+	/**
+	 * Get the byte length of the indexed Tiny v2 file, used to detect stale indices.
+	 */
+	public long getFileLength() {
+		return fileLength;
+	}
+
+	/**
+	 * Get the byte length of the file's header, everything before the first class.
+	 */
+	public long getHeaderLength() {
+		return headerLength;
+	}
+
+	/**
+	 * Get the CRC32 of the file's header.
+	 */
+	public long getHeaderChecksum() {
+		return headerChecksum;
+	}
+
+	/**
+	 * Get all namespaces, the src namespace first.
+	 */
+	public List<String> getNamespaces() {
+		return namespaces;
+	}
+
+	public List<Entry> getClasses() {
+		return entries;
+	}
+
+	/**
+	 * Find a class by its name in the given namespace.
+	 *
+	 * @param namespace namespace name, the src namespace if null
+	 * @return the class' entry or null if unknown
+	 */
+	public Entry getClass(String name, String namespace) {
+		int nsIdx = namespace != null ? namespaces.indexOf(namespace) : 0;
+		if (nsIdx < 0) throw new IllegalArgumentException("unknown namespace: "+namespace);
+
+		Map<String, Entry> map = byName[nsIdx];
+
+		if (map == null) {
+			map = new HashMap<>(entries.size());
+
+			for (Entry entry : entries) {
+				String entryName = entry.names[nsIdx];
+				if (entryName != null) map.putIfAbsent(entryName, entry);
+			}
+
+			byName[nsIdx] = map;
+		}
+
+		return map.get(name);
+	}
+
+	public static final class Entry {
+		Entry(long offset, int length, long checksum, String[] names) {
+			this.offset = offset;
+			this.length = length;
+			this.checksum = checksum;
+			this.names = names;
+		}
+
+		public long getOffset() {
+			return offset;
+		}
+
+		public int getLength() {
+			return length;
+		}
+
+		/**
+		 * Get the CRC32 of the class' byte range.
+		 */
+		public long getChecksum() {
+			return checksum;
+		}
+
+		/**
+		 * @param namespace namespace index, 0 for src, index into {@link Tiny2Index#getNamespaces()}
+		 */
+		public String getName(int namespace) {
+			return names[namespace];
+		}
+
+		private final long offset;
+		private final int length;
+		private final long checksum;
+		private final String[] names;
+	}
+
+	private final long fileLength;
+	private final long headerLength;
+	private final long headerChecksum;
+	private final List<String> namespaces;
+	private final List<Entry> entries;
+	private final Map<String, Entry>[] byName;
+}
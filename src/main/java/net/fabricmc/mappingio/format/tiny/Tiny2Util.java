@@ -26,6 +26,7 @@ public final class Tiny2Util {
 	public static boolean needEscape(String s) {
 		for (int pos = 0, len = s.length(); pos < len; pos++) {
 			char c = s.charAt(pos);
+			if (c >= ' ' && c != '\\') continue; // fast path, only backslash and control chars need escaping
 			if (toEscape.indexOf(c) >= 0) return true;
 		}
 
@@ -38,6 +39,8 @@ public final class Tiny2Util {
 
 		for (int pos = 0; pos < len; pos++) {
 			char c = s.charAt(pos);
+			if (c >= ' ' && c != '\\') continue;
+
 			int idx = toEscape.indexOf(c);
 
 			if (idx >= 0) {
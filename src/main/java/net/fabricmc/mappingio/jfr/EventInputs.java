@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.jfr;
+
+import java.io.FilterInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Input wrappers counting into the chars and bytes of a {@link MappingEvent.Type#READ} event.
+ */
+@ApiStatus.Internal
+public final class EventInputs {
+	public static Reader wrap(Reader reader, MappingEvent event) {
+		return new FilterReader(reader) {
+			@Override
+			public int read() throws IOException {
+				int ret = super.read();
+				if (ret >= 0) event.chars++;
+
+				return ret;
+			}
+
+			@Override
+			public int read(char[] cbuf, int off, int len) throws IOException {
+				int ret = super.read(cbuf, off, len);
+				if (ret > 0) event.chars += ret;
+
+				return ret;
+			}
+
+			@Override
+			public long skip(long n) throws IOException {
+				long ret = super.skip(n);
+				event.chars += ret;
+
+				return ret;
+			}
+		};
+	}
+
+	public static InputStream wrap(InputStream stream, MappingEvent event) {
+		return new FilterInputStream(stream) {
+			@Override
+			public int read() throws IOException {
+				int ret = super.read();
+				if (ret >= 0) event.bytes++;
+
+				return ret;
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				int ret = super.read(b, off, len);
+				if (ret > 0) event.bytes += ret;
+
+				return ret;
+			}
+
+			@Override
+			public long skip(long n) throws IOException {
+				long ret = super.skip(n);
+				event.bytes += ret;
+
+				return ret;
+			}
+		};
+	}
+}
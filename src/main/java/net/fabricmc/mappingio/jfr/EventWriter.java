@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.jfr;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Writer counting the chars passing through into a {@link MappingEvent.Type#WRITE} event, which is committed when the
+ * mapping writer closes its output or via {@link #commitEvent()}.
+ */
+@ApiStatus.Internal
+public final class EventWriter extends FilterWriter {
+	public EventWriter(Writer out, MappingEvent event) {
+		super(out);
+
+		this.event = event;
+	}
+
+	@Override
+	public void write(int c) throws IOException {
+		super.write(c);
+		event.chars++;
+	}
+
+	@Override
+	public void write(char[] cbuf, int off, int len) throws IOException {
+		super.write(cbuf, off, len);
+		event.chars += len;
+	}
+
+	@Override
+	public void write(String str, int off, int len) throws IOException {
+		super.write(str, off, len);
+		event.chars += len;
+	}
+
+	@Override
+	public void close() throws IOException {
+		super.close();
+		commitEvent();
+	}
+
+	/**
+	 * Commit the event unless that already happened, for outputs that may remain open.
+	 */
+	public void commitEvent() {
+		if (!committed) {
+			committed = true;
+			event.commit();
+		}
+	}
+
+	private final MappingEvent event;
+	private boolean committed;
+}
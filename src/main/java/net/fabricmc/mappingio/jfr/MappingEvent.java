@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.jfr;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import net.fabricmc.mappingio.adapter.MetricsMappingVisitor;
+
+/**
+ * Java Flight Recorder event handle, usable from Java 8 code.
+ *
+ * <p>{@link #begin} returns null if JFR isn't available or the event type isn't enabled, callers should skip all
+ * event related work in that case. The actual JFR integration is only present in the Java 11+ part of the
+ * multi-release jar.
+ *
+ * <p>Events are recorded through hooks in the readers and writers' IO, the visitors passed in or returned are never
+ * replaced by instrumented variants.
+ */
+@ApiStatus.Internal
+public final class MappingEvent {
+	/**
+	 * Start timing an event.
+	 *
+	 * @return the started event or null if it won't be recorded
+	 */
+	@Nullable
+	public static MappingEvent begin(Type type) {
+		if (SUPPRESSION.get()[0] > 0) return null;
+
+		Object handle = EventSink.begin(type);
+
+		return handle != null ? new MappingEvent(type, handle) : null;
+	}
+
+	private MappingEvent(Type type, Object handle) {
+		this.type = type;
+		this.handle = handle;
+	}
+
+	/**
+	 * Stop beginning events on the current thread until the matching {@link #endSuppression()}, for nested work
+	 * already covered by an enclosing event.
+	 */
+	public static void beginSuppression() {
+		SUPPRESSION.get()[0]++;
+	}
+
+	public static void endSuppression() {
+		SUPPRESSION.get()[0]--;
+	}
+
+	/**
+	 * End timing the event and record it with the payload fields' current values.
+	 */
+	public void commit() {
+		EventSink.commit(this);
+	}
+
+	public enum Type {
+		/**
+		 * Pass through a {@link MetricsMappingVisitor}.
+		 */
+		VISIT,
+		/**
+		 * {@link net.fabricmc.mappingio.MappingReader#read} invocation, uses format, path, chars and bytes.
+		 */
+		READ,
+		/**
+		 * {@link net.fabricmc.mappingio.MappingWriter} lifetime from creation to closing its output, uses format, path
+		 * (file and directory targets) and chars.
+		 */
+		WRITE,
+		/**
+		 * {@link net.fabricmc.mappingio.tree.MemoryMappingTree#visitEnd}, uses classes, pendingMembers and
+		 * propagatedMethods.
+		 */
+		TREE_VISIT_END,
+		/**
+		 * {@link net.fabricmc.mappingio.tree.ClassAnalysisDescCompleter#process}, uses path, classes (class files),
+		 * fields and methods (completed descriptors) and bytes.
+		 */
+		DESC_COMPLETION
+	}
+
+	private static final ThreadLocal<int[]> SUPPRESSION = ThreadLocal.withInitial(() -> new int[1]);
+
+	public final Type type;
+	final Object handle;
+
+	public String format;
+	public String path;
+	public long classes;
+	public long fields;
+	public long methods;
+	public long args;
+	public long vars;
+	public long chars;
+	public long bytes;
+	public long pendingMembers;
+	public long propagatedMethods;
+}
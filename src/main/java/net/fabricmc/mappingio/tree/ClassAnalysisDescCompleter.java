@@ -17,6 +17,7 @@
 package net.fabricmc.mappingio.tree;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.ByteBuffer;
@@ -30,7 +31,10 @@ import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collections;
+import java.util.Enumeration;
 import java.util.Locale;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
@@ -38,12 +42,14 @@ import org.objectweb.asm.FieldVisitor;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 
+import net.fabricmc.mappingio.jfr.MappingEvent;
 import net.fabricmc.mappingio.tree.MappingTree.ClassMapping;
 import net.fabricmc.mappingio.tree.MappingTree.FieldMapping;
 import net.fabricmc.mappingio.tree.MappingTree.MethodMapping;
 
 public final class ClassAnalysisDescCompleter {
 	public static void process(Path path, String namespace, MappingTree mappingTree) throws IOException {
+		MappingEvent event = MappingEvent.begin(MappingEvent.Type.DESC_COMPLETION);
 		AnalyzingVisitor visitor = new AnalyzingVisitor(namespace, mappingTree);
 
 		if (Files.isDirectory(path)) {
@@ -51,6 +57,15 @@ public final class ClassAnalysisDescCompleter {
 		} else {
 			processFile(path, null, visitor);
 		}
+
+		if (event != null) {
+			event.path = path.toString();
+			event.classes = visitor.classFiles;
+			event.fields = visitor.completedFields;
+			event.methods = visitor.completedMethods;
+			event.bytes = visitor.bytes;
+			event.commit();
+		}
 	}
 
 	private static final class DirVisitor extends SimpleFileVisitor<Path> {
@@ -73,7 +88,22 @@ public final class ClassAnalysisDescCompleter {
 	private static ByteBuffer processFile(Path file, ByteBuffer buffer, AnalyzingVisitor visitor) throws IOException {
 		String fileName = file.getFileName().toString().toLowerCase(Locale.ENGLISH);
 
-		if (fileName.endsWith(".jar")) {
+		if (fileName.endsWith(".jar") && file.getFileSystem() == FileSystems.getDefault()) {
+			// ZipFile only reads the central directory up front, much cheaper than mounting a zip file system
+			try (ZipFile zip = new ZipFile(file.toFile())) {
+				for (Enumeration<? extends ZipEntry> it = zip.entries(); it.hasMoreElements(); ) {
+					ZipEntry entry = it.nextElement();
+					if (entry.isDirectory() || !entry.getName().toLowerCase(Locale.ENGLISH).endsWith(".class")) continue;
+
+					try (InputStream in = zip.getInputStream(entry)) {
+						buffer = readEntry(in, entry.getSize(), buffer);
+					}
+
+					processClass(buffer.array(), 0, buffer.position(), visitor);
+					buffer.clear();
+				}
+			}
+		} else if (fileName.endsWith(".jar")) {
 			URI uri = file.toUri();
 
 			try {
@@ -125,6 +155,28 @@ public final class ClassAnalysisDescCompleter {
 		return buffer;
 	}
 
+	private static ByteBuffer readEntry(InputStream in, long size, ByteBuffer buffer) throws IOException {
+		if (buffer == null) buffer = ByteBuffer.allocate((int) Math.min(Math.max(size, 8191) + 1, 100_000_000));
+		byte[] data = buffer.array();
+		int pos = 0;
+		int len;
+
+		while ((len = in.read(data, pos, data.length - pos)) >= 0) {
+			pos += len;
+
+			if (pos == data.length) {
+				ByteBuffer newBuffer = ByteBuffer.allocate(data.length * 2);
+				newBuffer.put(data);
+				buffer = newBuffer;
+				data = buffer.array();
+			}
+		}
+
+		buffer.position(pos);
+
+		return buffer;
+	}
+
 	public static void processClass(byte[] classBytes, String namespace, MappingTree mappingTree) {
 		processClass(classBytes, 0, classBytes.length, new AnalyzingVisitor(namespace, mappingTree));
 	}
@@ -136,6 +188,8 @@ public final class ClassAnalysisDescCompleter {
 	private static void processClass(byte[] classBytes, int offset, int length, AnalyzingVisitor visitor) {
 		ClassReader reader = new ClassReader(classBytes, offset, length);
 		reader.accept(visitor, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG);
+		visitor.classFiles++;
+		visitor.bytes += length;
 	}
 
 	private static final class AnalyzingVisitor extends ClassVisitor {
@@ -160,6 +214,7 @@ public final class ClassAnalysisDescCompleter {
 
 				if (field != null && field.getSrcDesc() == null) {
 					field.setSrcDesc(mappingTree.mapDesc(descriptor, namespace, MappingTreeView.SRC_NAMESPACE_ID));
+					completedFields++;
 				}
 			}
 
@@ -173,6 +228,7 @@ public final class ClassAnalysisDescCompleter {
 
 				if (method != null && method.getSrcDesc() == null) {
 					method.setSrcDesc(mappingTree.mapDesc(descriptor, namespace, MappingTreeView.SRC_NAMESPACE_ID));
+					completedMethods++;
 				}
 			}
 
@@ -182,5 +238,9 @@ public final class ClassAnalysisDescCompleter {
 		private final int namespace;
 		private final MappingTree mappingTree;
 		private ClassMapping cls;
+		int classFiles;
+		int completedFields;
+		int completedMethods;
+		long bytes;
 	}
 }
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.tree;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import net.fabricmc.mappingio.tree.MemoryMappingTree.ClassEntry;
+
+/**
+ * Interns the class names referenced by descriptors into int IDs to map descriptors without re-parsing them.
+ *
+ * <p>An {@link EncodedDesc} consists of the descriptor's skeleton, which is the descriptor with all class names
+ * removed ({@code (Ljava/lang/String;I)V} becomes {@code (L;I)V}), and the IDs of the removed names. Each ID is linked
+ * to the tree's class with that src name if present, so mapping it to any namespace is an array lookup.
+ *
+ * <p>Encoding is synchronized to allow concurrent use from parallel visits, mapping relies on the encoded descriptor
+ * having been safely published.
+ */
+final class DescSymbolTable {
+	DescSymbolTable(MemoryMappingTree tree) {
+		this.tree = tree;
+	}
+
+	/**
+	 * @return the encoded descriptor, or null if it is malformed
+	 */
+	synchronized EncodedDesc encode(String desc) {
+		int classCount = 0;
+
+		for (int i = 0, max = desc.length(); i < max; i++) {
+			if (desc.charAt(i) == 'L') {
+				int end = desc.indexOf(';', i + 1);
+				if (end < 0) return null;
+
+				classCount++;
+				i = end;
+			}
+		}
+
+		if (classCount == 0) return new EncodedDesc(desc, internSkeleton(desc), NO_IDS);
+
+		StringBuilder skeleton = new StringBuilder(classCount * 2 + 8);
+		int[] ids = new int[classCount];
+		int classIdx = 0;
+
+		for (int i = 0, max = desc.length(); i < max; i++) {
+			char c = desc.charAt(i);
+			skeleton.append(c);
+
+			if (c == 'L') {
+				int end = desc.indexOf(';', i + 1);
+				ids[classIdx++] = intern(desc.substring(i + 1, end));
+				i = end - 1;
+			}
+		}
+
+		return new EncodedDesc(desc, internSkeleton(skeleton.toString()), ids);
+	}
+
+	/**
+	 * Map an encoded descriptor to a dst namespace, returning the src descriptor if no class name changes.
+	 */
+	String map(EncodedDesc desc, int namespace) {
+		if (desc.ids.length == 0) return desc.desc;
+
+		String[] names = this.names;
+		ClassEntry[] classes = this.classes;
+		String skeleton = desc.skeleton;
+		StringBuilder ret = null;
+		int classIdx = 0;
+		int srcPos = 0; // position in the src descriptor, only tracked until the first changed name
+		int copyOffset = 0; // skeleton position up to which ret is complete
+
+		for (int i = 0, max = skeleton.length(); i < max; i++) {
+			srcPos++;
+			if (skeleton.charAt(i) != 'L') continue;
+
+			int id = desc.ids[classIdx++];
+			String name = names[id];
+			String mappedName = mapName(classes[id], name, namespace);
+
+			if (ret != null) {
+				ret.append(skeleton, copyOffset, i + 1).append(mappedName);
+				copyOffset = i + 1;
+			} else if (!mappedName.equals(name)) {
+				ret = new StringBuilder(desc.desc.length() + 16);
+				ret.append(desc.desc, 0, srcPos).append(mappedName);
+				copyOffset = i + 1;
+			}
+
+			srcPos += name.length();
+		}
+
+		if (ret == null) return desc.desc;
+
+		return ret.append(skeleton, copyOffset, skeleton.length()).toString();
+	}
+
+	/**
+	 * Check whether an encoded descriptor maps to {@code desc} in the given namespace without building the mapped
+	 * descriptor.
+	 *
+	 * @param prefix whether {@code desc} only has to be a prefix ending after a method's argument list
+	 */
+	boolean matches(EncodedDesc encoded, String desc, int namespace, boolean prefix) {
+		String[] names = this.names;
+		ClassEntry[] classes = this.classes;
+		String skeleton = encoded.skeleton;
+		int descLen = desc.length();
+		int pos = 0;
+		int classIdx = 0;
+
+		for (int i = 0, max = skeleton.length(); i < max; i++) {
+			if (pos == descLen) return prefix;
+
+			char c = skeleton.charAt(i);
+			if (desc.charAt(pos++) != c) return false;
+
+			if (c == 'L') {
+				int id = encoded.ids[classIdx++];
+				String mappedName = mapName(classes[id], names[id], namespace);
+				int len = mappedName.length();
+
+				if (!desc.regionMatches(pos, mappedName, 0, len)) return false;
+
+				pos += len;
+			}
+		}
+
+		return pos == descLen;
+	}
+
+	void onClassAdded(ClassEntry cls) {
+		Integer id = ids.get(cls.getSrcName());
+		if (id != null) classes[id] = cls;
+	}
+
+	void onClassRemoved(String srcName) {
+		Integer id = ids.get(srcName);
+		if (id != null) classes[id] = null;
+	}
+
+	private static String mapName(ClassEntry cls, String name, int namespace) {
+		if (cls == null) return name;
+
+		String ret = cls.getDstName(namespace);
+
+		return ret != null ? ret : name;
+	}
+
+	private int intern(String name) {
+		Integer ret = ids.get(name);
+		if (ret != null) return ret;
+
+		int id = size++;
+		String[] names = this.names;
+		ClassEntry[] classes = this.classes;
+
+		if (id == names.length) {
+			names = Arrays.copyOf(names, id * 2);
+			classes = Arrays.copyOf(classes, id * 2);
+		}
+
+		names[id] = name;
+		classes[id] = (ClassEntry) tree.getClass(name);
+		ids.put(name, id);
+
+		// publish the possibly grown arrays after filling them
+		this.classes = classes;
+		this.names = names;
+
+		return id;
+	}
+
+	private String internSkeleton(String skeleton) {
+		String ret = skeletons.putIfAbsent(skeleton, skeleton);
+
+		return ret != null ? ret : skeleton;
+	}
+
+	static final class EncodedDesc {
+		EncodedDesc(String desc, String skeleton, int[] ids) {
+			this.desc = desc;
+			this.skeleton = skeleton;
+			this.ids = ids;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this) return true;
+			if (!(obj instanceof EncodedDesc)) return false;
+
+			EncodedDesc o = (EncodedDesc) obj;
+
+			return skeleton.equals(o.skeleton) && Arrays.equals(ids, o.ids);
+		}
+
+		@Override
+		public int hashCode() {
+			return skeleton.hashCode() * 31 + Arrays.hashCode(ids);
+		}
+
+		/**
+		 * Source descriptor, to detect whether the encoded form is still current.
+		 */
+		final String desc;
+		final String skeleton;
+		final int[] ids;
+	}
+
+	private static final int[] NO_IDS = new int[0];
+
+	private final MemoryMappingTree tree;
+	private final Map<String, Integer> ids = new HashMap<>();
+	private final Map<String, String> skeletons = new HashMap<>();
+	private int size;
+	private volatile String[] names = new String[64];
+	private volatile ClassEntry[] classes = new ClassEntry[64];
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.tree;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import net.fabricmc.mappingio.MappedElementKind;
+import net.fabricmc.mappingio.MappingVisitor;
+import net.fabricmc.mappingio.tree.MappingTreeView.ClassMappingView;
+import net.fabricmc.mappingio.tree.MappingTreeView.ElementMappingView;
+import net.fabricmc.mappingio.tree.MappingTreeView.FieldMappingView;
+import net.fabricmc.mappingio.tree.MappingTreeView.MemberMappingView;
+import net.fabricmc.mappingio.tree.MappingTreeView.MethodArgMappingView;
+import net.fabricmc.mappingio.tree.MappingTreeView.MethodMappingView;
+import net.fabricmc.mappingio.tree.MappingTreeView.MethodVarMappingView;
+
+/**
+ * Composes two mapping trees sharing a namespace, e.g. {@code A -> B} and {@code B -> C} into {@code A -> B -> C}.
+ *
+ * <p>The result keeps the first tree's namespaces and appends the second tree's other namespaces. Every element of
+ * the first tree is joined with the second tree's element carrying the same name in the join namespace, members
+ * additionally by their descriptor remapped to it. Names missing in the join namespace fall back to the src name,
+ * matching how unmapped names are treated elsewhere. Elements only present in the second tree have no name in the
+ * first tree's src namespace and are skipped.
+ *
+ * <p>The second tree is indexed by join namespace names up front, classes are then joined in parallel.
+ */
+public final class MappingComposer {
+	/**
+	 * Compose two trees on the first namespace of {@code second} that is also present in {@code first}.
+	 */
+	public static MemoryMappingTree compose(MappingTreeView first, MappingTreeView second) throws IOException {
+		return compose(first, second, findJoinNamespace(first, second));
+	}
+
+	public static MemoryMappingTree compose(MappingTreeView first, MappingTreeView second, String joinNamespace) throws IOException {
+		MemoryMappingTree ret = new MemoryMappingTree();
+		compose(first, second, joinNamespace, ret);
+
+		return ret;
+	}
+
+	public static void compose(MappingTreeView first, MappingTreeView second, String joinNamespace, MappingVisitor visitor) throws IOException {
+		new MappingComposer(first, second, joinNamespace).accept(visitor);
+	}
+
+	private static String findJoinNamespace(MappingTreeView first, MappingTreeView second) {
+		if (first.getNamespaceId(second.getSrcNamespace()) != MappingTreeView.NULL_NAMESPACE_ID) return second.getSrcNamespace();
+
+		for (String ns : second.getDstNamespaces()) {
+			if (first.getNamespaceId(ns) != MappingTreeView.NULL_NAMESPACE_ID) return ns;
+		}
+
+		throw new IllegalArgumentException("trees don't share a namespace");
+	}
+
+	private MappingComposer(MappingTreeView first, MappingTreeView second, String joinNamespace) {
+		this.first = first;
+		this.second = second;
+		this.firstJoinId = first.getNamespaceId(joinNamespace);
+		this.secondJoinId = second.getNamespaceId(joinNamespace);
+
+		if (firstJoinId == MappingTreeView.NULL_NAMESPACE_ID || secondJoinId == MappingTreeView.NULL_NAMESPACE_ID) {
+			throw new IllegalArgumentException("join namespace "+joinNamespace+" isn't present in both trees");
+		}
+
+		dstNamespaces = new ArrayList<>(first.getDstNamespaces());
+		List<Integer> secondIds = new ArrayList<>();
+
+		for (int id = second.getMinNamespaceId(); id < second.getMaxNamespaceId(); id++) {
+			String ns = second.getNamespaceName(id);
+
+			if (id != secondJoinId && !ns.equals(first.getSrcNamespace()) && !dstNamespaces.contains(ns)) {
+				dstNamespaces.add(ns);
+				secondIds.add(id);
+			}
+		}
+
+		firstDstCount = first.getDstNamespaces().size();
+		secondNsIds = new int[secondIds.size()];
+
+		for (int i = 0; i < secondNsIds.length; i++) {
+			secondNsIds[i] = secondIds.get(i);
+		}
+
+		secondClasses = new HashMap<>(second.getClasses().size());
+
+		for (ClassMappingView cls : second.getClasses()) {
+			secondClasses.putIfAbsent(joinName(cls, secondJoinId), cls);
+		}
+	}
+
+	private void accept(MappingVisitor visitor) throws IOException {
+		List<Composed> classes = new ArrayList<>(first.getClasses()).parallelStream()
+				.map(this::composeClass)
+				.collect(Collectors.toList());
+
+		do {
+			if (visitor.visitHeader()) {
+				visitor.visitNamespaces(first.getSrcNamespace(), dstNamespaces);
+			}
+
+			if (visitor.visitContent()) {
+				for (Composed cls : classes) {
+					if (visitor.visitClass(cls.srcName, cls.dstNames, cls.comment)) {
+						for (Composed member : cls.children) {
+							visitMember(visitor, member);
+						}
+					}
+				}
+			}
+		} while (!visitor.visitEnd());
+	}
+
+	private static void visitMember(MappingVisitor visitor, Composed member) throws IOException {
+		if (member.kind == MappedElementKind.FIELD) {
+			visitor.visitField(member.srcName, member.srcDesc, member.dstNames, null, member.comment);
+			return;
+		}
+
+		if (!visitor.visitMethod(member.srcName, member.srcDesc, member.dstNames, null, member.comment)) return;
+
+		for (Composed local : member.children) {
+			if (local.kind == MappedElementKind.METHOD_ARG) {
+				visitor.visitMethodArg(local.argPosition, local.lvIndex, local.srcName, local.dstNames, local.comment);
+			} else {
+				visitor.visitMethodVar(local.lvtRowIndex, local.lvIndex, local.startOpIdx, local.endOpIdx, local.srcName, local.dstNames, local.comment);
+			}
+		}
+	}
+
+	private Composed composeClass(ClassMappingView cls) {
+		ClassMappingView other = secondClasses.get(joinName(cls, firstJoinId));
+		Composed ret = new Composed(MappedElementKind.CLASS, cls, other);
+		if (cls.getFields().isEmpty() && cls.getMethods().isEmpty()) return ret;
+
+		Map<String, MemberMappingView> otherMembers = other != null ? indexMembers(other) : Collections.emptyMap();
+		ret.children = new ArrayList<>(cls.getFields().size() + cls.getMethods().size());
+
+		for (FieldMappingView field : cls.getFields()) {
+			ret.children.add(new Composed(MappedElementKind.FIELD, field, findMember(field, otherMembers, 'f')));
+		}
+
+		for (MethodMappingView method : cls.getMethods()) {
+			MethodMappingView otherMethod = (MethodMappingView) findMember(method, otherMembers, 'm');
+			Composed composed = new Composed(MappedElementKind.METHOD, method, otherMethod);
+			ret.children.add(composed);
+
+			if (method.getArgs().isEmpty() && method.getVars().isEmpty()) continue;
+
+			composed.children = new ArrayList<>(method.getArgs().size() + method.getVars().size());
+
+			for (MethodArgMappingView arg : method.getArgs()) {
+				MethodArgMappingView otherArg = otherMethod != null ? otherMethod.getArg(arg.getArgPosition(), arg.getLvIndex(), null) : null;
+				composed.children.add(new Composed(MappedElementKind.METHOD_ARG, arg, otherArg));
+			}
+
+			for (MethodVarMappingView var : method.getVars()) {
+				MethodVarMappingView otherVar = otherMethod != null ? otherMethod.getVar(var.getLvtRowIndex(), var.getLvIndex(), var.getStartOpIdx(), var.getEndOpIdx(), null) : null;
+				composed.children.add(new Composed(MappedElementKind.METHOD_VAR, var, otherVar));
+			}
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Index a second tree class' members by kind, join namespace name and join namespace desc, additionally by kind
+	 * and name alone for looking up members without desc. Members without desc take precedence for the latter, they
+	 * also serve as fallback for members with desc, e.g. fields from SRG files.
+	 */
+	private Map<String, MemberMappingView> indexMembers(ClassMappingView cls) {
+		Map<String, MemberMappingView> ret = new HashMap<>((cls.getFields().size() + cls.getMethods().size()) * 4);
+
+		for (FieldMappingView field : cls.getFields()) {
+			indexMember(field, 'f', ret);
+		}
+
+		for (MethodMappingView method : cls.getMethods()) {
+			indexMember(method, 'm', ret);
+		}
+
+		return ret;
+	}
+
+	private void indexMember(MemberMappingView member, char kind, Map<String, MemberMappingView> out) {
+		String name = joinName(member, secondJoinId);
+		String desc = member.getDesc(secondJoinId);
+		if (desc != null) {
+			out.putIfAbsent(kind+name+desc, member);
+			out.putIfAbsent(kind+name, member);
+		} else {
+			MemberMappingView prev = out.get(kind+name);
+			if (prev == null || prev.getDesc(secondJoinId) != null) out.put(kind+name, member);
+		}
+	}
+
+	private MemberMappingView findMember(MemberMappingView member, Map<String, MemberMappingView> otherMembers, char kind) {
+		if (otherMembers.isEmpty()) return null;
+
+		String name = joinName(member, firstJoinId);
+		String desc = member.getDesc(firstJoinId);
+
+		if (desc == null) return otherMembers.get(kind+name);
+
+		MemberMappingView ret = otherMembers.get(kind+name+desc);
+		if (ret != null) return ret;
+
+		ret = otherMembers.get(kind+name);
+
+		return ret != null && ret.getDesc(secondJoinId) == null ? ret : null;
+	}
+
+	private static String joinName(ElementMappingView element, int namespace) {
+		String ret = element.getName(namespace);
+
+		return ret != null ? ret : element.getSrcName();
+	}
+
+	/**
+	 * Joined element data, names indexed like the result's dst namespaces.
+	 */
+	private final class Composed {
+		Composed(MappedElementKind kind, ElementMappingView element, ElementMappingView other) {
+			this.kind = kind;
+			this.srcName = element.getSrcName();
+			this.dstNames = new String[dstNamespaces.size()];
+
+			for (int i = 0; i < firstDstCount; i++) {
+				dstNames[i] = element.getDstName(i);
+			}
+
+			if (other != null) {
+				for (int i = 0; i < secondNsIds.length; i++) {
+					dstNames[firstDstCount + i] = other.getName(secondNsIds[i]);
+				}
+			}
+
+			String comment = element.getComment();
+			this.comment = comment != null || other == null ? comment : other.getComment();
+
+			if (element instanceof MemberMappingView) {
+				srcDesc = ((MemberMappingView) element).getSrcDesc();
+			} else if (element instanceof MethodArgMappingView) {
+				MethodArgMappingView arg = (MethodArgMappingView) element;
+				argPosition = arg.getArgPosition();
+				lvIndex = arg.getLvIndex();
+			} else if (element instanceof MethodVarMappingView) {
+				MethodVarMappingView var = (MethodVarMappingView) element;
+				lvtRowIndex = var.getLvtRowIndex();
+				lvIndex = var.getLvIndex();
+				startOpIdx = var.getStartOpIdx();
+				endOpIdx = var.getEndOpIdx();
+			}
+		}
+
+		final MappedElementKind kind;
+		final String srcName;
+		final String[] dstNames;
+		final String comment;
+		String srcDesc;
+		int argPosition;
+		int lvIndex;
+		int lvtRowIndex;
+		int startOpIdx;
+		int endOpIdx;
+		List<Composed> children = Collections.emptyList();
+	}
+
+	private final MappingTreeView first;
+	private final MappingTreeView second;
+	private final int firstJoinId;
+	private final int secondJoinId;
+	private final List<String> dstNamespaces;
+	private final int firstDstCount;
+	private final int[] secondNsIds;
+	private final Map<String, ClassMappingView> secondClasses;
+}
@@ -0,0 +1,555 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.tree;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import net.fabricmc.mappingio.MappedElementKind;
+import net.fabricmc.mappingio.MappingVisitor;
+import net.fabricmc.mappingio.tree.MappingTreeView.ClassMappingView;
+import net.fabricmc.mappingio.tree.MappingTreeView.ElementMappingView;
+import net.fabricmc.mappingio.tree.MappingTreeView.FieldMappingView;
+import net.fabricmc.mappingio.tree.MappingTreeView.MemberMappingView;
+import net.fabricmc.mappingio.tree.MappingTreeView.MethodArgMappingView;
+import net.fabricmc.mappingio.tree.MappingTreeView.MethodMappingView;
+import net.fabricmc.mappingio.tree.MappingTreeView.MethodVarMappingView;
+
+/**
+ * Differences between two mapping trees sharing the same src namespace.
+ *
+ * <p>Elements are aligned by their src key: src name for classes, src name and descriptor for members, argument
+ * position or lv index for args and the lv/lvt indices for vars. Dst namespaces are aligned by name, a namespace
+ * missing on one side compares as all names missing. Classes are compared independently and optionally in parallel.
+ *
+ * <p>The changes are ordered by class, within a class by element, parents before their children. An added element
+ * is followed by the changes introducing its names, comment and children, a removed element implies the removal of
+ * its children.
+ */
+public final class MappingDiff {
+	public static MappingDiff compute(MappingTreeView oldTree, MappingTreeView newTree) {
+		return compute(oldTree, newTree, true);
+	}
+
+	public static MappingDiff compute(MappingTreeView oldTree, MappingTreeView newTree, boolean parallel) {
+		if (!oldTree.getSrcNamespace().equals(newTree.getSrcNamespace())) {
+			throw new IllegalArgumentException("src namespace mismatch: "+oldTree.getSrcNamespace()+" vs "+newTree.getSrcNamespace());
+		}
+
+		MappingDiff ret = new MappingDiff(oldTree, newTree);
+		List<ClassMappingView[]> pairs = new ArrayList<>(newTree.getClasses().size());
+
+		for (ClassMappingView cls : newTree.getClasses()) {
+			pairs.add(new ClassMappingView[] { oldTree.getClass(cls.getSrcName()), cls });
+		}
+
+		for (ClassMappingView cls : oldTree.getClasses()) {
+			if (newTree.getClass(cls.getSrcName()) == null) pairs.add(new ClassMappingView[] { cls, null });
+		}
+
+		Stream<ClassMappingView[]> stream = parallel ? pairs.parallelStream() : pairs.stream();
+		List<List<Change>> results = stream.map(pair -> ret.diffClass(pair[0], pair[1])).collect(Collectors.toList());
+		List<Change> changes = new ArrayList<>();
+
+		for (List<Change> result : results) {
+			changes.addAll(result);
+		}
+
+		ret.changes = Collections.unmodifiableList(changes);
+
+		return ret;
+	}
+
+	private MappingDiff(MappingTreeView oldTree, MappingTreeView newTree) {
+		this.oldTree = oldTree;
+		this.newTree = newTree;
+		this.srcNamespace = newTree.getSrcNamespace();
+
+		List<String> namespaces = new ArrayList<>(newTree.getDstNamespaces());
+
+		for (String ns : oldTree.getDstNamespaces()) {
+			if (!namespaces.contains(ns)) namespaces.add(ns);
+		}
+
+		this.namespaces = Collections.unmodifiableList(namespaces);
+		this.oldNsIds = new int[namespaces.size()];
+		this.newNsIds = new int[namespaces.size()];
+
+		for (int i = 0; i < namespaces.size(); i++) {
+			oldNsIds[i] = oldTree.getNamespaceId(namespaces.get(i));
+			newNsIds[i] = newTree.getNamespaceId(namespaces.get(i));
+		}
+	}
+
+	public MappingTreeView getOldTree() {
+		return oldTree;
+	}
+
+	public MappingTreeView getNewTree() {
+		return newTree;
+	}
+
+	public String getSrcNamespace() {
+		return srcNamespace;
+	}
+
+	/**
+	 * Get the compared dst namespaces, those of the new tree followed by those only present in the old tree.
+	 */
+	public List<String> getDstNamespaces() {
+		return namespaces;
+	}
+
+	public List<Change> getChanges() {
+		return changes;
+	}
+
+	public boolean isEmpty() {
+		return changes.isEmpty();
+	}
+
+	/**
+	 * Visit all changed elements side by side.
+	 *
+	 * <p>Every compared dst namespace {@code ns} becomes the two dst namespaces {@code old:ns} and {@code new:ns}.
+	 * Changed elements are visited once with all their names from both trees and the new comment, or the old one if
+	 * removed. Unchanged parents are visited for context only.
+	 */
+	public void accept(MappingVisitor visitor) throws IOException {
+		List<String> dstNamespaces = new ArrayList<>(namespaces.size() * 2);
+
+		for (String ns : namespaces) {
+			dstNamespaces.add(OLD_NS_PREFIX+ns);
+			dstNamespaces.add(NEW_NS_PREFIX+ns);
+		}
+
+		do {
+			if (visitor.visitHeader()) {
+				visitor.visitNamespaces(srcNamespace, dstNamespaces);
+			}
+
+			if (visitor.visitContent()) {
+				Change prev = null;
+				boolean visitClass = false;
+				boolean visitMember = false;
+
+				for (Change change : changes) {
+					if (prev != null && change.isSameElement(prev)) continue;
+
+					boolean enterClass = prev == null || !change.className.equals(prev.className);
+					boolean enterMember = enterClass || change.kind != MappedElementKind.CLASS && !change.isSameMember(prev);
+					prev = change;
+
+					if (enterClass) {
+						visitClass = visitor.visitClass(change.className)
+								&& visitElement(visitor, MappedElementKind.CLASS, oldTree.getClass(change.className), newTree.getClass(change.className));
+					}
+
+					if (!visitClass || change.kind == MappedElementKind.CLASS) continue;
+
+					if (enterMember) {
+						MemberMappingView oldMember = getMember(oldTree, change);
+						MemberMappingView newMember = getMember(newTree, change);
+
+						if (change.isField()) {
+							visitMember = visitor.visitField(change.memberName, change.memberDesc)
+									&& visitElement(visitor, MappedElementKind.FIELD, oldMember, newMember);
+						} else {
+							visitMember = visitor.visitMethod(change.memberName, change.memberDesc)
+									&& visitElement(visitor, MappedElementKind.METHOD, oldMember, newMember);
+						}
+					}
+
+					if (!visitMember) continue;
+
+					if (change.kind == MappedElementKind.METHOD_ARG) {
+						if (visitor.visitMethodArg(change.argPosition, change.lvIndex, change.getLocalSrcName())) {
+							visitElement(visitor, change.kind, change.oldElement, change.newElement);
+						}
+					} else if (change.kind == MappedElementKind.METHOD_VAR) {
+						if (visitor.visitMethodVar(change.lvtRowIndex, change.lvIndex, change.startOpIdx, change.endOpIdx, change.getLocalSrcName())) {
+							visitElement(visitor, change.kind, change.oldElement, change.newElement);
+						}
+					}
+				}
+			}
+		} while (!visitor.visitEnd());
+	}
+
+	private boolean visitElement(MappingVisitor visitor, MappedElementKind kind, ElementMappingView oldElement, ElementMappingView newElement) throws IOException {
+		for (int i = 0; i < namespaces.size(); i++) {
+			String oldName = getName(oldElement, oldNsIds[i]);
+			String newName = getName(newElement, newNsIds[i]);
+			if (oldName != null) visitor.visitDstName(kind, i * 2, oldName);
+			if (newName != null) visitor.visitDstName(kind, i * 2 + 1, newName);
+		}
+
+		if (!visitor.visitElementContent(kind)) return false;
+
+		String comment = newElement != null ? newElement.getComment() : oldElement != null ? oldElement.getComment() : null;
+		if (comment != null) visitor.visitComment(kind, comment);
+
+		return true;
+	}
+
+	private static MemberMappingView getMember(MappingTreeView tree, Change change) {
+		ClassMappingView cls = tree.getClass(change.className);
+		if (cls == null) return null;
+
+		return change.isField() ? cls.getField(change.memberName, change.memberDesc) : cls.getMethod(change.memberName, change.memberDesc);
+	}
+
+	private List<Change> diffClass(ClassMappingView oldCls, ClassMappingView newCls) {
+		List<Change> ret = new ArrayList<>();
+		if (!diffElement(MappedElementKind.CLASS, oldCls, newCls, ret)) return ret;
+
+		// removals first so a patch never sees an added element colliding with a stale one
+
+		if (oldCls != null) {
+			for (FieldMappingView field : oldCls.getFields()) {
+				if (newCls.getField(field.getSrcName(), field.getSrcDesc()) == null) diffElement(MappedElementKind.FIELD, field, null, ret);
+			}
+
+			for (MethodMappingView method : oldCls.getMethods()) {
+				if (newCls.getMethod(method.getSrcName(), method.getSrcDesc()) == null) diffElement(MappedElementKind.METHOD, method, null, ret);
+			}
+		}
+
+		for (FieldMappingView field : newCls.getFields()) {
+			diffElement(MappedElementKind.FIELD, oldCls != null ? oldCls.getField(field.getSrcName(), field.getSrcDesc()) : null, field, ret);
+		}
+
+		for (MethodMappingView method : newCls.getMethods()) {
+			diffMethod(oldCls != null ? oldCls.getMethod(method.getSrcName(), method.getSrcDesc()) : null, method, ret);
+		}
+
+		return ret;
+	}
+
+	private void diffMethod(MethodMappingView oldMethod, MethodMappingView newMethod, List<Change> out) {
+		if (!diffElement(MappedElementKind.METHOD, oldMethod, newMethod, out)) return;
+
+		// args and vars are looked up leniently, only exact key matches count as the same element
+
+		if (oldMethod != null) {
+			for (MethodArgMappingView arg : oldMethod.getArgs()) {
+				if (!isSameArg(arg, newMethod.getArg(arg.getArgPosition(), arg.getLvIndex(), arg.getSrcName()))) {
+					diffElement(MappedElementKind.METHOD_ARG, arg, null, out);
+				}
+			}
+
+			for (MethodVarMappingView var : oldMethod.getVars()) {
+				if (!isSameVar(var, newMethod.getVar(var.getLvtRowIndex(), var.getLvIndex(), var.getStartOpIdx(), var.getEndOpIdx(), var.getSrcName()))) {
+					diffElement(MappedElementKind.METHOD_VAR, var, null, out);
+				}
+			}
+		}
+
+		for (MethodArgMappingView arg : newMethod.getArgs()) {
+			MethodArgMappingView oldArg = oldMethod != null ? oldMethod.getArg(arg.getArgPosition(), arg.getLvIndex(), arg.getSrcName()) : null;
+			diffElement(MappedElementKind.METHOD_ARG, isSameArg(oldArg, arg) ? oldArg : null, arg, out);
+		}
+
+		for (MethodVarMappingView var : newMethod.getVars()) {
+			MethodVarMappingView oldVar = oldMethod != null ? oldMethod.getVar(var.getLvtRowIndex(), var.getLvIndex(), var.getStartOpIdx(), var.getEndOpIdx(), var.getSrcName()) : null;
+			diffElement(MappedElementKind.METHOD_VAR, isSameVar(oldVar, var) ? oldVar : null, var, out);
+		}
+	}
+
+	private static boolean isSameArg(MethodArgMappingView a, MethodArgMappingView b) {
+		return a != null && b != null
+				&& a.getArgPosition() == b.getArgPosition()
+				&& a.getLvIndex() == b.getLvIndex();
+	}
+
+	private static boolean isSameVar(MethodVarMappingView a, MethodVarMappingView b) {
+		return a != null && b != null
+				&& a.getLvtRowIndex() == b.getLvtRowIndex()
+				&& a.getLvIndex() == b.getLvIndex()
+				&& a.getStartOpIdx() == b.getStartOpIdx()
+				&& a.getEndOpIdx() == b.getEndOpIdx();
+	}
+
+	/**
+	 * Compare a single element's own data, excluding its children.
+	 *
+	 * @return whether the element's children should be compared
+	 */
+	private boolean diffElement(MappedElementKind kind, ElementMappingView oldElement, ElementMappingView newElement, List<Change> out) {
+		if (newElement == null) {
+			out.add(new Change(Change.Type.REMOVED, kind, oldElement, null, null, null, null));
+			return false;
+		}
+
+		if (oldElement == null) {
+			out.add(new Change(Change.Type.ADDED, kind, null, newElement, null, null, null));
+		} else if (kind.level >= MappedElementKind.METHOD_ARG.level
+				&& !Objects.equals(oldElement.getSrcName(), newElement.getSrcName())) { // args and vars aren't keyed by src name
+			out.add(new Change(Change.Type.RENAMED, kind, oldElement, newElement, srcNamespace, oldElement.getSrcName(), newElement.getSrcName()));
+		}
+
+		for (int i = 0; i < namespaces.size(); i++) {
+			String oldName = getName(oldElement, oldNsIds[i]);
+			String newName = getName(newElement, newNsIds[i]);
+
+			if (!Objects.equals(oldName, newName)) {
+				out.add(new Change(Change.Type.RENAMED, kind, oldElement, newElement, namespaces.get(i), oldName, newName));
+			}
+		}
+
+		String oldComment = oldElement != null ? oldElement.getComment() : null;
+		String newComment = newElement.getComment();
+
+		if (!Objects.equals(oldComment, newComment)) {
+			out.add(new Change(Change.Type.COMMENT_CHANGED, kind, oldElement, newElement, null, oldComment, newComment));
+		}
+
+		return true;
+	}
+
+	private static String getName(ElementMappingView element, int namespace) {
+		if (element == null || namespace == MappingTreeView.NULL_NAMESPACE_ID) return null;
+
+		return element.getName(namespace);
+	}
+
+	public static final class Change {
+		public enum Type {
+			/**
+			 * The element only exists in the new tree, its names, comment and children follow as separate changes.
+			 */
+			ADDED,
+			/**
+			 * The element and all its children only exist in the old tree.
+			 */
+			REMOVED,
+			/**
+			 * The element's name in {@link #getNamespace()} changed, either value may be null for a missing name.
+			 */
+			RENAMED,
+			COMMENT_CHANGED
+		}
+
+		Change(Type type, MappedElementKind kind, ElementMappingView oldElement, ElementMappingView newElement, String namespace, String oldValue, String newValue) {
+			this.type = type;
+			this.kind = kind;
+			this.oldElement = oldElement;
+			this.newElement = newElement;
+			this.namespace = namespace;
+			this.oldValue = oldValue;
+			this.newValue = newValue;
+
+			ElementMappingView key = newElement != null ? newElement : oldElement;
+			MemberMappingView member;
+
+			switch (kind) {
+			case CLASS:
+				className = key.getSrcName();
+				member = null;
+				break;
+			case FIELD:
+			case METHOD:
+				member = (MemberMappingView) key;
+				className = member.getOwner().getSrcName();
+				break;
+			case METHOD_ARG: {
+				MethodArgMappingView arg = (MethodArgMappingView) key;
+				member = arg.getMethod();
+				className = member.getOwner().getSrcName();
+				argPosition = arg.getArgPosition();
+				lvIndex = arg.getLvIndex();
+				break;
+			}
+			case METHOD_VAR: {
+				MethodVarMappingView var = (MethodVarMappingView) key;
+				member = var.getMethod();
+				className = member.getOwner().getSrcName();
+				lvtRowIndex = var.getLvtRowIndex();
+				lvIndex = var.getLvIndex();
+				startOpIdx = var.getStartOpIdx();
+				endOpIdx = var.getEndOpIdx();
+				break;
+			}
+			default:
+				throw new IllegalStateException();
+			}
+
+			if (member != null) {
+				memberName = member.getSrcName();
+				memberDesc = member.getSrcDesc();
+				memberIsField = member instanceof FieldMappingView;
+			}
+		}
+
+		public Type getType() {
+			return type;
+		}
+
+		public MappedElementKind getKind() {
+			return kind;
+		}
+
+		/**
+		 * Get the src name of the element's class.
+		 */
+		public String getClassName() {
+			return className;
+		}
+
+		/**
+		 * Get the src name of the element's field or method, null for classes.
+		 */
+		public String getMemberName() {
+			return memberName;
+		}
+
+		public String getMemberDesc() {
+			return memberDesc;
+		}
+
+		/**
+		 * Get the element's src name for args and vars, preferring the new one, null otherwise.
+		 */
+		public String getLocalSrcName() {
+			if (kind.level < MappedElementKind.METHOD_ARG.level) return null;
+
+			return (newElement != null ? newElement : oldElement).getSrcName();
+		}
+
+		public int getArgPosition() {
+			return argPosition;
+		}
+
+		public int getLvIndex() {
+			return lvIndex;
+		}
+
+		public int getLvtRowIndex() {
+			return lvtRowIndex;
+		}
+
+		public int getStartOpIdx() {
+			return startOpIdx;
+		}
+
+		public int getEndOpIdx() {
+			return endOpIdx;
+		}
+
+		/**
+		 * Get the namespace of a {@link Type#RENAMED} change, the src namespace for arg and var src names.
+		 */
+		public String getNamespace() {
+			return namespace;
+		}
+
+		public String getOldValue() {
+			return oldValue;
+		}
+
+		public String getNewValue() {
+			return newValue;
+		}
+
+		public ElementMappingView getOldElement() {
+			return oldElement;
+		}
+
+		public ElementMappingView getNewElement() {
+			return newElement;
+		}
+
+		boolean isField() {
+			return memberIsField;
+		}
+
+		boolean isSameMember(Change o) {
+			return memberIsField == o.memberIsField
+					&& Objects.equals(memberName, o.memberName)
+					&& Objects.equals(memberDesc, o.memberDesc);
+		}
+
+		boolean isSameElement(Change o) {
+			return kind == o.kind
+					&& className.equals(o.className)
+					&& isSameMember(o)
+					&& argPosition == o.argPosition
+					&& lvIndex == o.lvIndex
+					&& lvtRowIndex == o.lvtRowIndex
+					&& startOpIdx == o.startOpIdx
+					&& endOpIdx == o.endOpIdx;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append(type).append(' ').append(kind).append(' ').append(className);
+
+			if (memberName != null) {
+				sb.append('.').append(memberName);
+				if (memberDesc != null) sb.append(memberDesc);
+			}
+
+			if (kind == MappedElementKind.METHOD_ARG) {
+				sb.append(" arg ").append(argPosition).append('/').append(lvIndex);
+			} else if (kind == MappedElementKind.METHOD_VAR) {
+				sb.append(" var ").append(lvtRowIndex).append('/').append(lvIndex).append('/').append(startOpIdx).append('/').append(endOpIdx);
+			}
+
+			if (type == Type.RENAMED) {
+				sb.append(" [").append(namespace).append("] ").append(oldValue).append(" -> ").append(newValue);
+			} else if (type == Type.COMMENT_CHANGED) {
+				sb.append(' ').append(oldValue).append(" -> ").append(newValue);
+			}
+
+			return sb.toString();
+		}
+
+		private final Type type;
+		private final MappedElementKind kind;
+		private final ElementMappingView oldElement;
+		private final ElementMappingView newElement;
+		private final String namespace;
+		private final String oldValue;
+		private final String newValue;
+		private final String className;
+		private String memberName;
+		private String memberDesc;
+		private boolean memberIsField;
+		private int argPosition = -1;
+		private int lvIndex = -1;
+		private int lvtRowIndex = -1;
+		private int startOpIdx = -1;
+		private int endOpIdx = -1;
+	}
+
+	public static final String OLD_NS_PREFIX = "old:";
+	public static final String NEW_NS_PREFIX = "new:";
+
+	private final MappingTreeView oldTree;
+	private final MappingTreeView newTree;
+	private final String srcNamespace;
+	private final List<String> namespaces;
+	private final int[] oldNsIds;
+	private final int[] newNsIds;
+	private List<Change> changes;
+}
@@ -0,0 +1,495 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.tree;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import net.fabricmc.mappingio.MappedElementKind;
+import net.fabricmc.mappingio.format.ColumnFileReader;
+import net.fabricmc.mappingio.format.tiny.Tiny2Util;
+import net.fabricmc.mappingio.tree.MappingDiff.Change;
+import net.fabricmc.mappingio.tree.MappingTree.ClassMapping;
+import net.fabricmc.mappingio.tree.MappingTree.ElementMapping;
+import net.fabricmc.mappingio.tree.MappingTree.MethodMapping;
+import net.fabricmc.mappingio.tree.MemoryMappingTree.MethodArgEntry;
+import net.fabricmc.mappingio.tree.MemoryMappingTree.MethodVarEntry;
+
+/**
+ * Self-contained form of a {@link MappingDiff} that can be stored, transferred and applied to a copy of the old tree.
+ *
+ * <p>The text format starts with a {@code mio-patch 1 0 <src-ns> <dst-ns>...} header, followed by one tab separated
+ * line per operation: {@code <type> <kind> <element key>... [<ns-index>] [<old> <new>]}. Type is one of {@code a}
+ * (added), {@code r} (removed), {@code n} (renamed) or {@code c} (comment changed), kind is the element kind's
+ * Tiny v2 letter. Strings are escaped like Tiny v2, empty columns represent null.
+ */
+public final class MappingPatch {
+	public static MappingPatch create(MappingDiff diff) {
+		List<Operation> ops = new ArrayList<>(diff.getChanges().size());
+
+		for (Change change : diff.getChanges()) {
+			String ns = change.getNamespace();
+			int nsIdx = ns == null || ns.equals(diff.getSrcNamespace()) ? -1 : diff.getDstNamespaces().indexOf(ns);
+
+			ops.add(new Operation(change.getType(), change.getKind(),
+					change.getClassName(), change.getMemberName(), change.getMemberDesc(),
+					change.getArgPosition(), change.getLvIndex(), change.getLvtRowIndex(), change.getStartOpIdx(), change.getEndOpIdx(),
+					change.getLocalSrcName(), nsIdx, change.getOldValue(), change.getNewValue()));
+		}
+
+		return new MappingPatch(diff.getSrcNamespace(), diff.getDstNamespaces(), ops);
+	}
+
+	public static MappingPatch read(Reader reader) throws IOException {
+		ColumnFileReader colReader = new ColumnFileReader(reader, '\t');
+
+		if (!colReader.nextCol("mio-patch") // magic
+				|| colReader.nextIntCol() != 1 // major version
+				|| colReader.nextIntCol() < 0) { // minor version
+			throw new IOException("invalid/unsupported mapping patch: no mio-patch 1 header");
+		}
+
+		String srcNamespace = colReader.nextCol();
+		if (srcNamespace == null || srcNamespace.isEmpty()) throw new IOException("missing src namespace in mapping patch header");
+
+		List<String> dstNamespaces = new ArrayList<>();
+		String ns;
+
+		while ((ns = colReader.nextCol()) != null) {
+			dstNamespaces.add(ns);
+		}
+
+		List<Operation> ops = new ArrayList<>();
+
+		while (colReader.nextLine(0)) {
+			Change.Type type = parseType(colReader.nextCol());
+			if (type == null) throw new IOException("invalid patch operation in line "+colReader.getLineNumber());
+
+			MappedElementKind kind = parseKind(colReader.nextCol());
+			if (kind == null) throw new IOException("invalid element kind in line "+colReader.getLineNumber());
+
+			String className = nextString(colReader);
+			if (className == null) throw new IOException("missing class name in line "+colReader.getLineNumber());
+
+			String memberName = null;
+			String memberDesc = null;
+			int argPosition = -1;
+			int lvIndex = -1;
+			int lvtRowIndex = -1;
+			int startOpIdx = -1;
+			int endOpIdx = -1;
+			String localSrcName = null;
+
+			if (kind != MappedElementKind.CLASS) {
+				memberName = nextString(colReader);
+				if (memberName == null) throw new IOException("missing member name in line "+colReader.getLineNumber());
+				memberDesc = nextString(colReader);
+			}
+
+			if (kind == MappedElementKind.METHOD_ARG) {
+				argPosition = colReader.nextIntCol();
+				lvIndex = colReader.nextIntCol();
+				localSrcName = nextString(colReader);
+			} else if (kind == MappedElementKind.METHOD_VAR) {
+				lvtRowIndex = colReader.nextIntCol();
+				lvIndex = colReader.nextIntCol();
+				startOpIdx = colReader.nextIntCol();
+				endOpIdx = colReader.nextIntCol();
+				localSrcName = nextString(colReader);
+			}
+
+			int nsIdx = -1;
+			String oldValue = null;
+			String newValue = null;
+
+			if (type == Change.Type.RENAMED) {
+				nsIdx = colReader.nextIntCol();
+				if (nsIdx < -1 || nsIdx >= dstNamespaces.size()) throw new IOException("invalid namespace index in line "+colReader.getLineNumber());
+			}
+
+			if (type == Change.Type.RENAMED || type == Change.Type.COMMENT_CHANGED) {
+				oldValue = nextString(colReader);
+				newValue = nextString(colReader);
+			}
+
+			ops.add(new Operation(type, kind, className, memberName, memberDesc,
+					argPosition, lvIndex, lvtRowIndex, startOpIdx, endOpIdx,
+					localSrcName, nsIdx, oldValue, newValue));
+		}
+
+		return new MappingPatch(srcNamespace, dstNamespaces, ops);
+	}
+
+	private static String nextString(ColumnFileReader reader) throws IOException {
+		String ret = reader.nextEscapedCol();
+
+		return ret == null || ret.isEmpty() ? null : ret;
+	}
+
+	private static Change.Type parseType(String str) {
+		if (str == null) return null;
+
+		switch (str) {
+		case "a": return Change.Type.ADDED;
+		case "r": return Change.Type.REMOVED;
+		case "n": return Change.Type.RENAMED;
+		case "c": return Change.Type.COMMENT_CHANGED;
+		default: return null;
+		}
+	}
+
+	private static MappedElementKind parseKind(String str) {
+		if (str == null) return null;
+
+		switch (str) {
+		case "c": return MappedElementKind.CLASS;
+		case "f": return MappedElementKind.FIELD;
+		case "m": return MappedElementKind.METHOD;
+		case "p": return MappedElementKind.METHOD_ARG;
+		case "v": return MappedElementKind.METHOD_VAR;
+		default: return null;
+		}
+	}
+
+	private MappingPatch(String srcNamespace, List<String> dstNamespaces, List<Operation> operations) {
+		this.srcNamespace = srcNamespace;
+		this.dstNamespaces = Collections.unmodifiableList(dstNamespaces);
+		this.operations = Collections.unmodifiableList(operations);
+	}
+
+	public String getSrcNamespace() {
+		return srcNamespace;
+	}
+
+	public List<String> getDstNamespaces() {
+		return dstNamespaces;
+	}
+
+	public int size() {
+		return operations.size();
+	}
+
+	public void write(Writer writer) throws IOException {
+		writer.write("mio-patch\t1\t0\t");
+		writer.write(srcNamespace);
+
+		for (String ns : dstNamespaces) {
+			writer.write('\t');
+			writer.write(ns);
+		}
+
+		writer.write('\n');
+
+		for (Operation op : operations) {
+			writer.write(typeCode(op.type));
+			writer.write('\t');
+			writer.write(kindCode(op.kind));
+			writeString(op.className, writer);
+
+			if (op.kind != MappedElementKind.CLASS) {
+				writeString(op.memberName, writer);
+				writeString(op.memberDesc, writer);
+			}
+
+			if (op.kind == MappedElementKind.METHOD_ARG) {
+				writeInt(op.argPosition, writer);
+				writeInt(op.lvIndex, writer);
+				writeString(op.localSrcName, writer);
+			} else if (op.kind == MappedElementKind.METHOD_VAR) {
+				writeInt(op.lvtRowIndex, writer);
+				writeInt(op.lvIndex, writer);
+				writeInt(op.startOpIdx, writer);
+				writeInt(op.endOpIdx, writer);
+				writeString(op.localSrcName, writer);
+			}
+
+			if (op.type == Change.Type.RENAMED) {
+				writeInt(op.namespace, writer);
+			}
+
+			if (op.type == Change.Type.RENAMED || op.type == Change.Type.COMMENT_CHANGED) {
+				writeString(op.oldValue, writer);
+				writeString(op.newValue, writer);
+			}
+
+			writer.write('\n');
+		}
+
+		writer.flush();
+	}
+
+	private static void writeString(String str, Writer writer) throws IOException {
+		writer.write('\t');
+		if (str != null) Tiny2Util.writeEscaped(str, writer);
+	}
+
+	private static void writeInt(int value, Writer writer) throws IOException {
+		writer.write('\t');
+		writer.write(Integer.toString(value));
+	}
+
+	private static String typeCode(Change.Type type) {
+		switch (type) {
+		case ADDED: return "a";
+		case REMOVED: return "r";
+		case RENAMED: return "n";
+		case COMMENT_CHANGED: return "c";
+		default: throw new IllegalStateException();
+		}
+	}
+
+	private static String kindCode(MappedElementKind kind) {
+		switch (kind) {
+		case CLASS: return "c";
+		case FIELD: return "f";
+		case METHOD: return "m";
+		case METHOD_ARG: return "p";
+		case METHOD_VAR: return "v";
+		default: throw new IllegalStateException();
+		}
+	}
+
+	/**
+	 * Apply the patch to a tree matching the old side of the diff it was created from.
+	 *
+	 * <p>Dst namespaces missing in the tree are added. Renames and comment changes verify the tree's current value, so
+	 * a patch applied to the wrong base fails instead of silently producing a mix. The patch is first applied to copies
+	 * of the affected classes, the tree is left unmodified if that fails.
+	 *
+	 * @throws IllegalStateException if the tree doesn't match the patch's old side
+	 */
+	public void apply(MemoryMappingTree tree) {
+		if (!srcNamespace.equals(tree.getSrcNamespace())) {
+			throw new IllegalArgumentException("src namespace mismatch: patch "+srcNamespace+", tree "+tree.getSrcNamespace());
+		}
+
+		MemoryMappingTree scratch = new MemoryMappingTree();
+		scratch.visitNamespaces(tree.getSrcNamespace(), tree.getDstNamespaces());
+		Set<String> copiedClasses = new HashSet<>();
+
+		for (Operation op : operations) {
+			if (copiedClasses.add(op.className)) {
+				ClassMapping cls = tree.getClass(op.className);
+				if (cls != null) scratch.addClass(cls);
+			}
+		}
+
+		applyTo(scratch); // operations only depend on their class, so this detects all conflicts
+		applyTo(tree);
+	}
+
+	private void applyTo(MemoryMappingTree tree) {
+		tree.visitNamespaces(srcNamespace, dstNamespaces); // adds missing dst namespaces
+		int[] nsIds = new int[dstNamespaces.size()];
+
+		for (int i = 0; i < nsIds.length; i++) {
+			nsIds[i] = tree.getNamespaceId(dstNamespaces.get(i));
+		}
+
+		try {
+			for (Operation op : operations) {
+				switch (op.type) {
+				case ADDED:
+					add(tree, op);
+					break;
+				case REMOVED:
+					remove(tree, op);
+					break;
+				case RENAMED: {
+					ElementMapping element = get(tree, op);
+					String current = op.namespace < 0 ? element.getSrcName() : element.getDstName(nsIds[op.namespace]);
+					checkValue(op, current);
+
+					if (op.namespace >= 0) {
+						element.setDstName(op.newValue, nsIds[op.namespace]);
+					} else if (element instanceof MethodArgEntry) {
+						((MethodArgEntry) element).setSrcName(op.newValue);
+					} else if (element instanceof MethodVarEntry) {
+						((MethodVarEntry) element).setSrcName(op.newValue);
+					} else {
+						throw new IllegalStateException("can't change src name for "+op.kind);
+					}
+
+					break;
+				}
+				case COMMENT_CHANGED: {
+					ElementMapping element = get(tree, op);
+					checkValue(op, element.getComment());
+					element.setComment(op.newValue);
+					break;
+				}
+				}
+			}
+		} finally {
+			tree.reset();
+		}
+	}
+
+	private static void add(MemoryMappingTree tree, Operation op) {
+		if (find(tree, op) != null) throw new IllegalStateException("patch conflict, element already present: "+op);
+
+		tree.visitClass(op.className);
+		if (op.kind == MappedElementKind.CLASS) return;
+
+		if (op.kind == MappedElementKind.FIELD) {
+			tree.visitField(op.memberName, op.memberDesc);
+			return;
+		}
+
+		tree.visitMethod(op.memberName, op.memberDesc);
+
+		if (op.kind == MappedElementKind.METHOD_ARG) {
+			tree.visitMethodArg(op.argPosition, op.lvIndex, op.localSrcName);
+		} else if (op.kind == MappedElementKind.METHOD_VAR) {
+			tree.visitMethodVar(op.lvtRowIndex, op.lvIndex, op.startOpIdx, op.endOpIdx, op.localSrcName);
+		}
+	}
+
+	private static void remove(MemoryMappingTree tree, Operation op) {
+		Object removed;
+
+		switch (op.kind) {
+		case CLASS:
+			removed = tree.removeClass(op.className);
+			break;
+		case FIELD:
+			removed = getClass(tree, op).removeField(op.memberName, op.memberDesc);
+			break;
+		case METHOD:
+			removed = getClass(tree, op).removeMethod(op.memberName, op.memberDesc);
+			break;
+		case METHOD_ARG:
+			removed = getMethod(tree, op).removeArg(op.argPosition, op.lvIndex, op.localSrcName);
+			break;
+		case METHOD_VAR:
+			removed = getMethod(tree, op).removeVar(op.lvtRowIndex, op.lvIndex, op.startOpIdx, op.endOpIdx, op.localSrcName);
+			break;
+		default:
+			throw new IllegalStateException();
+		}
+
+		if (removed == null) throw new IllegalStateException("patch conflict, element missing: "+op);
+	}
+
+	private static ElementMapping get(MemoryMappingTree tree, Operation op) {
+		ElementMapping ret = find(tree, op);
+		if (ret == null) throw new IllegalStateException("patch conflict, element missing: "+op);
+
+		return ret;
+	}
+
+	private static ClassMapping getClass(MemoryMappingTree tree, Operation op) {
+		ClassMapping ret = tree.getClass(op.className);
+		if (ret == null) throw new IllegalStateException("patch conflict, class missing: "+op);
+
+		return ret;
+	}
+
+	private static MethodMapping getMethod(MemoryMappingTree tree, Operation op) {
+		MethodMapping ret = getClass(tree, op).getMethod(op.memberName, op.memberDesc);
+		if (ret == null) throw new IllegalStateException("patch conflict, method missing: "+op);
+
+		return ret;
+	}
+
+	private static ElementMapping find(MemoryMappingTree tree, Operation op) {
+		ClassMapping cls = tree.getClass(op.className);
+		if (cls == null || op.kind == MappedElementKind.CLASS) return cls;
+		if (op.kind == MappedElementKind.FIELD) return cls.getField(op.memberName, op.memberDesc);
+
+		MethodMapping method = cls.getMethod(op.memberName, op.memberDesc);
+		if (method == null || op.kind == MappedElementKind.METHOD) return method;
+
+		if (op.kind == MappedElementKind.METHOD_ARG) {
+			return method.getArg(op.argPosition, op.lvIndex, op.localSrcName);
+		} else {
+			return method.getVar(op.lvtRowIndex, op.lvIndex, op.startOpIdx, op.endOpIdx, op.localSrcName);
+		}
+	}
+
+	private static void checkValue(Operation op, String current) {
+		if (!Objects.equals(current, op.oldValue)) {
+			throw new IllegalStateException("patch conflict, expected "+op.oldValue+" but found "+current+": "+op);
+		}
+	}
+
+	private static final class Operation {
+		Operation(Change.Type type, MappedElementKind kind, String className, String memberName, String memberDesc,
+				int argPosition, int lvIndex, int lvtRowIndex, int startOpIdx, int endOpIdx,
+				String localSrcName, int namespace, String oldValue, String newValue) {
+			this.type = type;
+			this.kind = kind;
+			this.className = className;
+			this.memberName = memberName;
+			this.memberDesc = memberDesc;
+			this.argPosition = argPosition;
+			this.lvIndex = lvIndex;
+			this.lvtRowIndex = lvtRowIndex;
+			this.startOpIdx = startOpIdx;
+			this.endOpIdx = endOpIdx;
+			this.localSrcName = localSrcName;
+			this.namespace = namespace;
+			this.oldValue = oldValue;
+			this.newValue = newValue;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append(type).append(' ').append(kind).append(' ').append(className);
+
+			if (memberName != null) {
+				sb.append('.').append(memberName);
+				if (memberDesc != null) sb.append(memberDesc);
+			}
+
+			if (kind == MappedElementKind.METHOD_ARG) {
+				sb.append(" arg ").append(argPosition).append('/').append(lvIndex);
+			} else if (kind == MappedElementKind.METHOD_VAR) {
+				sb.append(" var ").append(lvtRowIndex).append('/').append(lvIndex).append('/').append(startOpIdx).append('/').append(endOpIdx);
+			}
+
+			return sb.toString();
+		}
+
+		final Change.Type type;
+		final MappedElementKind kind;
+		final String className;
+		final String memberName;
+		final String memberDesc;
+		final int argPosition;
+		final int lvIndex;
+		final int lvtRowIndex;
+		final int startOpIdx;
+		final int endOpIdx;
+		final String localSrcName;
+		final int namespace;
+		final String oldValue;
+		final String newValue;
+	}
+
+	private final String srcNamespace;
+	private final List<String> dstNamespaces;
+	private final List<Operation> operations;
+}
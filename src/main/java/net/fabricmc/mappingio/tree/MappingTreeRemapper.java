@@ -0,0 +1,419 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.tree;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.commons.ClassRemapper;
+import org.objectweb.asm.commons.Remapper;
+
+import net.fabricmc.mappingio.tree.MappingTreeView.ClassMappingView;
+import net.fabricmc.mappingio.tree.MappingTreeView.FieldMappingView;
+import net.fabricmc.mappingio.tree.MappingTreeView.MemberMappingView;
+import net.fabricmc.mappingio.tree.MappingTreeView.MethodMappingView;
+
+/**
+ * ASM {@link Remapper} mapping names from one namespace of a {@link MappingTreeView} to another.
+ *
+ * <p>Results for classes, members and descriptors are cached per thread, so a single instance may be shared by
+ * concurrent remapping tasks as long as the tree isn't modified meanwhile. Members not mapped in the referenced owner
+ * are resolved through the optional {@link HierarchyInfoProvider}, classes without mapping inherit the mapping of
+ * their outer class.
+ */
+public final class MappingTreeRemapper extends Remapper {
+	public MappingTreeRemapper(MappingTreeView tree, String srcNamespace, String dstNamespace) {
+		this(tree, srcNamespace, dstNamespace, null);
+	}
+
+	/**
+	 * @param hierarchy Provider for resolving inherited members, must operate on {@code srcNamespace}.
+	 */
+	public MappingTreeRemapper(MappingTreeView tree, String srcNamespace, String dstNamespace, @Nullable HierarchyInfoProvider<?> hierarchy) {
+		Objects.requireNonNull(tree, "null tree");
+
+		this.tree = tree;
+		this.srcNsId = getNamespaceId(tree, srcNamespace);
+		this.dstNsId = getNamespaceId(tree, dstNamespace);
+
+		if (hierarchy != null && !srcNamespace.equals(hierarchy.getNamespace())) {
+			throw new IllegalArgumentException("hierarchy provider namespace "+hierarchy.getNamespace()+" doesn't match source namespace "+srcNamespace);
+		}
+
+		this.hierarchy = hierarchy;
+
+		if (srcNsId == MappingTreeView.SRC_NAMESPACE_ID) {
+			classesBySrcName = null;
+		} else {
+			// secondary namespace lookups may scan the whole tree, index them once instead
+			classesBySrcName = new HashMap<>();
+
+			for (ClassMappingView cls : tree.getClasses()) {
+				String name = cls.getName(srcNsId);
+				if (name != null) classesBySrcName.putIfAbsent(name, cls);
+			}
+		}
+	}
+
+	private static int getNamespaceId(MappingTreeView tree, String namespace) {
+		int ret = tree.getNamespaceId(namespace);
+		if (ret == MappingTreeView.NULL_NAMESPACE_ID) throw new IllegalArgumentException("invalid namespace: "+namespace);
+
+		return ret;
+	}
+
+	public MappingTreeView getTree() {
+		return tree;
+	}
+
+	@Override
+	public String map(String internalName) {
+		Cache cache = caches.get();
+		String ret = cache.classes.get(internalName);
+
+		if (ret == null) {
+			ret = mapClass(internalName);
+			cache.classes.put(internalName, ret);
+		}
+
+		return ret;
+	}
+
+	private String mapClass(String name) {
+		ClassMappingView cls = getClass(name);
+		String ret = cls != null ? cls.getName(dstNsId) : null;
+		if (ret != null) return ret;
+
+		int pos = name.lastIndexOf('$');
+
+		if (pos > 0 && pos < name.length() - 1) {
+			// unmapped inner class, keep the suffix on the mapped outer class
+			String outer = map(name.substring(0, pos));
+			return outer.concat(name.substring(pos));
+		}
+
+		return name;
+	}
+
+	@Override
+	public String mapFieldName(String owner, String name, String descriptor) {
+		Cache cache = caches.get();
+		MemberKey key = cache.key.set(owner, name, descriptor);
+		String ret = cache.fields.get(key);
+
+		if (ret == null) {
+			ret = mapMember(owner, name, descriptor, true);
+			cache.fields.put(key.copy(), ret);
+		}
+
+		return ret;
+	}
+
+	@Override
+	public String mapRecordComponentName(String owner, String name, String descriptor) {
+		return mapFieldName(owner, name, descriptor);
+	}
+
+	@Override
+	public String mapMethodName(String owner, String name, String descriptor) {
+		if (owner.startsWith("[")) return name; // array methods like clone
+
+		Cache cache = caches.get();
+		MemberKey key = cache.key.set(owner, name, descriptor);
+		String ret = cache.methods.get(key);
+
+		if (ret == null) {
+			ret = mapMember(owner, name, descriptor, false);
+			cache.methods.put(key.copy(), ret);
+		}
+
+		return ret;
+	}
+
+	private String mapMember(String owner, String name, String desc, boolean field) {
+		String ret = getDstName(getMember(owner, name, desc, field));
+		if (ret != null) return ret;
+		if (hierarchy == null) return name;
+
+		String resolvedOwner = field ? hierarchy.resolveField(owner, name, desc) : hierarchy.resolveMethod(owner, name, desc);
+
+		if (resolvedOwner != null && !resolvedOwner.equals(owner)) {
+			ret = getDstName(getMember(resolvedOwner, name, desc, field));
+			if (ret != null) return ret;
+		}
+
+		if (!field) {
+			ret = mapFromHierarchy(hierarchy, resolvedOwner != null ? resolvedOwner : owner, name, desc);
+			if (ret != null) return ret;
+		}
+
+		return name;
+	}
+
+	private <T> String mapFromHierarchy(HierarchyInfoProvider<T> hierarchy, String owner, String name, String desc) {
+		T methods = hierarchy.getMethodHierarchy(owner, name, desc);
+		if (hierarchy.getHierarchySize(methods) <= 1) return null;
+
+		for (MethodMappingView method : hierarchy.getHierarchyMethods(methods, tree)) {
+			String ret = getDstName(method);
+			if (ret != null) return ret;
+		}
+
+		return null;
+	}
+
+	private String getDstName(@Nullable MemberMappingView member) {
+		return member != null ? member.getName(dstNsId) : null;
+	}
+
+	@Nullable
+	private MemberMappingView getMember(String owner, String name, String desc, boolean field) {
+		ClassMappingView cls = getClass(owner);
+		if (cls == null) return null;
+
+		if (field) {
+			FieldMappingView ret = cls.getField(name, desc, srcNsId);
+			// field references always carry a descriptor, mappings may lack it
+			return ret != null ? ret : cls.getField(name, null, srcNsId);
+		} else {
+			return cls.getMethod(name, desc, srcNsId);
+		}
+	}
+
+	@Nullable
+	private ClassMappingView getClass(String name) {
+		return classesBySrcName != null ? classesBySrcName.get(name) : tree.getClass(name, srcNsId);
+	}
+
+	@Override
+	public String mapDesc(String descriptor) {
+		Cache cache = caches.get();
+		String ret = cache.descs.get(descriptor);
+
+		if (ret == null) {
+			ret = super.mapDesc(descriptor);
+			cache.descs.put(descriptor, ret);
+		}
+
+		return ret;
+	}
+
+	@Override
+	public String mapMethodDesc(String methodDescriptor) {
+		Cache cache = caches.get();
+		String ret = cache.descs.get(methodDescriptor);
+
+		if (ret == null) {
+			ret = super.mapMethodDesc(methodDescriptor);
+			cache.descs.put(methodDescriptor, ret);
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Remap all classes within the jar or zip file {@code input} into {@code output}.
+	 *
+	 * <p>Classes are remapped concurrently on the common pool and written in input order along with their mapped entry
+	 * names, other entries are copied unchanged. Jar signatures are dropped since remapping invalidates them.
+	 */
+	public void remapJar(Path input, Path output) throws IOException {
+		try (ZipFile zip = new ZipFile(input.toFile());
+				ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(output))) {
+			int maxInFlight = 2 * ForkJoinPool.getCommonPoolParallelism();
+			ArrayDeque<CompletableFuture<JarEntry>> pending = new ArrayDeque<>();
+
+			for (Enumeration<? extends ZipEntry> it = zip.entries(); it.hasMoreElements(); ) {
+				ZipEntry entry = it.nextElement();
+				if (entry.isDirectory() || isSignatureFile(entry.getName())) continue;
+
+				byte[] data;
+
+				try (InputStream is = zip.getInputStream(entry)) {
+					data = readFully(is, entry.getSize());
+				}
+
+				while (pending.size() >= maxInFlight) {
+					writeEntry(pending.remove(), out);
+				}
+
+				if (entry.getName().endsWith(".class")) {
+					pending.add(CompletableFuture.supplyAsync(() -> remapClass(entry, data)));
+				} else {
+					pending.add(CompletableFuture.completedFuture(new JarEntry(entry.getName(), entry.getTime(), data)));
+				}
+			}
+
+			while (!pending.isEmpty()) {
+				writeEntry(pending.remove(), out);
+			}
+		}
+	}
+
+	private JarEntry remapClass(ZipEntry entry, byte[] data) {
+		ClassReader reader = new ClassReader(data);
+		ClassWriter writer = new ClassWriter(0);
+		reader.accept(new ClassRemapper(writer, this), 0);
+
+		String name = entry.getName();
+		String clsName = reader.getClassName();
+		int prefixLen = name.length() - clsName.length() - ".class".length();
+
+		// keep prefixes like META-INF/versions/9/
+		if (prefixLen >= 0 && name.startsWith(clsName, prefixLen)) {
+			name = name.substring(0, prefixLen).concat(map(clsName)).concat(".class");
+		}
+
+		return new JarEntry(name, entry.getTime(), writer.toByteArray());
+	}
+
+	private static boolean isSignatureFile(String name) {
+		if (!name.startsWith("META-INF/") || name.indexOf('/', 9) >= 0) return false;
+
+		String lcName = name.toLowerCase(Locale.ROOT);
+
+		return lcName.endsWith(".sf") || lcName.endsWith(".rsa") || lcName.endsWith(".dsa") || lcName.endsWith(".ec");
+	}
+
+	private static byte[] readFully(InputStream in, long size) throws IOException {
+		byte[] ret = new byte[size >= 0 ? (int) size : 8192];
+		int pos = 0;
+		int len;
+
+		while ((len = in.read(ret, pos, ret.length - pos)) >= 0) {
+			pos += len;
+
+			if (pos == ret.length) {
+				if (size >= 0) break;
+				ret = Arrays.copyOf(ret, ret.length * 2);
+			}
+		}
+
+		return pos == ret.length ? ret : Arrays.copyOf(ret, pos);
+	}
+
+	private static void writeEntry(CompletableFuture<JarEntry> future, ZipOutputStream out) throws IOException {
+		JarEntry entry;
+
+		try {
+			entry = future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof UncheckedIOException) throw ((UncheckedIOException) cause).getCause();
+			if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+			if (cause instanceof Error) throw (Error) cause;
+			throw new IOException(cause);
+		}
+
+		ZipEntry zipEntry = new ZipEntry(entry.name);
+		if (entry.time >= 0) zipEntry.setTime(entry.time);
+		out.putNextEntry(zipEntry);
+		out.write(entry.data);
+		out.closeEntry();
+	}
+
+	private static final class JarEntry {
+		JarEntry(String name, long time, byte[] data) {
+			this.name = name;
+			this.time = time;
+			this.data = data;
+		}
+
+		final String name;
+		final long time;
+		final byte[] data;
+	}
+
+	private static final class MemberKey {
+		MemberKey set(String owner, String name, String desc) {
+			this.owner = owner;
+			this.name = name;
+			this.desc = desc;
+			this.hash = (owner.hashCode() * 31 + name.hashCode()) * 31 + Objects.hashCode(desc);
+
+			return this;
+		}
+
+		MemberKey copy() {
+			MemberKey ret = new MemberKey();
+			ret.owner = owner;
+			ret.name = name;
+			ret.desc = desc;
+			ret.hash = hash;
+
+			return ret;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) return true;
+			if (!(obj instanceof MemberKey)) return false;
+
+			MemberKey o = (MemberKey) obj;
+
+			return hash == o.hash && owner.equals(o.owner) && name.equals(o.name) && Objects.equals(desc, o.desc);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		String owner;
+		String name;
+		String desc;
+		int hash;
+	}
+
+	private static final class Cache {
+		final Map<String, String> classes = new HashMap<>();
+		final Map<MemberKey, String> fields = new HashMap<>();
+		final Map<MemberKey, String> methods = new HashMap<>();
+		final Map<String, String> descs = new HashMap<>();
+		final MemberKey key = new MemberKey();
+	}
+
+	private final MappingTreeView tree;
+	private final int srcNsId;
+	private final int dstNsId;
+	private final @Nullable HierarchyInfoProvider<?> hierarchy;
+	private final @Nullable Map<String, ClassMappingView> classesBySrcName;
+	private final ThreadLocal<Cache> caches = ThreadLocal.withInitial(Cache::new);
+}
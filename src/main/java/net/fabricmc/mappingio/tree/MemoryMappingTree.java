@@ -16,12 +16,19 @@
 
 package net.fabricmc.mappingio.tree;
 
+import java.io.CharArrayWriter;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.AbstractMap;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
@@ -30,10 +37,20 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import net.fabricmc.mappingio.MappedElementKind;
 import net.fabricmc.mappingio.MappingFlag;
+import net.fabricmc.mappingio.MappingUtil;
 import net.fabricmc.mappingio.MappingVisitor;
+import net.fabricmc.mappingio.MappingWriter;
+import net.fabricmc.mappingio.format.MappingFormat;
+import net.fabricmc.mappingio.jfr.EventWriter;
+import net.fabricmc.mappingio.jfr.MappingEvent;
+import net.fabricmc.mappingio.tree.DescSymbolTable.EncodedDesc;
 
 public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 	public MemoryMappingTree() {
@@ -47,6 +64,7 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 	public MemoryMappingTree(MappingTree src) {
 		if (src instanceof MemoryMappingTree) {
 			indexByDstNames = ((MemoryMappingTree) src).indexByDstNames;
+			setNameStorage(((MemoryMappingTree) src).getNameStorage());
 		}
 
 		setSrcNamespace(src.getSrcNamespace());
@@ -82,13 +100,214 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 		}
 
 		for (ClassEntry cls : classesBySrcName.values()) {
-			for (int i = 0; i < cls.dstNames.length; i++) {
-				String dstName = cls.dstNames[i];
+			for (int i = 0; i < classesByDstNames.length; i++) {
+				String dstName = cls.getDstName(i);
 				if (dstName != null) classesByDstNames[i].put(dstName, cls);
 			}
 		}
 	}
 
+	/**
+	 * Maintain a sorted index of all class, field and method names per namespace to speed up
+	 * {@link #findByPrefix} and {@link #findByGlob}, which otherwise scan the whole tree.
+	 */
+	public void setIndexForNameSearch(boolean enabled) {
+		if (enabled == (nameIndex != null)) return;
+
+		if (enabled) {
+			initNameIndex();
+		} else {
+			nameIndex = null;
+		}
+	}
+
+	private void initNameIndex() {
+		nameIndex = new NameSearchIndex(dstNamespaces.size());
+
+		for (ClassEntry cls : classesBySrcName.values()) {
+			nameIndex.addClass(cls);
+		}
+	}
+
+	/**
+	 * Find the classes, fields and methods whose name in the given namespace starts with {@code prefix}.
+	 *
+	 * @param simpleName whether to match classes by their simple name after the last {@code /} or {@code $} only
+	 * @return the matching elements in unspecified order
+	 */
+	public List<ElementMapping> findByPrefix(String prefix, int namespace, boolean simpleName) {
+		List<ElementMapping> ret = new ArrayList<>();
+
+		if (nameIndex != null) {
+			nameIndex.findByPrefix(prefix, namespace, simpleName, ret);
+		} else {
+			scanNames(prefix, null, namespace, simpleName, ret);
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Find the classes, fields and methods whose name in the given namespace matches {@code glob}, where {@code *}
+	 * matches any char sequence and {@code ?} any single char.
+	 *
+	 * @param simpleName whether to match classes by their simple name after the last {@code /} or {@code $} only
+	 * @return the matching elements in unspecified order
+	 */
+	public List<ElementMapping> findByGlob(String glob, int namespace, boolean simpleName) {
+		List<ElementMapping> ret = new ArrayList<>();
+
+		if (nameIndex != null) {
+			nameIndex.findByGlob(glob, namespace, simpleName, ret);
+		} else {
+			scanNames(null, glob, namespace, simpleName, ret);
+		}
+
+		return ret;
+	}
+
+	private void scanNames(String prefix, String glob, int namespace, boolean simpleName, List<ElementMapping> out) {
+		for (ClassEntry cls : classesBySrcName.values()) {
+			String name = cls.getName(namespace);
+
+			if (name != null && matchesName(simpleName ? NameSearchIndex.getSimpleName(name) : name, prefix, glob)) {
+				out.add(cls);
+			}
+
+			for (FieldEntry field : cls.getFields()) {
+				name = field.getName(namespace);
+				if (name != null && matchesName(name, prefix, glob)) out.add(field);
+			}
+
+			for (MethodEntry method : cls.getMethods()) {
+				name = method.getName(namespace);
+				if (name != null && matchesName(name, prefix, glob)) out.add(method);
+			}
+		}
+	}
+
+	private static boolean matchesName(String name, String prefix, String glob) {
+		return prefix != null ? name.startsWith(prefix) : NameSearchIndex.matchesGlob(glob, name);
+	}
+
+	/**
+	 * Maintain an index from class src names to the fields and methods referencing them in their src descriptor to
+	 * speed up {@link #getReferencingMembers}, which otherwise scans the whole tree.
+	 */
+	public void setIndexTypeReferences(boolean enabled) {
+		if (enabled == (typeRefIndex != null)) return;
+
+		if (enabled) {
+			typeRefIndex = new TypeReferenceIndex();
+
+			for (ClassEntry cls : classesBySrcName.values()) {
+				typeRefIndex.addClass(cls);
+			}
+		} else {
+			typeRefIndex = null;
+		}
+	}
+
+	/**
+	 * Get the fields and methods whose src descriptor references the class with the given src name, for example to
+	 * determine which descriptors are affected by renaming it.
+	 */
+	public List<MemberMapping> getReferencingMembers(String srcClassName) {
+		if (typeRefIndex != null) {
+			Set<MemberEntry<?>> members = typeRefIndex.get(srcClassName);
+
+			return members != null ? new ArrayList<>(members) : Collections.emptyList();
+		}
+
+		List<MemberMapping> ret = new ArrayList<>();
+
+		for (ClassEntry cls : classesBySrcName.values()) {
+			for (FieldEntry field : cls.getFields()) {
+				if (referencesClass(field.srcDesc, srcClassName)) ret.add(field);
+			}
+
+			for (MethodEntry method : cls.getMethods()) {
+				if (referencesClass(method.srcDesc, srcClassName)) ret.add(method);
+			}
+		}
+
+		return ret;
+	}
+
+	private static boolean referencesClass(String desc, String cls) {
+		if (desc == null || !desc.contains(cls)) return false;
+
+		boolean[] ret = new boolean[1];
+		TypeReferenceIndex.forEachClass(desc, name -> ret[0] |= name.equals(cls));
+
+		return ret[0];
+	}
+
+	/**
+	 * Update the type reference index after an attached member's src desc changed.
+	 */
+	void onSrcDescChanged(MemberEntry<?> member, String oldDesc, String newDesc) {
+		if (typeRefIndex != null && member.isAttached()) typeRefIndex.update(member, oldDesc, newDesc);
+	}
+
+	public NameStorage getNameStorage() {
+		if (nameArena == null) return NameStorage.STRINGS;
+
+		return nameArena.isDirect() ? NameStorage.DIRECT_ARENA : NameStorage.HEAP_ARENA;
+	}
+
+	/**
+	 * Change how dst names are stored, converting all existing names.
+	 *
+	 * <p>The arena modes keep the names as byte slices in large pages instead of individual {@link String}s, which
+	 * saves most of the per-name overhead for big trees at the cost of creating a new String on every access. Names
+	 * replaced later on aren't reclaimed until the storage is changed again. Src names, descriptors and comments are
+	 * always stored as Strings.
+	 */
+	public void setNameStorage(NameStorage storage) {
+		if (storage == getNameStorage()) return;
+
+		NameArena oldArena = nameArena;
+		NameArena newArena = storage == NameStorage.STRINGS ? null : new NameArena(storage == NameStorage.DIRECT_ARENA);
+
+		for (ClassEntry cls : classesBySrcName.values()) {
+			cls.convertDstNames(oldArena, newArena);
+
+			for (FieldEntry field : cls.getFields()) {
+				field.convertDstNames(oldArena, newArena);
+			}
+
+			for (MethodEntry method : cls.getMethods()) {
+				method.convertDstNames(oldArena, newArena);
+
+				for (MethodArgEntry arg : method.getArgs()) {
+					arg.convertDstNames(oldArena, newArena);
+				}
+
+				for (MethodVarEntry var : method.getVars()) {
+					var.convertDstNames(oldArena, newArena);
+				}
+			}
+		}
+
+		if (pendingMembers != null) {
+			for (MemberEntry<?> member : pendingMembers.values()) {
+				member.convertDstNames(oldArena, newArena);
+			}
+		}
+
+		nameArena = newArena;
+	}
+
+	public enum NameStorage {
+		/** A {@link String} per name. */
+		STRINGS,
+		/** Latin-1 or UTF-8 byte slices in on-heap pages. */
+		HEAP_ARENA,
+		/** Latin-1 or UTF-8 byte slices in off-heap direct buffers. */
+		DIRECT_ARENA;
+	}
+
 	public void setHierarchyInfoProvider(HierarchyInfoProvider<?> provider) {
 		hierarchyInfo = provider;
 
@@ -157,6 +376,10 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 			initClassesByDstNames();
 		}
 
+		if (nameIndex != null) {
+			initNameIndex();
+		}
+
 		return ret;
 	}
 
@@ -261,15 +484,20 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 	public ClassMapping addClass(ClassMapping cls) {
 		ClassEntry entry = cls instanceof ClassEntry && cls.getTree() == this ? (ClassEntry) cls : new ClassEntry(this, cls, getSrcNsEquivalent(cls));
 		ClassEntry ret = classesBySrcName.putIfAbsent(cls.getSrcName(), entry);
+		modCount++;
 
 		if (ret != null) {
 			ret.copyFrom(entry, false);
 			entry = ret;
+		} else {
+			descSymbols.onClassAdded(entry);
+			if (nameIndex != null) nameIndex.addClass(entry);
+			if (typeRefIndex != null) typeRefIndex.addClass(entry);
 		}
 
 		if (indexByDstNames) {
-			for (int i = 0; i < entry.dstNames.length; i++) {
-				String dstName = entry.dstNames[i];
+			for (int i = 0, max = entry.getDstNameCount(); i < max; i++) {
+				String dstName = entry.getDstName(i);
 				if (dstName != null) classesByDstNames[i].put(dstName, entry);
 			}
 		}
@@ -287,10 +515,16 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 	@Override
 	public ClassMapping removeClass(String srcName) {
 		ClassEntry ret = classesBySrcName.remove(srcName);
+		modCount++;
+		if (ret != null) {
+			descSymbols.onClassRemoved(srcName);
+			if (nameIndex != null) nameIndex.removeClass(ret);
+			if (typeRefIndex != null) typeRefIndex.removeClass(ret);
+		}
 
 		if (ret != null && indexByDstNames) {
-			for (int i = 0; i < ret.dstNames.length; i++) {
-				String dstName = ret.dstNames[i];
+			for (int i = 0, max = ret.getDstNameCount(); i < max; i++) {
+				String dstName = ret.getDstName(i);
 				if (dstName != null) classesByDstNames[i].remove(dstName);
 			}
 		}
@@ -300,27 +534,305 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 
 	@Override
 	public void accept(MappingVisitor visitor, VisitOrder order) throws IOException {
-		do {
-			if (visitor.visitHeader()) {
-				visitor.visitNamespaces(srcNamespace, dstNamespaces);
+		int sortGen = order.isCacheable() ? getSortGeneration(order) : -1;
 
-				for (Map.Entry<String, String> entry : metadata) {
-					visitor.visitMetadata(entry.getKey(), entry.getValue());
-				}
-			}
-
-			if (visitor.visitContent()) {
+		do {
+			if (visitHeaderAndContent(visitor)) {
 				Set<MappingFlag> flags = visitor.getFlags();
 				boolean supplyFieldDstDescs = flags.contains(MappingFlag.NEEDS_DST_FIELD_DESC);
 				boolean supplyMethodDstDescs = flags.contains(MappingFlag.NEEDS_DST_METHOD_DESC);
 
-				for (ClassEntry cls : order.sortClasses(classesBySrcName.values())) {
-					cls.accept(visitor, order, supplyFieldDstDescs, supplyMethodDstDescs);
+				for (ClassEntry cls : getSortedClasses(order, sortGen)) {
+					cls.accept(visitor, order, sortGen, supplyFieldDstDescs, supplyMethodDstDescs);
 				}
 			}
 		} while (!visitor.visitEnd());
 	}
 
+	private boolean visitHeaderAndContent(MappingVisitor visitor) throws IOException {
+		if (visitor.visitHeader()) {
+			visitor.visitNamespaces(srcNamespace, dstNamespaces);
+
+			for (Map.Entry<String, String> entry : metadata) {
+				visitor.visitMetadata(entry.getKey(), entry.getValue());
+			}
+
+			if (visitor.getFlags().contains(MappingFlag.WANTS_SIZE_HINTS)) {
+				visitSizeHints(visitor);
+			}
+		}
+
+		return visitor.visitContent();
+	}
+
+	/**
+	 * Write the tree in the specified format, rendering chunks of classes concurrently.
+	 *
+	 * @see #acceptParallel(Writer, WriterFactory, VisitOrder)
+	 */
+	public void acceptParallel(Writer out, MappingFormat format, VisitOrder order) throws IOException {
+		acceptParallel(out, writer -> MappingWriter.create(writer, format), format.name(), order);
+	}
+
+	/**
+	 * Write the tree through writers from {@code writerFactory}, rendering chunks of classes concurrently.
+	 *
+	 * <p>The header is written through a writer for {@code out}. Every chunk of classes is then rendered by its own
+	 * writer into a separate buffer after replaying the header to it, buffers are copied to {@code out} in visitation
+	 * order. The output matches {@link #accept(MappingVisitor, VisitOrder)} for writers whose class output doesn't
+	 * depend on other classes, besides nested classes directly following their outer class like in the Enigma format.
+	 * All built-in single file writers qualify.
+	 *
+	 * <p>Writers needing multiple passes are visited sequentially, writers with
+	 * {@link MappingFlag#NEEDS_CONTIGUOUS_OUTPUT} are rejected. Chunk writers are ended and closed after rendering
+	 * their chunk, {@code out} is not closed unless the writer for it does so at {@link MappingVisitor#visitEnd()}.
+	 */
+	public void acceptParallel(Writer out, WriterFactory writerFactory, VisitOrder order) throws IOException {
+		acceptParallel(out, writerFactory, null, order);
+	}
+
+	private void acceptParallel(Writer out, WriterFactory writerFactory, String format, VisitOrder order) throws IOException {
+		// a single event covers the header and all chunks, the writers' own events would miss the chunk output
+		MappingEvent event = MappingEvent.begin(MappingEvent.Type.WRITE);
+		EventWriter eventOut = null;
+
+		if (event != null) {
+			event.format = format;
+			out = eventOut = new EventWriter(out, event);
+		}
+
+		try {
+			MappingVisitor writer;
+			MappingEvent.beginSuppression();
+
+			try {
+				writer = writerFactory.create(out);
+			} finally {
+				MappingEvent.endSuppression();
+			}
+
+			acceptParallel(out, writer, writerFactory, order);
+		} finally {
+			if (eventOut != null) eventOut.commitEvent();
+		}
+	}
+
+	private void acceptParallel(Writer out, MappingVisitor writer, WriterFactory writerFactory, VisitOrder order) throws IOException {
+		Set<MappingFlag> flags = writer.getFlags();
+
+		if (flags.contains(MappingFlag.NEEDS_CONTIGUOUS_OUTPUT)) {
+			throw new IllegalArgumentException("writer needs contiguous output, can't render chunks concurrently");
+		}
+
+		if (flags.contains(MappingFlag.NEEDS_MULTIPLE_PASSES)) {
+			accept(writer, order);
+			return;
+		}
+
+		int sortGen = order.isCacheable() ? getSortGeneration(order) : -1;
+
+		if (visitHeaderAndContent(writer)) {
+			boolean supplyFieldDstDescs = flags.contains(MappingFlag.NEEDS_DST_FIELD_DESC);
+			boolean supplyMethodDstDescs = flags.contains(MappingFlag.NEEDS_DST_METHOD_DESC);
+			ClassEntry[] classes = getSortedClasses(order, sortGen).toArray(new ClassEntry[0]);
+			int maxInFlight = 2 * ForkJoinPool.getCommonPoolParallelism();
+			ArrayDeque<CompletableFuture<ChunkBuffer>> pending = new ArrayDeque<>();
+			AtomicBoolean aborted = new AtomicBoolean();
+			boolean success = false;
+			int start = 0;
+
+			try {
+				while (start < classes.length) {
+					int end = Math.min(start + PARALLEL_CHUNK_SIZE, classes.length);
+
+					// keep nested classes with their top level class
+					while (end < classes.length && isSameTopLevelClass(classes[end - 1].srcName, classes[end].srcName)) {
+						end++;
+					}
+
+					while (pending.size() >= maxInFlight) {
+						writeChunk(pending.remove(), out);
+					}
+
+					int chunkStart = start;
+					int chunkEnd = end;
+
+					pending.add(CompletableFuture.supplyAsync(() -> {
+						if (aborted.get()) return null;
+
+						try {
+							return renderChunk(classes, chunkStart, chunkEnd, writerFactory, order, sortGen, supplyFieldDstDescs, supplyMethodDstDescs);
+						} catch (IOException e) {
+							throw new UncheckedIOException(e);
+						}
+					}));
+
+					start = end;
+				}
+
+				while (!pending.isEmpty()) {
+					writeChunk(pending.remove(), out);
+				}
+
+				success = true;
+			} finally {
+				if (!success) {
+					// let chunks that haven't started yet skip rendering, wait for the rest
+					aborted.set(true);
+
+					for (CompletableFuture<ChunkBuffer> future : pending) {
+						try {
+							future.join();
+						} catch (RuntimeException e) {
+							// already failing
+						}
+					}
+				}
+			}
+		}
+
+		writer.visitEnd();
+	}
+
+	private ChunkBuffer renderChunk(ClassEntry[] classes, int start, int end, WriterFactory writerFactory, VisitOrder order, int sortGen,
+			boolean supplyFieldDstDescs, boolean supplyMethodDstDescs) throws IOException {
+		ChunkBuffer ret = new ChunkBuffer();
+		MappingVisitor writer;
+
+		// chunk output is part of the enclosing write
+		MappingEvent.beginSuppression();
+
+		try {
+			writer = writerFactory.create(ret);
+		} finally {
+			MappingEvent.endSuppression();
+		}
+
+		try {
+			if (writer.getFlags().contains(MappingFlag.NEEDS_CONTIGUOUS_OUTPUT)) {
+				throw new IllegalArgumentException("chunk writer needs contiguous output");
+			}
+
+			boolean visitContent = visitHeaderAndContent(writer);
+			ret.contentStart = ret.size(); // header output is discarded
+
+			if (visitContent) {
+				for (int i = start; i < end; i++) {
+					classes[i].accept(writer, order, sortGen, supplyFieldDstDescs, supplyMethodDstDescs);
+				}
+			}
+
+			ret.contentEnd = ret.size(); // so is any trailer
+			writer.visitEnd();
+		} finally {
+			if (writer instanceof Closeable) ((Closeable) writer).close(); // only closes the chunk's own buffer
+		}
+
+		return ret;
+	}
+
+	private static void writeChunk(CompletableFuture<ChunkBuffer> future, Writer out) throws IOException {
+		ChunkBuffer chunk;
+
+		try {
+			chunk = future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof UncheckedIOException) throw ((UncheckedIOException) cause).getCause();
+			if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+			if (cause instanceof Error) throw (Error) cause;
+			throw new IOException(cause);
+		}
+
+		chunk.writeContentTo(out);
+	}
+
+	private static boolean isSameTopLevelClass(String a, String b) {
+		int end = getTopLevelEnd(a);
+
+		return end == getTopLevelEnd(b) && a.regionMatches(0, b, 0, end);
+	}
+
+	// same boundary as the Enigma writers use for nesting
+	private static int getTopLevelEnd(String name) {
+		int startPos = 0;
+		int pos;
+
+		while ((pos = name.indexOf('$', startPos + 1)) > 0) {
+			if (name.charAt(pos - 1) != '/') return pos;
+			startPos = pos + 1;
+		}
+
+		return name.length();
+	}
+
+	@FunctionalInterface
+	public interface WriterFactory {
+		MappingVisitor create(Writer writer) throws IOException;
+	}
+
+	private static final class ChunkBuffer extends CharArrayWriter {
+		ChunkBuffer() {
+			super(PARALLEL_CHUNK_SIZE * 256);
+		}
+
+		void writeContentTo(Writer out) throws IOException {
+			out.write(buf, contentStart, contentEnd - contentStart);
+		}
+
+		int contentStart;
+		int contentEnd;
+	}
+
+	/**
+	 * Get the generation number identifying sorted results for the built-in order and the current tree state.
+	 */
+	private synchronized int getSortGeneration(VisitOrder order) {
+		if (sortOrder == null || sortOrderModCount != modCount || !order.hasSameComparators(sortOrder)) {
+			sortOrder = order.copy();
+			sortOrderModCount = modCount;
+			sortGeneration++;
+		}
+
+		return sortGeneration;
+	}
+
+	private Collection<ClassEntry> getSortedClasses(VisitOrder order, int sortGen) {
+		if (sortGen < 0) return order.sortClasses(classesBySrcName.values());
+
+		SortCache<ClassEntry> cache = sortedClasses;
+
+		if (cache == null || !cache.isValid(sortGen, classesBySrcName.size())) {
+			ClassEntry[] sorted = classesBySrcName.values().toArray(new ClassEntry[0]);
+			Collection<ClassEntry> classes = order.sortClasses(sorted) ? Arrays.asList(sorted) : classesBySrcName.values();
+			sortedClasses = cache = new SortCache<>(sortGen, sorted.length, classes);
+		}
+
+		return cache.sorted;
+	}
+
+	private void visitSizeHints(MappingVisitor visitor) throws IOException {
+		int fields = 0;
+		int methods = 0;
+
+		for (ClassEntry cls : classesBySrcName.values()) {
+			if (cls.fields != null) fields += cls.fields.size();
+			if (cls.methods != null) methods += cls.methods.size();
+		}
+
+		visitor.visitMetadata(MappingUtil.SIZE_HINT_CLASSES, Integer.toString(classesBySrcName.size()));
+		visitor.visitMetadata(MappingUtil.SIZE_HINT_FIELDS, Integer.toString(fields));
+		visitor.visitMetadata(MappingUtil.SIZE_HINT_METHODS, Integer.toString(methods));
+	}
+
+	@Override
+	public Set<MappingFlag> getFlags() {
+		return flags;
+	}
+
 	@Override
 	public void reset() {
 		currentEntry = null;
@@ -374,6 +886,10 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 						classesByDstNames[i] = new HashMap<String, ClassEntry>(classesBySrcName.size());
 					}
 				}
+
+				if (nameIndex != null) {
+					nameIndex.addNamespaces(newDstNamespaces);
+				}
 			}
 		} else {
 			this.srcNamespace = srcNamespace;
@@ -386,12 +902,65 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 			if (indexByDstNames) {
 				initClassesByDstNames();
 			}
+
+			if (nameIndex != null) {
+				initNameIndex();
+			}
 		}
 	}
 
 	@Override
 	public void visitMetadata(String key, String value) {
-		this.metadata.add(new AbstractMap.SimpleEntry<>(key, value));
+		if (MappingUtil.isSizeHint(key)) { // negotiated via WANTS_SIZE_HINTS, describes the input, not the mappings
+			applySizeHint(key, value);
+		} else {
+			this.metadata.add(new AbstractMap.SimpleEntry<>(key, value));
+		}
+	}
+
+	private void applySizeHint(String key, String value) {
+		int count;
+
+		try {
+			count = Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			return;
+		}
+
+		if (count <= 0) return;
+
+		switch (key) {
+		case MappingUtil.SIZE_HINT_CLASSES:
+			expectedClasses = count;
+
+			if (classesBySrcName.isEmpty()) {
+				classesBySrcName = new LinkedHashMap<>(hashCapacity(count));
+
+				if (classesByDstNames != null) {
+					for (int i = 0; i < classesByDstNames.length; i++) {
+						if (classesByDstNames[i].isEmpty()) classesByDstNames[i] = new HashMap<>(hashCapacity(count));
+					}
+				}
+			}
+
+			break;
+		case MappingUtil.SIZE_HINT_FIELDS:
+			expectedFields = count;
+			break;
+		case MappingUtil.SIZE_HINT_METHODS:
+			expectedMethods = count;
+			break;
+		}
+
+		// only ever grow the member maps' initial capacity, small classes are the common case
+		if (expectedClasses > 0) {
+			fieldMapCapacity = Math.max(DEFAULT_MAP_CAPACITY, hashCapacity((expectedFields + expectedClasses - 1) / expectedClasses));
+			methodMapCapacity = Math.max(DEFAULT_MAP_CAPACITY, hashCapacity((expectedMethods + expectedClasses - 1) / expectedClasses));
+		}
+	}
+
+	private static int hashCapacity(int size) {
+		return (int) (size / 0.75f) + 1;
 	}
 
 	@Override
@@ -407,6 +976,9 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 			} else {
 				cls = new ClassEntry(this, srcName);
 				classesBySrcName.put(srcName, cls);
+				descSymbols.onClassAdded(cls);
+				if (nameIndex != null) nameIndex.add(cls);
+				modCount++;
 			}
 		}
 
@@ -498,6 +1070,7 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 			if (field == null) {
 				member.srcName = name;
 				member.setSrcDesc(desc);
+				if (nameIndex != null && member.isAttached()) nameIndex.add(member);
 			} else { // copy remaining data
 				field.copyFrom((FieldEntry) member, false);
 			}
@@ -507,6 +1080,7 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 			if (method == null) {
 				member.srcName = name;
 				member.setSrcDesc(desc);
+				if (nameIndex != null && member.isAttached()) nameIndex.add(member);
 			} else { // copy remaining data
 				method.copyFrom((MethodEntry) member, false);
 			}
@@ -567,7 +1141,12 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 		currentClass = null;
 		currentMethod = null;
 
+		MappingEvent event = MappingEvent.begin(MappingEvent.Type.TREE_VISIT_END);
+
 		if (pendingMembers != null) {
+			if (event != null) event.pendingMembers = pendingMembers.size();
+			modCount++;
+
 			for (MemberEntry<?> member : pendingMembers.values()) {
 				addPendingMember(member);
 			}
@@ -576,17 +1155,27 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 		}
 
 		if (hierarchyInfo != null) {
-			propagateNames(hierarchyInfo);
+			int propagated = propagateNames(hierarchyInfo);
+			if (event != null) event.propagatedMethods = propagated;
+		}
+
+		if (event != null) {
+			event.classes = classesBySrcName.size();
+			event.commit();
 		}
 
 		return true;
 	}
 
-	private <T> void propagateNames(HierarchyInfoProvider<T> provider) {
+	/**
+	 * @return the number of methods within hierarchies that received propagated names
+	 */
+	private <T> int propagateNames(HierarchyInfoProvider<T> provider) {
 		int nsId = getNamespaceId(provider.getNamespace());
-		if (nsId == NULL_NAMESPACE_ID) return;
+		if (nsId == NULL_NAMESPACE_ID) return 0;
 
 		Set<MethodEntry> processed = Collections.newSetFromMap(new IdentityHashMap<>());
+		int ret = 0;
 
 		for (ClassEntry cls : classesBySrcName.values()) {
 			for (MethodEntry method : cls.getMethods()) {
@@ -616,6 +1205,8 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 					}
 				}
 
+				ret += hierarchyMethods.size();
+
 				for (MethodMapping m : hierarchyMethods) {
 					processed.add((MethodEntry) m);
 
@@ -629,6 +1220,8 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 				}
 			}
 		}
+
+		return ret;
 	}
 
 	@Override
@@ -692,17 +1285,28 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 	abstract static class Entry<T extends Entry<T>> implements ElementMapping {
 		protected Entry(MemoryMappingTree tree, String srcName) {
 			this.srcName = srcName;
-			this.dstNames = new String[tree.dstNamespaces.size()];
+
+			if (tree.nameArena == null) {
+				this.dstNames = new String[tree.dstNamespaces.size()];
+			} else {
+				this.dstNameHandles = new int[tree.dstNamespaces.size()];
+			}
 		}
 
 		protected Entry(MemoryMappingTree tree, ElementMapping src, int srcNsEquivalent) {
 			this(tree, src.getName(srcNsEquivalent));
 
-			for (int i = 0; i < dstNames.length; i++) {
+			for (int i = 0; i < tree.dstNamespaces.size(); i++) {
 				int dstNsEquivalent = src.getTree().getNamespaceId(tree.dstNamespaces.get(i));
 
-				if (dstNsEquivalent != NULL_NAMESPACE_ID) {
-					setDstName(src.getDstName(dstNsEquivalent), i);
+				if (dstNsEquivalent != NULL_NAMESPACE_ID) { // stored directly, subclass state isn't initialized yet
+					String name = src.getDstName(dstNsEquivalent);
+
+					if (dstNames != null) {
+						dstNames[i] = name;
+					} else {
+						dstNameHandles[i] = tree.nameArena.add(name);
+					}
 				}
 			}
 
@@ -718,72 +1322,156 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 
 		@Override
 		public final String getDstName(int namespace) {
-			return dstNames[namespace];
+			if (dstNames != null) return dstNames[namespace];
+
+			return arena().get(dstNameHandles[namespace]);
 		}
 
 		@Override
 		public void setDstName(String name, int namespace) {
-			dstNames[namespace] = name;
+			NameSearchIndex index = getNameIndex();
+			String oldName = index != null ? getDstName(namespace) : null;
+
+			if (dstNames != null) {
+				dstNames[namespace] = name;
+			} else {
+				NameArena arena = arena();
+				if (!arena.equals(dstNameHandles[namespace], name)) dstNameHandles[namespace] = arena.add(name);
+			}
+
+			if (index != null && !Objects.equals(oldName, name)) index.rename(this, namespace, oldName, name);
 		}
 
-		void resizeDstNames(int newSize) {
-			dstNames = Arrays.copyOf(dstNames, newSize);
+		/**
+		 * @return whether the entry is reachable from its tree
+		 */
+		boolean isAttached() {
+			return false;
 		}
 
-		void updateDstNames(int[] map) {
-			String[] newDstNames = new String[map.length];
+		/**
+		 * @return the tree's name search index if enabled and this entry is part of it, null otherwise
+		 */
+		private NameSearchIndex getNameIndex() {
+			NameSearchIndex ret = ((MemoryMappingTree) getTree()).nameIndex;
 
-			for (int i = 0; i < map.length; i++) {
-				int src = map[i];
+			return ret != null && isAttached() ? ret : null;
+		}
 
-				if (src >= 0) {
-					newDstNames[i] = dstNames[src];
-				}
+		final int getDstNameCount() {
+			return dstNames != null ? dstNames.length : dstNameHandles.length;
+		}
+
+		/**
+		 * @return the dst names, materialized into a new array if they are stored in a {@link NameArena}
+		 */
+		final String[] getDstNames() {
+			if (dstNames != null) return dstNames;
+
+			NameArena arena = arena();
+			String[] ret = new String[dstNameHandles.length];
+
+			for (int i = 0; i < ret.length; i++) {
+				ret[i] = arena.get(dstNameHandles[i]);
 			}
 
-			dstNames = newDstNames;
+			return ret;
 		}
 
-		@Override
-		public final String getComment() {
-			return comment;
+		private NameArena arena() {
+			return ((MemoryMappingTree) getTree()).nameArena;
 		}
 
-		@Override
-		public final void setComment(String comment) {
-			this.comment = comment;
-		}
+		void convertDstNames(NameArena oldArena, NameArena newArena) {
+			int count = getDstNameCount();
+			String[] names = new String[count];
 
-		protected final boolean acceptElement(MappingVisitor visitor, String[] dstDescs) throws IOException {
-			MappedElementKind kind = getKind();
+			for (int i = 0; i < count; i++) {
+				names[i] = dstNames != null ? dstNames[i] : oldArena.get(dstNameHandles[i]);
+			}
 
-			for (int i = 0; i < dstNames.length; i++) {
-				String dstName = dstNames[i];
+			if (newArena == null) {
+				dstNames = names;
+				dstNameHandles = null;
+			} else {
+				dstNames = null;
+				dstNameHandles = new int[count];
 
-				if (dstName != null) visitor.visitDstName(kind, i, dstName);
+				for (int i = 0; i < count; i++) {
+					dstNameHandles[i] = newArena.add(names[i]);
+				}
 			}
+		}
 
-			if (dstDescs != null) {
-				for (int i = 0; i < dstDescs.length; i++) {
-					String dstDesc = dstDescs[i];
+		void resizeDstNames(int newSize) {
+			if (dstNames != null) {
+				dstNames = Arrays.copyOf(dstNames, newSize);
+			} else {
+				dstNameHandles = Arrays.copyOf(dstNameHandles, newSize);
+			}
+		}
+
+		void updateDstNames(int[] map) {
+			if (dstNames != null) {
+				String[] newDstNames = new String[map.length];
+
+				for (int i = 0; i < map.length; i++) {
+					int src = map[i];
 
-					if (dstDesc != null) visitor.visitDstDesc(kind, i, dstDesc);
+					if (src >= 0) {
+						newDstNames[i] = dstNames[src];
+					}
+				}
+
+				dstNames = newDstNames;
+			} else {
+				int[] newHandles = new int[map.length];
+
+				for (int i = 0; i < map.length; i++) {
+					int src = map[i];
+
+					if (src >= 0) {
+						newHandles[i] = dstNameHandles[src];
+					}
 				}
-			}
 
-			if (!visitor.visitElementContent(kind)) {
-				return false;
+				dstNameHandles = newHandles;
 			}
+		}
 
-			if (comment != null) visitor.visitComment(kind, comment);
+		@Override
+		public final String getComment() {
+			return comment;
+		}
 
-			return true;
+		@Override
+		public final void setComment(String comment) {
+			this.comment = comment;
 		}
 
 		protected void copyFrom(T o, boolean replace) {
-			for (int i = 0; i < dstNames.length; i++) {
-				if (o.dstNames[i] != null && (replace || dstNames[i] == null)) {
-					dstNames[i] = o.dstNames[i];
+			NameSearchIndex index = getNameIndex();
+			if (index != null) index.remove(this);
+
+			if (dstNames != null && o.dstNames != null) {
+				for (int i = 0; i < dstNames.length; i++) {
+					if (o.dstNames[i] != null && (replace || dstNames[i] == null)) {
+						dstNames[i] = o.dstNames[i];
+					}
+				}
+			} else if (dstNameHandles != null && o.dstNameHandles != null && o.getTree() == getTree()) { // same arena
+				for (int i = 0; i < dstNameHandles.length; i++) {
+					if (o.dstNameHandles[i] != 0 && (replace || dstNameHandles[i] == 0)) {
+						dstNameHandles[i] = o.dstNameHandles[i];
+					}
+				}
+			} else {
+				for (int i = 0, max = getDstNameCount(); i < max; i++) {
+					String name = o.getDstName(i);
+
+					if (name != null && (replace || getDstName(i) == null)) {
+						setDstName(name, i);
+					}
 				}
 			}
 
@@ -791,11 +1479,14 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 				comment = o.comment;
 			}
 
+			if (index != null) index.add(this);
+
 			// TODO: copy args+vars
 		}
 
 		protected String srcName;
-		protected String[] dstNames;
+		protected String[] dstNames; // null if stored in the tree's NameArena
+		protected int[] dstNameHandles; // null unless stored in the tree's NameArena
 		protected String comment;
 	}
 
@@ -830,10 +1521,15 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 			return tree;
 		}
 
+		@Override
+		boolean isAttached() {
+			return srcName != null && tree.classesBySrcName.get(srcName) == this;
+		}
+
 		@Override
 		public void setDstName(String name, int namespace) {
 			if (tree.indexByDstNames) {
-				String oldName = dstNames[namespace];
+				String oldName = getDstName(namespace);
 
 				if (!Objects.equals(name, oldName)) {
 					Map<String, ClassEntry> map = tree.classesByDstNames[namespace];
@@ -864,22 +1560,47 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 
 		@Override
 		public FieldEntry getField(String name, String desc, int namespace) {
-			return (FieldEntry) ClassMapping.super.getField(name, desc, namespace);
+			if (namespace < 0) return getField(name, desc);
+			if (fields == null) return null;
+
+			for (FieldEntry field : fields.values()) {
+				if (name.equals(field.getDstName(namespace))
+						&& (desc == null || field.matchesDesc(desc, namespace, false))) {
+					return field;
+				}
+			}
+
+			return null;
 		}
 
 		@Override
 		public FieldEntry addField(FieldMapping field) {
 			FieldEntry entry = field instanceof FieldEntry && field.getOwner() == this ? (FieldEntry) field : new FieldEntry(this, field, tree.getSrcNsEquivalent(field));
 
-			if (fields == null) fields = new LinkedHashMap<>();
+			if (fields == null) fields = new LinkedHashMap<>(tree.fieldMapCapacity);
+			tree.modCount++;
+
+			FieldEntry ret = addMember(entry, fields, FLAG_HAS_ANY_FIELD_DESC, FLAG_MISSES_ANY_FIELD_DESC);
 
-			return addMember(entry, fields, FLAG_HAS_ANY_FIELD_DESC, FLAG_MISSES_ANY_FIELD_DESC);
+			if (ret == entry && isAttached()) { // existing entries are updated by copyFrom
+				if (tree.nameIndex != null) tree.nameIndex.add(ret);
+				if (tree.typeRefIndex != null) tree.typeRefIndex.update(ret, null, ret.srcDesc);
+			}
+
+			return ret;
 		}
 
 		@Override
 		public FieldEntry removeField(String srcName, String srcDesc) {
 			FieldEntry ret = getField(srcName, srcDesc);
-			if (ret != null) fields.remove(ret.key);
+
+			if (ret != null) {
+				fields.remove(ret.key);
+				if (tree.nameIndex != null) tree.nameIndex.remove(ret);
+				if (tree.typeRefIndex != null) tree.typeRefIndex.update(ret, ret.srcDesc, null);
+			}
+
+			tree.modCount++;
 
 			return ret;
 		}
@@ -898,22 +1619,49 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 
 		@Override
 		public MethodEntry getMethod(String name, String desc, int namespace) {
-			return (MethodEntry) ClassMapping.super.getMethod(name, desc, namespace);
+			if (namespace < 0) return getMethod(name, desc);
+			if (methods == null) return null;
+
+			boolean argsOnly = desc != null && desc.endsWith(")");
+
+			for (MethodEntry method : methods.values()) {
+				if (name.equals(method.getDstName(namespace))
+						&& (desc == null || method.matchesDesc(desc, namespace, argsOnly))) {
+					return method;
+				}
+			}
+
+			return null;
 		}
 
 		@Override
 		public MethodEntry addMethod(MethodMapping method) {
 			MethodEntry entry = method instanceof MethodEntry && method.getOwner() == this ? (MethodEntry) method : new MethodEntry(this, method, tree.getSrcNsEquivalent(method));
 
-			if (methods == null) methods = new LinkedHashMap<>();
+			if (methods == null) methods = new LinkedHashMap<>(tree.methodMapCapacity);
+			tree.modCount++;
+
+			MethodEntry ret = addMember(entry, methods, FLAG_HAS_ANY_METHOD_DESC, FLAG_MISSES_ANY_METHOD_DESC);
 
-			return addMember(entry, methods, FLAG_HAS_ANY_METHOD_DESC, FLAG_MISSES_ANY_METHOD_DESC);
+			if (ret == entry && isAttached()) { // existing entries are updated by copyFrom
+				if (tree.nameIndex != null) tree.nameIndex.add(ret);
+				if (tree.typeRefIndex != null) tree.typeRefIndex.update(ret, null, ret.srcDesc);
+			}
+
+			return ret;
 		}
 
 		@Override
 		public MethodEntry removeMethod(String srcName, String srcDesc) {
 			MethodEntry ret = getMethod(srcName, srcDesc);
-			if (ret != null) methods.remove(ret.key);
+
+			if (ret != null) {
+				methods.remove(ret.key);
+				if (tree.nameIndex != null) tree.nameIndex.remove(ret);
+				if (tree.typeRefIndex != null) tree.typeRefIndex.update(ret, ret.srcDesc, null);
+			}
+
+			tree.modCount++;
 
 			return ret;
 		}
@@ -993,6 +1741,7 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 						ret.key = entry.key;
 						ret.srcDesc = entry.srcDesc;
 						map.put(ret.key, ret);
+						tree.onSrcDescChanged(ret, null, ret.srcDesc);
 						ret.copyFrom(entry, false);
 						entry = ret;
 					}
@@ -1017,30 +1766,54 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 			}
 		}
 
-		void accept(MappingVisitor visitor, VisitOrder order, boolean supplyFieldDstDescs, boolean supplyMethodDstDescs) throws IOException {
-			if (visitor.visitClass(srcName) && acceptElement(visitor, null)) {
+		void accept(MappingVisitor visitor, VisitOrder order, int sortGen, boolean supplyFieldDstDescs, boolean supplyMethodDstDescs) throws IOException {
+			if (visitor.visitClass(srcName, getDstNames(), comment)) {
 				boolean methodsFirst = order.isMethodsFirst() && fields != null && methods != null;
 
 				if (!methodsFirst && fields != null) {
-					for (FieldEntry field : order.sortFields(fields.values())) {
+					for (FieldEntry field : getSortedFields(order, sortGen)) {
 						field.accept(visitor, supplyFieldDstDescs);
 					}
 				}
 
 				if (methods != null) {
-					for (MethodEntry method : order.sortMethods(methods.values())) {
-						method.accept(visitor, order, supplyMethodDstDescs);
+					for (MethodEntry method : getSortedMethods(order, sortGen)) {
+						method.accept(visitor, order, sortGen, supplyMethodDstDescs);
 					}
 				}
 
 				if (methodsFirst) {
-					for (FieldEntry field : order.sortFields(fields.values())) {
+					for (FieldEntry field : getSortedFields(order, sortGen)) {
 						field.accept(visitor, supplyFieldDstDescs);
 					}
 				}
 			}
 		}
 
+		private Collection<FieldEntry> getSortedFields(VisitOrder order, int sortGen) {
+			if (sortGen < 0) return order.sortFields(fields.values());
+
+			SortCache<FieldEntry> cache = sortedFields;
+
+			if (cache == null || !cache.isValid(sortGen, fields.size())) {
+				sortedFields = cache = new SortCache<>(sortGen, fields.size(), order.sortFields(fields.values()));
+			}
+
+			return cache.sorted;
+		}
+
+		private Collection<MethodEntry> getSortedMethods(VisitOrder order, int sortGen) {
+			if (sortGen < 0) return order.sortMethods(methods.values());
+
+			SortCache<MethodEntry> cache = sortedMethods;
+
+			if (cache == null || !cache.isValid(sortGen, methods.size())) {
+				sortedMethods = cache = new SortCache<>(sortGen, methods.size(), order.sortMethods(methods.values()));
+			}
+
+			return cache.sorted;
+		}
+
 		@Override
 		protected void copyFrom(ClassEntry o, boolean replace) {
 			super.copyFrom(o, replace);
@@ -1057,6 +1830,7 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 							field.key = oField.key;
 							field.srcDesc = oField.srcDesc;
 							fields.put(field.key, field);
+							tree.onSrcDescChanged(field, null, field.srcDesc);
 
 							flags |= FLAG_HAS_ANY_FIELD_DESC;
 						}
@@ -1078,6 +1852,7 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 							method.key = oMethod.key;
 							method.srcDesc = oMethod.srcDesc;
 							methods.put(method.key, method);
+							tree.onSrcDescChanged(method, null, method.srcDesc);
 
 							flags |= FLAG_HAS_ANY_METHOD_DESC;
 						}
@@ -1102,6 +1877,8 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 		private Map<MemberKey, FieldEntry> fields = null;
 		private Map<MemberKey, MethodEntry> methods = null;
 		private byte flags;
+		private SortCache<FieldEntry> sortedFields;
+		private SortCache<MethodEntry> sortedMethods;
 	}
 
 	abstract static class MemberEntry<T extends MemberEntry<T>> extends Entry<T> implements MemberMapping {
@@ -1126,6 +1903,13 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 			return owner.tree;
 		}
 
+		@Override
+		boolean isAttached() {
+			Map<MemberKey, ?> members = getKind() == MappedElementKind.FIELD ? owner.fields : owner.methods;
+
+			return members != null && members.get(key) == this && owner.isAttached();
+		}
+
 		@Override
 		public final ClassEntry getOwner() {
 			return owner;
@@ -1136,26 +1920,65 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 			return srcDesc;
 		}
 
-		protected final boolean acceptMember(MappingVisitor visitor, boolean supplyDstDescs) throws IOException {
-			String[] dstDescs;
+		@Override
+		public final String getDstDesc(int namespace) {
+			EncodedDesc encoded = getEncodedDesc();
+			if (encoded == null) return MemberMapping.super.getDstDesc(namespace); // no or malformed desc
 
-			if (!supplyDstDescs || srcDesc == null) {
-				dstDescs = null;
-			} else {
-				MappingTree tree = owner.tree;
-				dstDescs = new String[tree.getDstNamespaces().size()];
+			return owner.tree.descSymbols.map(encoded, namespace);
+		}
 
-				for (int i = 0; i < dstDescs.length; i++) {
-					dstDescs[i] = tree.mapDesc(srcDesc, i);
-				}
+		@Override
+		public final String getDesc(int namespace) {
+			return namespace < 0 ? srcDesc : getDstDesc(namespace);
+		}
+
+		/**
+		 * Check the desc in the given dst namespace against {@code desc}, with a missing desc matching anything.
+		 */
+		final boolean matchesDesc(String desc, int namespace, boolean argsOnly) {
+			if (srcDesc == null) return true;
+
+			EncodedDesc encoded = getEncodedDesc();
+
+			if (encoded == null) { // malformed, compare the slow way
+				String mDesc = getDstDesc(namespace);
+
+				return desc.equals(mDesc) || argsOnly && mDesc.startsWith(desc);
 			}
 
-			return acceptElement(visitor, dstDescs);
+			return owner.tree.descSymbols.matches(encoded, desc, namespace, argsOnly);
+		}
+
+		private EncodedDesc getEncodedDesc() {
+			String desc = srcDesc;
+			if (desc == null) return null;
+
+			EncodedDesc ret = encodedDesc;
+
+			if (ret == null || ret.desc != desc) { // srcDesc changed since encoding
+				encodedDesc = ret = owner.tree.descSymbols.encode(desc);
+			}
+
+			return ret;
+		}
+
+		protected final String[] getDstDescs(boolean supplyDstDescs) {
+			if (!supplyDstDescs || srcDesc == null) return null;
+
+			String[] ret = new String[owner.tree.getDstNamespaces().size()];
+
+			for (int i = 0; i < ret.length; i++) {
+				ret[i] = getDstDesc(i);
+			}
+
+			return ret;
 		}
 
 		protected final ClassEntry owner;
 		protected String srcDesc;
 		MemberKey key;
+		private volatile EncodedDesc encodedDesc;
 	}
 
 	static final class FieldEntry extends MemberEntry<FieldEntry> implements FieldMapping {
@@ -1179,10 +2002,13 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 			MemberKey newKey = new MemberKey(srcName, desc);
 			if (owner.fields.containsKey(newKey)) throw new IllegalArgumentException("conflicting name+desc after changing desc to "+desc+" for "+this);
 
+			String oldDesc = srcDesc;
 			owner.fields.remove(key);
 			srcDesc = desc;
 			key = newKey;
 			owner.fields.put(newKey, this);
+			owner.tree.modCount++;
+			owner.tree.onSrcDescChanged(this, oldDesc, desc);
 
 			if (desc != null) {
 				owner.flags |= ClassEntry.FLAG_HAS_ANY_FIELD_DESC;
@@ -1192,9 +2018,7 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 		}
 
 		void accept(MappingVisitor visitor, boolean supplyDstDescs) throws IOException {
-			if (visitor.visitField(srcName, srcDesc)) {
-				acceptMember(visitor, supplyDstDescs);
-			}
+			visitor.visitField(srcName, srcDesc, getDstNames(), getDstDescs(supplyDstDescs), comment);
 		}
 
 		@Override
@@ -1232,10 +2056,13 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 			MemberKey newKey = new MemberKey(srcName, desc);
 			if (owner.methods.containsKey(newKey)) throw new IllegalArgumentException("conflicting name+desc after changing desc to "+desc+" for "+this);
 
+			String oldDesc = srcDesc;
 			owner.methods.remove(key);
 			srcDesc = desc;
 			key = newKey;
 			owner.methods.put(newKey, this);
+			owner.tree.modCount++;
+			owner.tree.onSrcDescChanged(this, oldDesc, desc);
 
 			if (desc != null && !desc.endsWith(")")) {
 				owner.flags |= ClassEntry.FLAG_HAS_ANY_METHOD_DESC;
@@ -1289,6 +2116,8 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 				updateArg(prev, entry, false);
 			}
 
+			owner.tree.modCount++;
+
 			return entry;
 		}
 
@@ -1303,6 +2132,7 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 		public MethodArgEntry removeArg(int argPosition, int lvIndex, String srcName) {
 			MethodArgEntry ret = getArg(argPosition, lvIndex, srcName);
 			if (ret != null) args.remove(ret);
+			owner.tree.modCount++;
 
 			return ret;
 		}
@@ -1400,6 +2230,8 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 				updateVar(prev, entry, false);
 			}
 
+			owner.tree.modCount++;
+
 			return entry;
 		}
 
@@ -1417,34 +2249,59 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 		public MethodVarEntry removeVar(int lvtRowIndex, int lvIndex, int startOpIdx, int endOpIdx, String srcName) {
 			MethodVarEntry ret = getVar(lvtRowIndex, lvIndex, startOpIdx, endOpIdx, srcName);
 			if (ret != null) vars.remove(ret);
+			owner.tree.modCount++;
 
 			return ret;
 		}
 
-		void accept(MappingVisitor visitor, VisitOrder order, boolean supplyDstDescs) throws IOException {
-			if (visitor.visitMethod(srcName, srcDesc) && acceptMember(visitor, supplyDstDescs)) {
+		void accept(MappingVisitor visitor, VisitOrder order, int sortGen, boolean supplyDstDescs) throws IOException {
+			if (visitor.visitMethod(srcName, srcDesc, getDstNames(), getDstDescs(supplyDstDescs), comment)) {
 				boolean varsFirst = order.isMethodVarsFirst() && args != null && vars != null;
 
 				if (!varsFirst && args != null) {
-					for (MethodArgEntry arg : order.sortMethodArgs(args)) {
+					for (MethodArgEntry arg : getSortedArgs(order, sortGen)) {
 						arg.accept(visitor);
 					}
 				}
 
 				if (vars != null) {
-					for (MethodVarEntry var : order.sortMethodVars(vars)) {
+					for (MethodVarEntry var : getSortedVars(order, sortGen)) {
 						var.accept(visitor);
 					}
 				}
 
 				if (varsFirst) {
-					for (MethodArgEntry arg : order.sortMethodArgs(args)) {
+					for (MethodArgEntry arg : getSortedArgs(order, sortGen)) {
 						arg.accept(visitor);
 					}
 				}
 			}
 		}
 
+		private Collection<MethodArgEntry> getSortedArgs(VisitOrder order, int sortGen) {
+			if (sortGen < 0) return order.sortMethodArgs(args);
+
+			SortCache<MethodArgEntry> cache = sortedArgs;
+
+			if (cache == null || !cache.isValid(sortGen, args.size())) {
+				sortedArgs = cache = new SortCache<>(sortGen, args.size(), order.sortMethodArgs(args));
+			}
+
+			return cache.sorted;
+		}
+
+		private Collection<MethodVarEntry> getSortedVars(VisitOrder order, int sortGen) {
+			if (sortGen < 0) return order.sortMethodVars(vars);
+
+			SortCache<MethodVarEntry> cache = sortedVars;
+
+			if (cache == null || !cache.isValid(sortGen, vars.size())) {
+				sortedVars = cache = new SortCache<>(sortGen, vars.size(), order.sortMethodVars(vars));
+			}
+
+			return cache.sorted;
+		}
+
 		@Override
 		protected void copyFrom(MethodEntry o, boolean replace) {
 			super.copyFrom(o, replace);
@@ -1481,6 +2338,8 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 
 		private List<MethodArgEntry> args = null;
 		private List<MethodVarEntry> vars = null;
+		private SortCache<MethodArgEntry> sortedArgs;
+		private SortCache<MethodVarEntry> sortedVars;
 	}
 
 	static final class MethodArgEntry extends Entry<MethodArgEntry> implements MethodArgMapping {
@@ -1523,6 +2382,7 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 		@Override
 		public void setArgPosition(int position) {
 			this.argPosition = position;
+			method.owner.tree.modCount++;
 		}
 
 		@Override
@@ -1533,16 +2393,16 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 		@Override
 		public void setLvIndex(int index) {
 			this.lvIndex = index;
+			method.owner.tree.modCount++;
 		}
 
 		public void setSrcName(String name) {
 			this.srcName = name;
+			method.owner.tree.modCount++;
 		}
 
 		void accept(MappingVisitor visitor) throws IOException {
-			if (visitor.visitMethodArg(argPosition, lvIndex, srcName)) {
-				acceptElement(visitor, null);
-			}
+			visitor.visitMethodArg(argPosition, lvIndex, srcName, getDstNames(), comment);
 		}
 
 		@Override
@@ -1608,6 +2468,7 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 		@Override
 		public void setLvtRowIndex(int index) {
 			this.lvtRowIndex = index;
+			method.owner.tree.modCount++;
 		}
 
 		@Override
@@ -1630,16 +2491,16 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 			this.lvIndex = lvIndex;
 			this.startOpIdx = startOpIdx;
 			this.endOpIdx = endOpIdx;
+			method.owner.tree.modCount++;
 		}
 
 		public void setSrcName(String name) {
 			this.srcName = name;
+			method.owner.tree.modCount++;
 		}
 
 		void accept(MappingVisitor visitor) throws IOException {
-			if (visitor.visitMethodVar(lvtRowIndex, lvIndex, startOpIdx, endOpIdx, srcName)) {
-				acceptElement(visitor, null);
-			}
+			visitor.visitMethodVar(lvtRowIndex, lvIndex, startOpIdx, endOpIdx, srcName, getDstNames(), comment);
 		}
 
 		@Override
@@ -1736,13 +2597,54 @@ public final class MemoryMappingTree implements MappingTree, MappingVisitor {
 		private final boolean isField;
 	}
 
+	/**
+	 * Immutable sorted snapshot of a collection, valid for one sort generation.
+	 */
+	private static final class SortCache<T> {
+		SortCache(int generation, int size, Collection<T> sorted) {
+			this.generation = generation;
+			this.size = size;
+			this.sorted = sorted;
+		}
+
+		boolean isValid(int generation, int size) {
+			// the size check catches modifications through the collection views
+			return this.generation == generation && this.size == size;
+		}
+
+		final int generation;
+		final int size;
+		final Collection<T> sorted;
+	}
+
 	private boolean indexByDstNames;
+	private NameArena nameArena;
+	private final DescSymbolTable descSymbols = new DescSymbolTable(this);
+	private NameSearchIndex nameIndex;
+	private TypeReferenceIndex typeRefIndex;
 	private String srcNamespace;
 	private List<String> dstNamespaces = Collections.emptyList();
 	private final List<Map.Entry<String, String>> metadata = new ArrayList<>();
-	private final Map<String, ClassEntry> classesBySrcName = new LinkedHashMap<>();
+	private Map<String, ClassEntry> classesBySrcName = new LinkedHashMap<>();
 	private Map<String, ClassEntry>[] classesByDstNames;
 
+	private static final Set<MappingFlag> flags = Collections.unmodifiableSet(EnumSet.of(MappingFlag.WANTS_SIZE_HINTS));
+	private static final int DEFAULT_MAP_CAPACITY = 16;
+	private static final int PARALLEL_CHUNK_SIZE = 256;
+
+	private int expectedClasses;
+	private int expectedFields;
+	private int expectedMethods;
+	private int fieldMapCapacity = DEFAULT_MAP_CAPACITY;
+	private int methodMapCapacity = DEFAULT_MAP_CAPACITY;
+
+	// incremented by all modifications affecting the built-in visit orders
+	private int modCount;
+	private VisitOrder sortOrder;
+	private int sortOrderModCount;
+	private int sortGeneration;
+	private SortCache<ClassEntry> sortedClasses;
+
 	private HierarchyInfoProvider<?> hierarchyInfo;
 
 	private int srcNsMap;
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.tree;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only storage for names as byte slices in large pages, referenced by int handles.
+ *
+ * <p>Names consisting of Latin-1 chars only are stored with one byte per char, others as UTF-8. Each name is prefixed
+ * with a varint holding its byte length and encoding. Handle 0 is reserved for null. Replaced names aren't reclaimed.
+ *
+ * <p>Reads don't modify any state and may happen concurrently, writes have to be externally synchronized like any
+ * other {@link MemoryMappingTree} mutation.
+ */
+final class NameArena {
+	NameArena(boolean direct) {
+		this.direct = direct;
+		this.current = allocate(PAGE_SIZE);
+		pages.add(current);
+		pos = 1; // reserve handle 0 for null
+	}
+
+	boolean isDirect() {
+		return direct;
+	}
+
+	int add(String name) {
+		if (name == null) return 0;
+
+		int len = name.length();
+		boolean latin1 = true;
+
+		for (int i = 0; i < len; i++) {
+			if (name.charAt(i) > 0xff) {
+				latin1 = false;
+				break;
+			}
+		}
+
+		byte[] utf8 = latin1 ? null : name.getBytes(StandardCharsets.UTF_8);
+		int byteLen = latin1 ? len : utf8.length;
+		int header = byteLen << 1 | (latin1 ? 0 : 1);
+		int size = varIntSize(header) + byteLen;
+
+		if (pos + size > current.capacity()) {
+			if (pages.size() >= MAX_PAGES) throw new IllegalStateException("name arena exhausted");
+
+			current = allocate(Math.max(PAGE_SIZE, size));
+			pages.add(current);
+			pos = 0;
+		}
+
+		int ret = (pages.size() - 1) << PAGE_BITS | pos;
+		int p = pos;
+
+		while ((header & ~0x7f) != 0) {
+			current.put(p++, (byte) (header & 0x7f | 0x80));
+			header >>>= 7;
+		}
+
+		current.put(p++, (byte) header);
+
+		if (latin1) {
+			for (int i = 0; i < len; i++) {
+				current.put(p++, (byte) name.charAt(i));
+			}
+		} else {
+			for (byte b : utf8) {
+				current.put(p++, b);
+			}
+		}
+
+		pos = p;
+
+		return ret;
+	}
+
+	String get(int handle) {
+		if (handle == 0) return null;
+
+		ByteBuffer page = pages.get(handle >>> PAGE_BITS);
+		int p = handle & PAGE_MASK;
+		int header = 0;
+		int shift = 0;
+		byte b;
+
+		do {
+			b = page.get(p++);
+			header |= (b & 0x7f) << shift;
+			shift += 7;
+		} while (b < 0);
+
+		int len = header >>> 1;
+		byte[] data;
+		int off;
+
+		if (page.hasArray()) {
+			data = page.array();
+			off = page.arrayOffset() + p;
+		} else {
+			data = new byte[len];
+			off = 0;
+
+			for (int i = 0; i < len; i++) {
+				data[i] = page.get(p + i);
+			}
+		}
+
+		return new String(data, off, len, (header & 1) == 0 ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Compare the stored name with {@code name} without materializing it as a String for Latin-1 names.
+	 */
+	boolean equals(int handle, String name) {
+		if (handle == 0 || name == null) return handle == 0 && name == null;
+
+		ByteBuffer page = pages.get(handle >>> PAGE_BITS);
+		int p = handle & PAGE_MASK;
+		int header = 0;
+		int shift = 0;
+		byte b;
+
+		do {
+			b = page.get(p++);
+			header |= (b & 0x7f) << shift;
+			shift += 7;
+		} while (b < 0);
+
+		if ((header & 1) != 0) return name.equals(get(handle));
+
+		int len = header >>> 1;
+		if (len != name.length()) return false;
+
+		for (int i = 0; i < len; i++) {
+			if ((page.get(p + i) & 0xff) != name.charAt(i)) return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return the number of bytes allocated for pages
+	 */
+	long getCapacity() {
+		long ret = 0;
+
+		for (ByteBuffer page : pages) {
+			ret += page.capacity();
+		}
+
+		return ret;
+	}
+
+	private ByteBuffer allocate(int size) {
+		return direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.wrap(new byte[size]);
+	}
+
+	private static int varIntSize(int value) {
+		int ret = 1;
+
+		while ((value & ~0x7f) != 0) {
+			value >>>= 7;
+			ret++;
+		}
+
+		return ret;
+	}
+
+	private static final int PAGE_BITS = 20;
+	private static final int PAGE_SIZE = 1 << PAGE_BITS;
+	private static final int PAGE_MASK = PAGE_SIZE - 1;
+	private static final int MAX_PAGES = 1 << (31 - PAGE_BITS);
+
+	private final boolean direct;
+	private final List<ByteBuffer> pages = new ArrayList<>();
+	private ByteBuffer current;
+	private int pos;
+}
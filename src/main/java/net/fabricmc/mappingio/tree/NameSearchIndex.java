@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.tree;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+import net.fabricmc.mappingio.MappedElementKind;
+import net.fabricmc.mappingio.tree.MappingTree.ElementMapping;
+import net.fabricmc.mappingio.tree.MemoryMappingTree.ClassEntry;
+import net.fabricmc.mappingio.tree.MemoryMappingTree.Entry;
+import net.fabricmc.mappingio.tree.MemoryMappingTree.FieldEntry;
+import net.fabricmc.mappingio.tree.MemoryMappingTree.MethodEntry;
+
+/**
+ * Sorted per-namespace index of class, field and method names for prefix and glob queries.
+ *
+ * <p>Each namespace has three maps: full class names, simple class names (the part after the last {@code /} or
+ * {@code $}) and member names. Values are either a single entry or an identity based set for names shared by several
+ * entries, keeping updates to heavily shared names like {@code <init>} constant time.
+ */
+final class NameSearchIndex {
+	@SuppressWarnings("unchecked")
+	NameSearchIndex(int dstNamespaceCount) {
+		int count = dstNamespaceCount + 1; // src namespace at 0
+		classNames = new NavigableMap[count];
+		simpleClassNames = new NavigableMap[count];
+		memberNames = new NavigableMap[count];
+
+		for (int i = 0; i < count; i++) {
+			classNames[i] = new TreeMap<>();
+			simpleClassNames[i] = new TreeMap<>();
+			memberNames[i] = new TreeMap<>();
+		}
+	}
+
+	/**
+	 * Append empty dst namespaces.
+	 */
+	void addNamespaces(int count) {
+		int oldCount = classNames.length;
+		classNames = Arrays.copyOf(classNames, oldCount + count);
+		simpleClassNames = Arrays.copyOf(simpleClassNames, oldCount + count);
+		memberNames = Arrays.copyOf(memberNames, oldCount + count);
+
+		for (int i = oldCount; i < classNames.length; i++) {
+			classNames[i] = new TreeMap<>();
+			simpleClassNames[i] = new TreeMap<>();
+			memberNames[i] = new TreeMap<>();
+		}
+	}
+
+	void addClass(ClassEntry cls) {
+		add(cls);
+
+		for (FieldEntry field : cls.getFields()) {
+			add(field);
+		}
+
+		for (MethodEntry method : cls.getMethods()) {
+			add(method);
+		}
+	}
+
+	void removeClass(ClassEntry cls) {
+		remove(cls);
+
+		for (FieldEntry field : cls.getFields()) {
+			remove(field);
+		}
+
+		for (MethodEntry method : cls.getMethods()) {
+			remove(method);
+		}
+	}
+
+	void add(Entry<?> entry) {
+		if (!isIndexed(entry)) return;
+
+		for (int i = 0, max = Math.min(classNames.length, entry.getDstNameCount() + 1); i < max; i++) {
+			String name = entry.getName(i - 1);
+			if (name != null) add(entry, i, name);
+		}
+	}
+
+	void remove(Entry<?> entry) {
+		if (!isIndexed(entry)) return;
+
+		for (int i = 0, max = Math.min(classNames.length, entry.getDstNameCount() + 1); i < max; i++) {
+			String name = entry.getName(i - 1);
+			if (name != null) remove(entry, i, name);
+		}
+	}
+
+	void rename(Entry<?> entry, int namespace, String oldName, String newName) {
+		if (!isIndexed(entry)) return;
+
+		if (oldName != null) remove(entry, namespace + 1, oldName);
+		if (newName != null) add(entry, namespace + 1, newName);
+	}
+
+	void findByPrefix(String prefix, int namespace, boolean simpleName, List<ElementMapping> out) {
+		int idx = namespace + 1;
+		collect(simpleName ? simpleClassNames[idx] : classNames[idx], prefix, null, out);
+		collect(memberNames[idx], prefix, null, out);
+	}
+
+	void findByGlob(String glob, int namespace, boolean simpleName, List<ElementMapping> out) {
+		int idx = namespace + 1;
+		String prefix = getLiteralPrefix(glob);
+		collect(simpleName ? simpleClassNames[idx] : classNames[idx], prefix, glob, out);
+		collect(memberNames[idx], prefix, glob, out);
+	}
+
+	private static void collect(NavigableMap<String, Object> map, String prefix, String glob, List<ElementMapping> out) {
+		for (Map.Entry<String, Object> mapEntry : map.tailMap(prefix, true).entrySet()) {
+			String name = mapEntry.getKey();
+			if (!name.startsWith(prefix)) break;
+			if (glob != null && !matchesGlob(glob, name)) continue;
+
+			Object value = mapEntry.getValue();
+
+			if (value instanceof ElementMapping) {
+				out.add((ElementMapping) value);
+			} else {
+				@SuppressWarnings("unchecked")
+				Collection<ElementMapping> values = (Collection<ElementMapping>) value;
+				out.addAll(values);
+			}
+		}
+	}
+
+	private void add(Entry<?> entry, int idx, String name) {
+		if (entry.getKind() == MappedElementKind.CLASS) {
+			put(classNames[idx], name, entry);
+			put(simpleClassNames[idx], getSimpleName(name), entry);
+		} else {
+			put(memberNames[idx], name, entry);
+		}
+	}
+
+	private void remove(Entry<?> entry, int idx, String name) {
+		if (entry.getKind() == MappedElementKind.CLASS) {
+			remove(classNames[idx], name, entry);
+			remove(simpleClassNames[idx], getSimpleName(name), entry);
+		} else {
+			remove(memberNames[idx], name, entry);
+		}
+	}
+
+	private static void put(NavigableMap<String, Object> map, String name, Entry<?> entry) {
+		Object prev = map.putIfAbsent(name, entry);
+		if (prev == null || prev == entry) return;
+
+		if (prev instanceof Entry) {
+			Set<Entry<?>> set = Collections.newSetFromMap(new IdentityHashMap<>());
+			set.add((Entry<?>) prev);
+			set.add(entry);
+			map.put(name, set);
+		} else {
+			@SuppressWarnings("unchecked")
+			Set<Entry<?>> set = (Set<Entry<?>>) prev;
+			set.add(entry);
+		}
+	}
+
+	private static void remove(NavigableMap<String, Object> map, String name, Entry<?> entry) {
+		Object prev = map.get(name);
+
+		if (prev == entry) {
+			map.remove(name);
+		} else if (prev instanceof Set) {
+			@SuppressWarnings("unchecked")
+			Set<Entry<?>> set = (Set<Entry<?>>) prev;
+			set.remove(entry);
+
+			if (set.size() == 1) {
+				map.put(name, set.iterator().next());
+			}
+		}
+	}
+
+	private static boolean isIndexed(Entry<?> entry) {
+		MappedElementKind kind = entry.getKind();
+
+		return kind == MappedElementKind.CLASS || kind == MappedElementKind.FIELD || kind == MappedElementKind.METHOD;
+	}
+
+	static String getSimpleName(String name) {
+		return name.substring(Math.max(name.lastIndexOf('/'), name.lastIndexOf('$')) + 1);
+	}
+
+	private static String getLiteralPrefix(String glob) {
+		for (int i = 0; i < glob.length(); i++) {
+			char c = glob.charAt(i);
+			if (c == '*' || c == '?') return glob.substring(0, i);
+		}
+
+		return glob;
+	}
+
+	/**
+	 * Match against a glob where {@code *} matches any char sequence and {@code ?} any single char.
+	 */
+	static boolean matchesGlob(String glob, String name) {
+		int g = 0;
+		int n = 0;
+		int starG = -1;
+		int starN = 0;
+
+		while (n < name.length()) {
+			if (g < glob.length()) {
+				char c = glob.charAt(g);
+
+				if (c == '*') {
+					starG = g++;
+					starN = n;
+					continue;
+				} else if (c == '?' || c == name.charAt(n)) {
+					g++;
+					n++;
+					continue;
+				}
+			}
+
+			if (starG < 0) return false;
+
+			// backtrack, let the last star consume one more char
+			g = starG + 1;
+			n = ++starN;
+		}
+
+		while (g < glob.length() && glob.charAt(g) == '*') g++;
+
+		return g == glob.length();
+	}
+
+	private NavigableMap<String, Object>[] classNames;
+	private NavigableMap<String, Object>[] simpleClassNames;
+	private NavigableMap<String, Object>[] memberNames;
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.mappingio.tree;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import net.fabricmc.mappingio.tree.MemoryMappingTree.ClassEntry;
+import net.fabricmc.mappingio.tree.MemoryMappingTree.FieldEntry;
+import net.fabricmc.mappingio.tree.MemoryMappingTree.MemberEntry;
+import net.fabricmc.mappingio.tree.MemoryMappingTree.MethodEntry;
+
+/**
+ * Index from src class names to the members whose src descriptor references them.
+ */
+final class TypeReferenceIndex {
+	void addClass(ClassEntry cls) {
+		for (FieldEntry field : cls.getFields()) {
+			update(field, null, field.getSrcDesc());
+		}
+
+		for (MethodEntry method : cls.getMethods()) {
+			update(method, null, method.getSrcDesc());
+		}
+	}
+
+	void removeClass(ClassEntry cls) {
+		for (FieldEntry field : cls.getFields()) {
+			update(field, field.getSrcDesc(), null);
+		}
+
+		for (MethodEntry method : cls.getMethods()) {
+			update(method, method.getSrcDesc(), null);
+		}
+	}
+
+	void update(MemberEntry<?> member, String oldDesc, String newDesc) {
+		if (oldDesc != null) {
+			forEachClass(oldDesc, cls -> {
+				Set<MemberEntry<?>> members = references.get(cls);
+
+				if (members != null && members.remove(member) && members.isEmpty()) {
+					references.remove(cls);
+				}
+			});
+		}
+
+		if (newDesc != null) {
+			forEachClass(newDesc, cls -> references.computeIfAbsent(cls, ignore -> new LinkedHashSet<>()).add(member));
+		}
+	}
+
+	Set<MemberEntry<?>> get(String cls) {
+		return references.get(cls);
+	}
+
+	/**
+	 * Pass each class name referenced by the descriptor to the consumer, ignoring malformed trailing content.
+	 */
+	static void forEachClass(String desc, Consumer<String> consumer) {
+		int pos = 0;
+
+		while ((pos = desc.indexOf('L', pos)) >= 0) {
+			int end = desc.indexOf(';', pos + 1);
+			if (end < 0) break;
+
+			consumer.accept(desc.substring(pos + 1, end));
+			pos = end + 1;
+		}
+	}
+
+	private final Map<String, Set<MemberEntry<?>>> references = new HashMap<>();
+}
@@ -17,6 +17,7 @@
 package net.fabricmc.mappingio.tree;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
@@ -87,11 +88,11 @@ public final class VisitOrder {
 	}
 
 	public VisitOrder methodArgsByPosition() {
-		return methodArgComparator(Comparator.comparingInt(MethodArgMappingView::getArgPosition));
+		return methodArgComparator(ARGS_BY_POSITION);
 	}
 
 	public VisitOrder methodArgsByLvIndex() {
-		return methodArgComparator(Comparator.comparingInt(MethodArgMappingView::getLvIndex));
+		return methodArgComparator(ARGS_BY_LV_INDEX);
 	}
 
 	public VisitOrder methodVarComparator(Comparator<MethodVarMappingView> comparator) {
@@ -101,11 +102,11 @@ public final class VisitOrder {
 	}
 
 	public VisitOrder methodVarsByLvtRowIndex() {
-		return methodVarComparator(Comparator.comparingInt(MethodVarMappingView::getLvIndex).thenComparingInt(MethodVarMappingView::getLvtRowIndex));
+		return methodVarComparator(VARS_BY_LVT_ROW_INDEX);
 	}
 
 	public VisitOrder methodVarsByLvIndex() {
-		return methodVarComparator(Comparator.comparingInt(MethodVarMappingView::getLvIndex).thenComparingInt(MethodVarMappingView::getStartOpIdx));
+		return methodVarComparator(VARS_BY_LV_INDEX);
 	}
 
 	public VisitOrder methodsFirst(boolean methodsFirst) {
@@ -138,20 +139,18 @@ public final class VisitOrder {
 
 	// customization helpers
 
+	@SuppressWarnings("unchecked")
 	public static <T extends ElementMappingView> Comparator<T> compareBySrcName() {
-		return (a, b) -> compare(a.getSrcName(), b.getSrcName());
+		return (Comparator<T>) BY_SRC_NAME;
 	}
 
+	@SuppressWarnings("unchecked")
 	public static <T extends MemberMappingView> Comparator<T> compareBySrcNameDesc() {
-		return (a, b) -> {
-			int cmp = compare(a.getSrcName(), b.getSrcName());
-
-			return cmp != 0 ? cmp : compare(a.getSrcDesc(), b.getSrcDesc());
-		};
+		return (Comparator<T>) BY_SRC_NAME_DESC;
 	}
 
 	public static Comparator<ElementMappingView> compareBySrcNameShortFirst() {
-		return (a, b) -> compareShortFirst(a.getSrcName(), b.getSrcName());
+		return BY_SRC_NAME_SHORT_FIRST;
 	}
 
 	public static int compare(String a, String b) {
@@ -227,8 +226,34 @@ public final class VisitOrder {
 
 	// application
 
+	@SuppressWarnings("unchecked")
 	public <T extends ClassMappingView> Collection<T> sortClasses(Collection<T> classes) {
-		return sort(classes, classComparator);
+		if (classComparator == null || classes.size() < 2) return classes;
+
+		// class lists are long enough to benefit from a parallel sort, which falls back to sequential for small inputs
+		Object[] sorted = classes.toArray();
+		Arrays.parallelSort(sorted, (Comparator<Object>) (Comparator<?>) classComparator);
+
+		ArrayList<T> ret = new ArrayList<>(sorted.length);
+
+		for (Object cls : sorted) {
+			ret.add((T) cls);
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Sort the classes in place, sparing the copy into a list for callers owning a suitably typed array.
+	 *
+	 * @return whether the classes are subject to sorting at all
+	 */
+	<T extends ClassMappingView> boolean sortClasses(T[] classes) {
+		if (classComparator == null) return false;
+
+		Arrays.parallelSort(classes, classComparator);
+
+		return true;
 	}
 
 	public <T extends FieldMappingView> Collection<T> sortFields(Collection<T> fields) {
@@ -256,6 +281,52 @@ public final class VisitOrder {
 		return ret;
 	}
 
+	/**
+	 * Whether the sorted results only depend on the elements' source names, descriptors and indices.
+	 *
+	 * <p>This is the case if all comparators are built-in. Trees may cache such results until they get modified.
+	 */
+	boolean isCacheable() {
+		return (classComparator != null || fieldComparator != null || methodComparator != null || methodArgComparator != null || methodVarComparator != null)
+				&& isBuiltIn(classComparator)
+				&& isBuiltIn(fieldComparator)
+				&& isBuiltIn(methodComparator)
+				&& isBuiltIn(methodArgComparator)
+				&& isBuiltIn(methodVarComparator);
+	}
+
+	private static boolean isBuiltIn(Comparator<?> comparator) {
+		return comparator == null
+				|| comparator == BY_SRC_NAME
+				|| comparator == BY_SRC_NAME_DESC
+				|| comparator == BY_SRC_NAME_SHORT_FIRST
+				|| comparator == ARGS_BY_POSITION
+				|| comparator == ARGS_BY_LV_INDEX
+				|| comparator == VARS_BY_LVT_ROW_INDEX
+				|| comparator == VARS_BY_LV_INDEX;
+	}
+
+	boolean hasSameComparators(VisitOrder o) {
+		return classComparator == o.classComparator
+				&& fieldComparator == o.fieldComparator
+				&& methodComparator == o.methodComparator
+				&& methodArgComparator == o.methodArgComparator
+				&& methodVarComparator == o.methodVarComparator;
+	}
+
+	VisitOrder copy() {
+		VisitOrder ret = new VisitOrder();
+		ret.classComparator = classComparator;
+		ret.fieldComparator = fieldComparator;
+		ret.methodComparator = methodComparator;
+		ret.methodArgComparator = methodArgComparator;
+		ret.methodVarComparator = methodVarComparator;
+		ret.methodsFirst = methodsFirst;
+		ret.methodVarsFirst = methodVarsFirst;
+
+		return ret;
+	}
+
 	public boolean isMethodsFirst() {
 		return methodsFirst;
 	}
@@ -264,6 +335,27 @@ public final class VisitOrder {
 		return methodVarsFirst;
 	}
 
+	// shared instances, allowing trees to recognize the built-in orders
+	private static final Comparator<ElementMappingView> BY_SRC_NAME = (a, b) -> compare(a.getSrcName(), b.getSrcName());
+	private static final Comparator<MemberMappingView> BY_SRC_NAME_DESC = (a, b) -> {
+		int cmp = compare(a.getSrcName(), b.getSrcName());
+
+		return cmp != 0 ? cmp : compare(a.getSrcDesc(), b.getSrcDesc());
+	};
+	private static final Comparator<ElementMappingView> BY_SRC_NAME_SHORT_FIRST = (a, b) -> compareShortFirst(a.getSrcName(), b.getSrcName());
+	private static final Comparator<MethodArgMappingView> ARGS_BY_POSITION = (a, b) -> Integer.compare(a.getArgPosition(), b.getArgPosition());
+	private static final Comparator<MethodArgMappingView> ARGS_BY_LV_INDEX = (a, b) -> Integer.compare(a.getLvIndex(), b.getLvIndex());
+	private static final Comparator<MethodVarMappingView> VARS_BY_LVT_ROW_INDEX = (a, b) -> {
+		int cmp = Integer.compare(a.getLvIndex(), b.getLvIndex());
+
+		return cmp != 0 ? cmp : Integer.compare(a.getLvtRowIndex(), b.getLvtRowIndex());
+	};
+	private static final Comparator<MethodVarMappingView> VARS_BY_LV_INDEX = (a, b) -> {
+		int cmp = Integer.compare(a.getLvIndex(), b.getLvIndex());
+
+		return cmp != 0 ? cmp : Integer.compare(a.getStartOpIdx(), b.getStartOpIdx());
+	};
+
 	private Comparator<ClassMappingView> classComparator;
 	private Comparator<FieldMappingView> fieldComparator;
 	private Comparator<MethodMappingView> methodComparator;